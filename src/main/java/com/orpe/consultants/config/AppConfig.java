@@ -3,8 +3,11 @@ package com.orpe.consultants.config;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+// Scheduling drives the import job queue workers (ImportJobWorker)
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
   @Bean
@@ -0,0 +1,51 @@
+package com.orpe.consultants.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Shared, size-bounded Caffeine caches for reference data. Puts and evictions
+ * are deferred until the surrounding transaction commits, so a rolled back
+ * import never leaves a Material in the cache that is not in the database.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String MATERIALS = "materials";
+    public static final String PORT_CODES = "portCodes";
+    public static final String HS_CODES = "hsCodes";
+    public static final String COUNTRIES = "countries";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${orpe.cache.materials.max-size:50000}") long materialsMaxSize,
+            @Value("${orpe.cache.reference.ttl-minutes:10}") long referenceTtlMinutes) {
+        CaffeineCacheManager manager = new CaffeineCacheManager();
+        manager.setAllowNullValues(false);
+
+        // Materials are immutable once created, so they only leave the cache by size
+        manager.registerCustomCache(MATERIALS, Caffeine.newBuilder()
+            .maximumSize(materialsMaxSize)
+            .recordStats()
+            .build());
+
+        // Distinct value lists, one entry each; evicted on import writes, TTL covers other nodes
+        for (String name : new String[] {PORT_CODES, HS_CODES, COUNTRIES}) {
+            manager.registerCustomCache(name, Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofMinutes(referenceTtlMinutes))
+                .recordStats()
+                .build());
+        }
+        return new TransactionAwareCacheManagerProxy(manager);
+    }
+}
@@ -0,0 +1,98 @@
+package com.orpe.consultants.config;
+
+import com.orpe.consultants.utils.SqlProfiler;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+
+/**
+ * DataSource wrapper that reports every executed statement, its duration
+ * and the rows it read or changed to the SqlProfiler.
+ */
+public class ProfilingDataSource extends DelegatingDataSource {
+
+    private final SqlProfiler profiler;
+
+    public ProfilingDataSource(DataSource target, SqlProfiler profiler) {
+        super(target);
+        this.profiler = profiler;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(super.getConnection(username, password));
+    }
+
+    private Connection wrapConnection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                Object result = invoke(target, method, args);
+                if (result instanceof Statement st) {
+                    String sql = method.getName().startsWith("prepare") && args != null && args[0] instanceof String s ? s : null;
+                    return wrapStatement(st, sql);
+                }
+                return result;
+            });
+    }
+
+    private Statement wrapStatement(Statement target, String preparedSql) {
+        Class<?> type = target instanceof CallableStatement ? CallableStatement.class
+            : target instanceof PreparedStatement ? PreparedStatement.class
+            : Statement.class;
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {type},
+            (proxy, method, args) -> {
+                String name = method.getName();
+                if (!name.startsWith("execute")) {
+                    Object result = invoke(target, method, args);
+                    return name.equals("getResultSet") && result != null ? wrapResultSet((ResultSet) result) : result;
+                }
+
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                long start = System.nanoTime();
+                Object result = invoke(target, method, args);
+                long elapsed = System.nanoTime() - start;
+
+                profiler.recordStatement(sql, elapsed, affectedRows(result));
+                return result instanceof ResultSet rs ? wrapResultSet(rs) : result;
+            });
+    }
+
+    private ResultSet wrapResultSet(ResultSet target) {
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {ResultSet.class},
+            (proxy, method, args) -> {
+                Object result = invoke(target, method, args);
+                if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                    profiler.recordRowRead();
+                }
+                return result;
+            });
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Number n) return n.longValue();
+        long sum = 0;
+        if (result instanceof int[] counts) {
+            for (int c : counts) if (c > 0) sum += c;
+        } else if (result instanceof long[] counts) {
+            for (long c : counts) if (c > 0) sum += c;
+        }
+        return sum;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
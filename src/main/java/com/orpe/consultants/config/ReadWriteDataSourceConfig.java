@@ -0,0 +1,36 @@
+package com.orpe.consultants.config;
+
+import com.orpe.consultants.utils.PoolMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Primary/replica split, enabled by setting orpe.datasource.replica.jdbc-url.
+ * Read-only interactive transactions (list pages, counts, reference data)
+ * run on the replica pool; writes, bulk work and everything outside a
+ * read-only transaction stay on the primary pools of
+ * WorkloadDataSourceConfig, and so do Flyway migrations.
+ *
+ * The replica may lag behind: rows saved a moment ago can be missing from
+ * the list until it catches up.
+ */
+@Configuration
+@ConditionalOnProperty(name = "orpe.datasource.replica.jdbc-url")
+public class ReadWriteDataSourceConfig {
+
+    // Starts from the primary's URL, credentials and driver; orpe.datasource.replica.* overrides them
+    @Bean
+    @ConfigurationProperties("orpe.datasource.replica")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties, PoolMetrics poolMetrics) {
+        HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        replica.setPoolName("replica");
+        replica.setMetricsTrackerFactory(poolMetrics);
+        // A write that slips through fails instead of diverging from the primary
+        replica.setReadOnly(true);
+        return replica;
+    }
+}
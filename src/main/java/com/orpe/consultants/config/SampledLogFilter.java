@@ -0,0 +1,37 @@
+package com.orpe.consultants.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback filter that lets through one in every sampleRate events of the
+ * configured logger (and its children). WARN and above always pass, as do
+ * events of other loggers. Used in the prod profile to keep SQL logging
+ * without paying for a line per statement.
+ */
+public class SampledLogFilter extends Filter<ILoggingEvent> {
+
+    private final AtomicLong counter = new AtomicLong();
+    private String loggerName = "org.hibernate.SQL";
+    private int sampleRate = 100;
+
+    public void setLoggerName(String loggerName) {
+        this.loggerName = loggerName;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (event.getLevel().isGreaterOrEqual(Level.WARN) || !event.getLoggerName().startsWith(loggerName)) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % sampleRate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
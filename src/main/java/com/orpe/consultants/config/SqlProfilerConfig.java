@@ -0,0 +1,42 @@
+package com.orpe.consultants.config;
+
+import com.orpe.consultants.utils.SqlProfiler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires the per-request SQL profiler: wraps the application DataSource and
+ * registers the request filter. Enabled with orpe.sql-profiler.enabled=true.
+ */
+@Configuration
+@ConditionalOnProperty(name = "orpe.sql-profiler.enabled", havingValue = "true")
+public class SqlProfilerConfig {
+
+    @Bean
+    public static BeanPostProcessor profilingDataSourcePostProcessor(ObjectProvider<SqlProfiler> profiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource ds && !(bean instanceof ProfilingDataSource)) {
+                    return new ProfilingDataSource(ds, profiler.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlProfilerFilter> sqlProfilerFilter(SqlProfiler profiler) {
+        FilterRegistrationBean<SqlProfilerFilter> registration = new FilterRegistrationBean<>(new SqlProfilerFilter(profiler));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,40 @@
+package com.orpe.consultants.config;
+
+import com.orpe.consultants.utils.SqlProfiler;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens a SqlProfiler scope around each request and files the collected
+ * statistics under the mapped endpoint pattern.
+ */
+@RequiredArgsConstructor
+public class SqlProfilerFilter extends OncePerRequestFilter {
+
+    private final SqlProfiler profiler;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/assets/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        profiler.beginRequest();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String path = pattern != null ? pattern.toString() : request.getRequestURI();
+            profiler.endRequest(request.getMethod() + " " + path);
+        }
+    }
+}
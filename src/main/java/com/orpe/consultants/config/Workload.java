@@ -0,0 +1,30 @@
+package com.orpe.consultants.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Picks the connection pool a service method runs on. On a class it applies
+ * to every public method; a method annotation wins over the class one.
+ * Unannotated code runs as INTERACTIVE.
+ *
+ * The pool is chosen when the first statement borrows a connection, so a
+ * method called inside a transaction that already holds one keeps using it.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Workload {
+
+    Type value();
+
+    enum Type {
+        /** Page loads, logins and other short requests a user waits on */
+        INTERACTIVE,
+        /** Imports, bulk edits, rollbacks and exports that hold connections for long */
+        BULK
+    }
+}
@@ -0,0 +1,51 @@
+package com.orpe.consultants.config;
+
+/**
+ * Workload of the current thread, set around @Workload methods and read by
+ * WorkloadRoutingDataSource. Work handed to other threads must be wrapped
+ * with {@link #propagate(Runnable)} to stay on the same pool.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<Workload.Type> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static Workload.Type current() {
+        Workload.Type type = CURRENT.get();
+        return type == null ? Workload.Type.INTERACTIVE : type;
+    }
+
+    /**
+     * Sets the workload and returns the previous one, to be handed back to
+     * {@link #restore}.
+     */
+    public static Workload.Type bind(Workload.Type type) {
+        Workload.Type previous = CURRENT.get();
+        CURRENT.set(type);
+        return previous;
+    }
+
+    public static void restore(Workload.Type previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /** Runs the task under the caller's workload; usable as a TaskDecorator. */
+    public static Runnable propagate(Runnable task) {
+        Workload.Type type = CURRENT.get();
+        if (type == null) return task;
+        return () -> {
+            Workload.Type previous = bind(type);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+}
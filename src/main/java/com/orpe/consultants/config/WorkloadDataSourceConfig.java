@@ -0,0 +1,129 @@
+package com.orpe.consultants.config;
+
+import com.orpe.consultants.utils.PoolMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.session.jdbc.config.annotation.SpringSessionDataSource;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Separate Hikari pools per workload, so bulk imports cannot starve logins
+ * and page loads of connections:
+ * <ul>
+ *   <li>interactive: spring.datasource.hikari.*, everything not marked BULK</li>
+ *   <li>bulk: orpe.datasource.bulk.*, methods annotated @Workload(BULK)</li>
+ *   <li>session: orpe.datasource.session.*, spring-session-jdbc only</li>
+ * </ul>
+ * All pools share spring.datasource.url and its credentials; the orpe.*
+ * prefixes take any Hikari setting. Wait times per pool are collected by
+ * PoolMetrics and shown on /diagnostics/pools.
+ */
+@Configuration
+public class WorkloadDataSourceConfig {
+
+    // Same binding as Spring Boot's own Hikari DataSource
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource interactiveDataSource(DataSourceProperties properties, PoolMetrics poolMetrics) {
+        return pool(properties, "interactive", poolMetrics);
+    }
+
+    @Bean
+    @ConfigurationProperties("orpe.datasource.bulk")
+    public HikariDataSource bulkDataSource(DataSourceProperties properties, PoolMetrics poolMetrics) {
+        return pool(properties, "bulk", poolMetrics);
+    }
+
+    // Session reads and writes happen on every request, before any service code runs
+    @Bean
+    @SpringSessionDataSource
+    @ConfigurationProperties("orpe.datasource.session")
+    public HikariDataSource sessionDataSource(DataSourceProperties properties, PoolMetrics poolMetrics) {
+        return pool(properties, "session", poolMetrics);
+    }
+
+    // Otherwise Spring Session would run its statements under the JPA transaction manager of the main router
+    @Bean
+    public TransactionOperations springSessionTransactionOperations(@Qualifier("sessionDataSource") DataSource sessionDataSource) {
+        return new TransactionTemplate(new DataSourceTransactionManager(sessionDataSource));
+    }
+
+    // Keeps the bean name dataSource, so JPA, JdbcTemplate and the SQL profiler all see the router
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("interactiveDataSource") DataSource interactiveDataSource,
+                                 @Qualifier("bulkDataSource") DataSource bulkDataSource,
+                                 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaDataSource) {
+        DataSource replica = replicaDataSource.getIfAvailable();
+        DataSource interactive = replica == null
+            ? interactiveDataSource
+            : new ReadWriteRoutingDataSource(interactiveDataSource, replica);
+        return new LazyConnectionDataSourceProxy(new WorkloadRoutingDataSource(interactive, bulkDataSource));
+    }
+
+    /**
+     * Binds the @Workload of the called method for the duration of the call.
+     * Ordered ahead of the transaction advice, although the lazy proxy only
+     * picks the pool at the first statement anyway.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor workloadAdvisor() {
+        Map<Method, Workload.Type> resolved = new ConcurrentHashMap<>();
+        MethodInterceptor interceptor = invocation -> {
+            Class<?> targetClass = invocation.getThis() == null ? null : AopUtils.getTargetClass(invocation.getThis());
+            Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+            Workload.Type type = resolved.computeIfAbsent(method, m -> {
+                Workload workload = AnnotatedElementUtils.findMergedAnnotation(m, Workload.class);
+                if (workload == null) {
+                    workload = AnnotatedElementUtils.findMergedAnnotation(m.getDeclaringClass(), Workload.class);
+                }
+                return workload == null ? Workload.Type.INTERACTIVE : workload.value();
+            });
+            Workload.Type previous = WorkloadContext.bind(type);
+            try {
+                return invocation.proceed();
+            } finally {
+                WorkloadContext.restore(previous);
+            }
+        };
+        ComposablePointcut pointcut = new ComposablePointcut(AnnotationMatchingPointcut.forClassAnnotation(Workload.class))
+            .union(AnnotationMatchingPointcut.forMethodAnnotation(Workload.class));
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, interceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String name, PoolMetrics poolMetrics) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(name);
+        pool.setMetricsTrackerFactory(poolMetrics);
+        return pool;
+    }
+}
@@ -0,0 +1,30 @@
+package com.orpe.consultants.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections of BULK work to the bulk pool and everything else to
+ * the interactive pool (or the read/write router in front of it), so long
+ * imports can only exhaust their own pool.
+ *
+ * Like ReadWriteRoutingDataSource this belongs behind a
+ * LazyConnectionDataSourceProxy, which fetches the real connection at the
+ * first statement.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    public WorkloadRoutingDataSource(DataSource interactive, DataSource bulk) {
+        setTargetDataSources(Map.of(Workload.Type.INTERACTIVE, interactive, Workload.Type.BULK, bulk));
+        setDefaultTargetDataSource(interactive);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.current();
+    }
+}
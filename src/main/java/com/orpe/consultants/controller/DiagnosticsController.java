@@ -0,0 +1,114 @@
+package com.orpe.consultants.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.orpe.consultants.model.User;
+import com.orpe.consultants.utils.PoolMetrics;
+import com.orpe.consultants.utils.SqlProfiler;
+
+import jakarta.servlet.http.HttpSession;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class DiagnosticsController {
+
+	private final SqlProfiler sqlProfiler;
+
+	private final CacheManager cacheManager;
+
+	private final PoolMetrics poolMetrics;
+
+	// Per-endpoint SQL statement histograms (ADMIN only)
+	@GetMapping(path = "/diagnostics/sql", produces = "application/json")
+	@ResponseBody
+	public ResponseEntity<Map<String, Object>> sqlStats(HttpSession session) {
+		if (!isAdmin(session)) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		}
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("enabled", sqlProfiler.isEnabled());
+		body.put("nPlusOneThreshold", sqlProfiler.getNPlusOneThreshold());
+		body.put("endpoints", sqlProfiler.snapshot());
+		return ResponseEntity.ok(body);
+	}
+
+	@PostMapping(path = "/diagnostics/sql/reset", produces = "application/json")
+	@ResponseBody
+	public ResponseEntity<Map<String, Object>> resetSqlStats(HttpSession session) {
+		if (!isAdmin(session)) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		}
+		sqlProfiler.reset();
+		log.info("SQL profiler statistics reset");
+		return ResponseEntity.ok(Map.of("reset", true));
+	}
+
+	// Hit/miss statistics of the reference data caches (ADMIN only)
+	@GetMapping(path = "/diagnostics/caches", produces = "application/json")
+	@ResponseBody
+	public ResponseEntity<Map<String, Object>> cacheStats(HttpSession session) {
+		if (!isAdmin(session)) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		}
+		Map<String, Object> body = new LinkedHashMap<>();
+		for (String name : cacheManager.getCacheNames()) {
+			Cache cache = cacheManager.getCache(name);
+			if (cache instanceof TransactionAwareCacheDecorator decorator) {
+				cache = decorator.getTargetCache();
+			}
+			if (cache instanceof CaffeineCache caffeine) {
+				CacheStats stats = caffeine.getNativeCache().stats();
+				Map<String, Object> entry = new LinkedHashMap<>();
+				entry.put("size", caffeine.getNativeCache().estimatedSize());
+				entry.put("hits", stats.hitCount());
+				entry.put("misses", stats.missCount());
+				entry.put("hitRate", stats.hitRate());
+				entry.put("evictions", stats.evictionCount());
+				body.put(name, entry);
+			}
+		}
+		return ResponseEntity.ok(body);
+	}
+
+	// Occupancy and connection wait times per pool (ADMIN only)
+	@GetMapping(path = "/diagnostics/pools", produces = "application/json")
+	@ResponseBody
+	public ResponseEntity<Map<String, Object>> poolStats(HttpSession session) {
+		if (!isAdmin(session)) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		}
+		return ResponseEntity.ok(Map.of("pools", poolMetrics.snapshot()));
+	}
+
+	@PostMapping(path = "/diagnostics/pools/reset", produces = "application/json")
+	@ResponseBody
+	public ResponseEntity<Map<String, Object>> resetPoolStats(HttpSession session) {
+		if (!isAdmin(session)) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		}
+		poolMetrics.reset();
+		log.info("Connection pool statistics reset");
+		return ResponseEntity.ok(Map.of("reset", true));
+	}
+
+	private static boolean isAdmin(HttpSession session) {
+		User loggedInUser = (User) session.getAttribute("loggedInUser");
+		return loggedInUser != null && loggedInUser.getRole() == User.Role.ADMIN;
+	}
+}
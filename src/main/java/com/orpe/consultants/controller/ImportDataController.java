@@ -3,14 +3,25 @@ package com.orpe.consultants.controller;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,12 +32,31 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.orpe.consultants.dto.ImportBulkEditRequest;
+import com.orpe.consultants.dto.ImportBulkEditResult;
 import com.orpe.consultants.dto.ImportDataDTO;
 import com.orpe.consultants.dto.ImportDataFilter;
+import com.orpe.consultants.dto.ImportValidationReport;
+import com.orpe.consultants.exception.FileProcessingException;
+import com.orpe.consultants.exception.ImportValidationException;
+import com.orpe.consultants.exception.ResourceNotFoundException;
+import com.orpe.consultants.model.ImportBatch;
+import com.orpe.consultants.model.ImportCommitJob;
+import com.orpe.consultants.model.ImportJob;
 import com.orpe.consultants.model.User;
+import com.orpe.consultants.service.ImportAutocompleteService;
+import com.orpe.consultants.service.ImportBatchService;
+import com.orpe.consultants.service.ImportBulkEditService;
+import com.orpe.consultants.service.ImportBulkLoadService;
+import com.orpe.consultants.service.ImportCommitService;
 import com.orpe.consultants.service.ImportDataService;
+import com.orpe.consultants.service.ImportJobService;
+import com.orpe.consultants.service.ImportPipelineService;
+import com.orpe.consultants.service.ReferenceDataService;
 import com.orpe.consultants.utils.ImportDataExtractor;
+import com.orpe.consultants.utils.ParallelImportExtractor;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -36,9 +66,27 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ImportDataController {
 	private final ImportDataExtractor excelImportService;
+
+	private final ParallelImportExtractor parallelImportExtractor;
 	
 	private final ImportDataService importDataService;
 
+	private final ReferenceDataService referenceDataService;
+
+	private final ImportCommitService importCommitService;
+
+	private final ImportPipelineService importPipelineService;
+
+	private final ImportBulkLoadService importBulkLoadService;
+
+	private final ImportBatchService importBatchService;
+
+	private final ImportBulkEditService importBulkEditService;
+
+	private final ImportJobService importJobService;
+
+	private final ImportAutocompleteService importAutocompleteService;
+
 	  
 	@PostMapping("/importdata/importExcel")
 	public String importExcel(@RequestParam("file") MultipartFile file, Model model) {
@@ -59,6 +107,30 @@ public class ImportDataController {
 	    return "uploadImportData"; // ✅ make sure this matches your template filename
 	}
 
+	// Several workbooks and/or zip archives, parsed in parallel and merged by BE date
+	@PostMapping("/importdata/importExcelBatch")
+	public String importExcelBatch(@RequestParam("files") List<MultipartFile> files, Model model) {
+	    try {
+	        List<ImportDataDTO> rows = parallelImportExtractor.parse(files);
+
+	        model.addAttribute("importRows", rows);
+	        model.addAttribute("rowCount", rows.size());
+	        model.addAttribute("importFileName", files.stream()
+	                .map(MultipartFile::getOriginalFilename)
+	                .filter(Objects::nonNull)
+	                .collect(Collectors.joining(", ")));
+
+	        if (rows.isEmpty()) {
+	            model.addAttribute("error", "No rows could be parsed from the uploaded files. Please check column headers.");
+	        }
+
+	    } catch (Exception ex) {
+	        log.error("Batch import parsing failed", ex);
+	        model.addAttribute("error", "Failed to parse Excel: " + ex.getMessage());
+	    }
+	    return "uploadImportData";
+	}
+
 
 
 	  @GetMapping("/pdfimport")
@@ -71,8 +143,11 @@ public class ImportDataController {
 	  public String showImportDataList(
 	      @RequestParam(required = false) String filterField,
 	      @RequestParam(required = false) String filterValue,
+	      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate beDateFrom,
+	      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate beDateTo,
 	      @RequestParam(defaultValue = "0") int page,
 	      @RequestParam(defaultValue = "100") int size,
+	      @RequestParam(defaultValue = "true") boolean exactTotal,
 	      HttpSession session,
 	      Model model) {
 
@@ -101,18 +176,39 @@ public class ImportDataController {
 	            log.warn("Invalid beDate format: " + filterValue);
 	          }
 	          break;
+	        case "dbkPartNo":
+	          filterBuilder.dbkPartNo(filterValue);
+	          break;
+
+	        case "bomPartNo":
+	          filterBuilder.bomPartNo(filterValue);
+	          break;
+
+	        case "itchsCode":
+	          filterBuilder.itchsCode(filterValue);
+	          break;
+
 	        // Add more supported filters here
 	      }
 	    }
 
+	    // BE date range; both bounds inclusive so a claim year maps to one partition
+	    filterBuilder.beDateFrom(beDateFrom).beDateTo(beDateTo);
+
 	    ImportDataFilter filter = filterBuilder.build();
 
 	    Pageable pageable = PageRequest.of(page, size, Sort.by("beDate").descending());
-	    Page<ImportDataDTO> resultPage = importDataService.search(filter, pageable);
+	    // exactTotal=false skips the COUNT query; the template then shows only previous/next
+	    Slice<ImportDataDTO> resultPage = exactTotal
+	        ? importDataService.search(filter, pageable)
+	        : importDataService.searchSlice(filter, pageable);
 
 	    model.addAttribute("importDataPage", resultPage);
+	    model.addAttribute("exactTotal", exactTotal);
 	    model.addAttribute("filterField", filterField);
 	    model.addAttribute("filterValue", filterValue);
+	    model.addAttribute("beDateFrom", beDateFrom);
+	    model.addAttribute("beDateTo", beDateTo);
 	    model.addAttribute("currentPage", page);
 	    model.addAttribute("pageSize", size);
 
@@ -157,11 +253,423 @@ public class ImportDataController {
 	  
 	  
 	  
+	  // Rows ticked on the list page, removed with one DELETE per chunk
+	  @PostMapping("/importdata/delete-selected")
+	  public String deleteSelected(
+	      @RequestParam(name = "ids", required = false) List<Long> ids,
+	      @RequestParam(required = false) String filterField,
+	      @RequestParam(required = false) String filterValue,
+	      @RequestParam(defaultValue = "0") int page,
+	      @RequestParam(defaultValue = "100") int size,
+	      HttpSession session) {
+
+	      User loggedInUser = (User) session.getAttribute("loggedInUser");
+	      if (loggedInUser == null) {
+	          return "redirect:/login";
+	      }
+
+	      String back = "&filterField=" + (filterField != null ? filterField : "")
+	             + "&filterValue=" + (filterValue != null ? filterValue : "")
+	             + "&page=" + page
+	             + "&size=" + size;
+	      if (ids == null || ids.isEmpty()) {
+	          return "redirect:/importdata/list?error=No rows selected" + back;
+	      }
+	      try {
+	          ImportBulkEditResult result = importBulkEditService.delete(ImportBulkEditRequest.builder().ids(ids).build());
+	          return "redirect:/importdata/list?success=" + result.getRowCount() + " rows deleted" + back;
+	      } catch (Exception e) {
+	          log.error("Deleting selected import rows failed", e);
+	          return "redirect:/importdata/list?error=Error deleting import data" + back;
+	      }
+	  }
+
+	  // Distinct values for the list filter dropdowns (served from cache)
+	  @GetMapping(path = "/importdata/reference-data", produces = "application/json")
+	  @ResponseBody
+	  public ResponseEntity<Map<String, Object>> referenceData(HttpSession session) {
+	    if (session.getAttribute("loggedInUser") == null) {
+	      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+	    }
+	    return ResponseEntity.ok(Map.of(
+	        "portCodes", referenceDataService.findPortCodes(),
+	        "hsCodes", referenceDataService.findHsCodes(),
+	        "countries", referenceDataService.findCountries()));
+	  }
+
+	  // Typeahead for the BE No, DBK/BOM part no and HS code filters (field = filter parameter name)
+	  @GetMapping(path = "/importdata/autocomplete", produces = "application/json")
+	  @ResponseBody
+	  public ResponseEntity<?> autocomplete(@RequestParam String field, @RequestParam String prefix,
+	      @RequestParam(defaultValue = "10") int limit, HttpSession session) {
+	    if (session.getAttribute("loggedInUser") == null) {
+	      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+	    }
+	    return ImportAutocompleteService.Field.fromParam(field)
+	        .<ResponseEntity<?>>map(f -> ResponseEntity.ok(importAutocompleteService.complete(f, prefix, limit)))
+	        .orElseGet(() -> ResponseEntity.badRequest().body(Map.of("error", "Unknown field: " + field)));
+	  }
+
 	  @PostMapping(path = "/importdata/bulk-save", consumes = "application/json", produces = "application/json")
 	  @ResponseBody
-	  public Map<String, Object> bulkSave(@RequestBody List<ImportDataDTO> rows) {
-	    int saved = importDataService.saveBulk(rows);
-	    return Map.of("savedCount", saved);
+	  public ResponseEntity<Map<String, Object>> bulkSave(@RequestBody List<ImportDataDTO> rows, HttpSession session) {
+	    try {
+	      ImportBatch batch = importBatchService.saveBulk(rows, null, username(session));
+	      return ResponseEntity.ok(Map.of("savedCount", batch.getRowCount(), "batchId", batch.getBatchId()));
+	    } catch (ImportValidationException ex) {
+	      return ResponseEntity.badRequest().body(Map.of("savedCount", 0, "validation", ex.getReport()));
+	    }
+	  }
+
+	  // Same as bulk-save, but the JSON array or NDJSON body (optionally gzip) is read and saved
+	  // incrementally instead of being bound to a List first
+	  @PostMapping(path = "/importdata/bulk-save/stream", consumes = {"application/json", "application/x-ndjson"},
+	      produces = "application/json")
+	  @ResponseBody
+	  public ResponseEntity<?> bulkSaveStream(HttpServletRequest request, HttpSession session) {
+	    if (session.getAttribute("loggedInUser") == null) {
+	      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+	    }
+	    try (InputStream body = requestBody(request)) {
+	      return ResponseEntity.ok(importPipelineService.ingestJson(body, username(session)));
+	    } catch (ImportValidationException ex) {
+	      return ResponseEntity.badRequest().body(Map.of("savedCount", 0, "validation", ex.getReport()));
+	    } catch (FileProcessingException | IOException ex) {
+	      return ResponseEntity.badRequest().body(Map.of("savedCount", 0, "error", String.valueOf(ex.getMessage())));
+	    }
+	  }
+
+	  // Tomcat does not decode Content-Encoding on requests
+	  private static InputStream requestBody(HttpServletRequest request) throws IOException {
+	    InputStream in = request.getInputStream();
+	    String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+	    return encoding != null && encoding.trim().equalsIgnoreCase("gzip") ? new GZIPInputStream(in, 64 * 1024) : in;
+	  }
+
+	  // Large batches: one transaction per chunk; pass jobId to resume a failed job (its starter or an admin)
+	  @PostMapping(path = "/importdata/bulk-commit", consumes = "application/json", produces = "application/json")
+	  @ResponseBody
+	  public ResponseEntity<Map<String, Object>> bulkCommit(@RequestBody List<ImportDataDTO> rows,
+	      @RequestParam(required = false) String jobId, HttpSession session) {
+	    ResponseEntity<Map<String, Object>> denied = denyCommitResume(jobId, session);
+	    if (denied != null) return denied;
+	    try {
+	      ImportCommitJob job = importCommitService.commit(rows, jobId, username(session));
+	      HttpStatus status = job.getStatus() == ImportCommitJob.Status.FAILED ? HttpStatus.INTERNAL_SERVER_ERROR : HttpStatus.OK;
+	      return ResponseEntity.status(status).body(jobStatus(job));
+	    } catch (ImportValidationException ex) {
+	      return ResponseEntity.badRequest().body(Map.of("savedCount", 0, "validation", ex.getReport()));
+	    } catch (ResourceNotFoundException ex) {
+	      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", ex.getMessage()));
+	    } catch (IllegalArgumentException | IllegalStateException | ObjectOptimisticLockingFailureException ex) {
+	      return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", String.valueOf(ex.getMessage())));
+	    }
+	  }
+
+	  @GetMapping(path = "/importdata/bulk-commit/{jobId}", produces = "application/json")
+	  @ResponseBody
+	  public ResponseEntity<Map<String, Object>> bulkCommitStatus(@PathVariable String jobId, HttpSession session) {
+	    if (session.getAttribute("loggedInUser") == null) {
+	      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+	    }
+	    return importCommitService.findJob(jobId)
+	        .map(job -> ResponseEntity.ok(jobStatus(job)))
+	        .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+	  }
+
+	  // Needs a login; resuming is for the user who started the job and for admins; null when allowed
+	  private ResponseEntity<Map<String, Object>> denyCommitResume(String jobId, HttpSession session) {
+	    User loggedInUser = (User) session.getAttribute("loggedInUser");
+	    if (loggedInUser == null) {
+	      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+	    }
+	    if (jobId == null || loggedInUser.getRole() == User.Role.ADMIN) return null;
+	    boolean own = importCommitService.findJob(jobId)
+	        .map(job -> loggedInUser.getUsername().equals(job.getCreatedBy()))
+	        .orElse(true); // unknown job: let the service answer 404
+	    return own ? null : ResponseEntity.status(HttpStatus.FORBIDDEN)
+	        .body(Map.of("error", "Only the user who started it or an admin can resume import job " + jobId));
+	  }
+
+	  private static Map<String, Object> jobStatus(ImportCommitJob job) {
+	    Map<String, Object> body = new LinkedHashMap<>();
+	    body.put("jobId", job.getJobId());
+	    // Rows of the job are tagged with it, so /importdata/batches/{jobId}/rollback undoes the job
+	    body.put("batchId", job.getJobId());
+	    body.put("status", job.getStatus());
+	    body.put("totalRows", job.getTotalRows());
+	    body.put("committedRows", job.getCommittedRows());
+	    body.put("chunkSize", job.getChunkSize());
+	    body.put("lastError", job.getLastError());
+	    return body;
+	  }
+
+	  // Parse, validate and save one workbook with the three stages overlapped
+	  @PostMapping(path = "/importdata/ingest", produces = "application/json")
+	  @ResponseBody
+	  public ResponseEntity<?> ingest(@RequestParam("file") MultipartFile file, HttpSession session) {
+	    if (session.getAttribute("loggedInUser") == null) {
+	      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+	    }
+	    try (InputStream in = file.getInputStream()) {
+	      return ResponseEntity.ok(importPipelineService.ingest(in, file.getOriginalFilename(), username(session)));
+	    } catch (ImportValidationException ex) {
+	      return ResponseEntity.badRequest().body(Map.of("savedCount", 0, "validation", ex.getReport()));
+	    } catch (FileProcessingException | IOException ex) {
+	      return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(ex.getMessage())));
+	    }
+	  }
+
+	  // Very large workbooks (annual back-loads): LOAD DATA into staging, then set-based merge
+	  @PostMapping(path = "/importdata/bulk-load", produces = "application/json")
+	  @ResponseBody
+	  public ResponseEntity<?> bulkLoad(@RequestParam("file") MultipartFile file, HttpSession session) {
+	    if (session.getAttribute("loggedInUser") == null) {
+	      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+	    }
+	    try (InputStream in = file.getInputStream()) {
+	      return ResponseEntity.ok(importBulkLoadService.load(in, file.getOriginalFilename(), username(session)));
+	    } catch (ImportValidationException ex) {
+	      return ResponseEntity.badRequest().body(Map.of("savedCount", 0, "validation", ex.getReport()));
+	    } catch (FileProcessingException | IOException ex) {
+	      return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(ex.getMessage())));
+	    }
+	  }
+
+	  // Queued upload (type WORKBOOK, JSON or BULK_LOAD): stored in the database and processed by
+	  // whichever node claims it, as the logged-in user; poll /importdata/jobs/{jobId} for the outcome
+	  @PostMapping(path = "/importdata/jobs", consumes = "multipart/form-data", produces = "application/json")
+	  @ResponseBody
+	  public ResponseEntity<Map<String, Object>> enqueueJob(@RequestParam("file") MultipartFile file,
+	      @RequestParam(defaultValue = "WORKBOOK") ImportJob.Type type, HttpSession session) {
+	    if (session.getAttribute("loggedInUser") == null) {
+	      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+	    }
+	    try (InputStream in = file.getInputStream()) {
+	      ImportJob job = importJobService.enqueue(type, in, file.getOriginalFilename(), username(session));
+	      return ResponseEntity.status(HttpStatus.ACCEPTED).body(importJobStatus(job));
+	    } catch (FileProcessingException | IOException ex) {
+	      return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(ex.getMessage())));
+	    }
+	  }
+
+	  // JSON array or NDJSON rows (optionally gzip), queued like a file upload
+	  @PostMapping(path = "/importdata/jobs", consumes = {"application/json", "application/x-ndjson"},
+	      produces = "application/json")
+	  @ResponseBody
+	  public ResponseEntity<Map<String, Object>> enqueueJsonJob(HttpServletRequest request, HttpSession session) {
+	    if (session.getAttribute("loggedInUser") == null) {
+	      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+	    }
+	    try (InputStream body = requestBody(request)) {
+	      ImportJob job = importJobService.enqueue(ImportJob.Type.JSON, body, null, username(session));
+	      return ResponseEntity.status(HttpStatus.ACCEPTED).body(importJobStatus(job));
+	    } catch (FileProcessingException | IOException ex) {
+	      return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(ex.getMessage())));
+	    }
+	  }
+
+	  @GetMapping(path = "/importdata/jobs", produces = "application/json")
+	  @ResponseBody
+	  public ResponseEntity<List<Map<String, Object>>> importJobs(@RequestParam(defaultValue = "50") int limit,
+	      HttpSession session) {
+	    if (session.getAttribute("loggedInUser") == null) {
+	      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+	    }
+	    return ResponseEntity.ok(importJobService.findRecent(Math.min(limit, 500)).stream()
+	        .map(ImportDataController::importJobStatus)
+	        .collect(Collectors.toList()));
+	  }
+
+	  @GetMapping(path = "/importdata/jobs/{jobId}", produces = "application/json")
+	  @ResponseBody
+	  public ResponseEntity<Map<String, Object>> importJob(@PathVariable String jobId, HttpSession session) {
+	    if (session.getAttribute("loggedInUser") == null) {
+	      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+	    }
+	    return importJobService.findJob(jobId)
+	        .map(job -> ResponseEntity.ok(importJobStatus(job)))
+	        .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+	  }
+
+	  private static Map<String, Object> importJobStatus(ImportJob job) {
+	    Map<String, Object> body = new LinkedHashMap<>();
+	    body.put("jobId", job.getJobId());
+	    body.put("type", job.getType());
+	    body.put("status", job.getStatus());
+	    body.put("fileName", job.getFileName());
+	    body.put("attempts", job.getAttempts());
+	    body.put("maxAttempts", job.getMaxAttempts());
+	    body.put("leaseOwner", job.getLeaseOwner());
+	    body.put("heartbeatAt", job.getHeartbeatAt());
+	    body.put("batchId", job.getBatchId());
+	    body.put("rowCount", job.getRowCount());
+	    body.put("lastError", job.getLastError());
+	    body.put("createdBy", job.getCreatedBy());
+	    body.put("createdAt", job.getCreatedAt());
+	    body.put("startedAt", job.getStartedAt());
+	    body.put("finishedAt", job.getFinishedAt());
+	    return body;
+	  }
+
+	  // ADMIN only. By ids or filter; dryRun=true only counts the rows, and a delete by
+	  // filter must send that count back as expectedRows
+	  @PostMapping(path = "/importdata/bulk-delete", consumes = "application/json", produces = "application/json")
+	  @ResponseBody
+	  public ResponseEntity<?> bulkDelete(@RequestBody ImportBulkEditRequest request, HttpSession session) {
+	    if (!isAdmin(session)) {
+	      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+	    }
+	    try {
+	      return ResponseEntity.ok(importBulkEditService.delete(request));
+	    } catch (IllegalArgumentException ex) {
+	      return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(ex.getMessage())));
+	    } catch (IllegalStateException ex) {
+	      return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", String.valueOf(ex.getMessage())));
+	    }
+	  }
+
+	  // ADMIN only. Sets stockWiseEligibility, claimYear and/or claimRefNo on rows given by ids or filter
+	  @PostMapping(path = "/importdata/bulk-update", consumes = "application/json", produces = "application/json")
+	  @ResponseBody
+	  public ResponseEntity<?> bulkUpdate(@RequestBody ImportBulkEditRequest request, HttpSession session) {
+	    if (!isAdmin(session)) {
+	      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+	    }
+	    try {
+	      return ResponseEntity.ok(importBulkEditService.update(request));
+	    } catch (IllegalArgumentException ex) {
+	      return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(ex.getMessage())));
+	    } catch (IllegalStateException ex) {
+	      return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", String.valueOf(ex.getMessage())));
+	    }
+	  }
+
+	  // Uploads, newest first
+	  @GetMapping(path = "/importdata/batches", produces = "application/json")
+	  @ResponseBody
+	  public ResponseEntity<List<Map<String, Object>>> batches(@RequestParam(defaultValue = "50") int limit,
+	      HttpSession session) {
+	    User loggedInUser = (User) session.getAttribute("loggedInUser");
+	    if (loggedInUser == null) {
+	      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+	    }
+	    // Admins see every upload, other users their own
+	    List<ImportBatch> batches = loggedInUser.getRole() == User.Role.ADMIN
+	        ? importBatchService.findRecent(Math.min(limit, 500))
+	        : importBatchService.findRecent(loggedInUser.getUsername(), Math.min(limit, 500));
+	    return ResponseEntity.ok(batches.stream()
+	        .map(ImportDataController::batchStatus)
+	        .collect(Collectors.toList()));
+	  }
+
+	  @GetMapping(path = "/importdata/batches/{batchId}", produces = "application/json")
+	  @ResponseBody
+	  public ResponseEntity<Map<String, Object>> batch(@PathVariable String batchId, HttpSession session) {
+	    ResponseEntity<Map<String, Object>> denied = denyBatchAccess(batchId, "view", session);
+	    if (denied != null) return denied;
+	    return importBatchService.findBatch(batchId)
+	        .map(batch -> ResponseEntity.ok(batchStatus(batch)))
+	        .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+	  }
+
+	  // Removes every row of an upload with chunked set-based deletes
+	  @PostMapping(path = "/importdata/batches/{batchId}/rollback", produces = "application/json")
+	  @ResponseBody
+	  public ResponseEntity<Map<String, Object>> rollbackBatch(@PathVariable String batchId, HttpSession session) {
+	    ResponseEntity<Map<String, Object>> denied = denyBatchAccess(batchId, "change", session);
+	    if (denied != null) return denied;
+	    try {
+	      return ResponseEntity.ok(batchStatus(importBatchService.rollback(batchId)));
+	    } catch (ResourceNotFoundException ex) {
+	      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", ex.getMessage()));
+	    } catch (IllegalStateException | ObjectOptimisticLockingFailureException ex) {
+	      return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", String.valueOf(ex.getMessage())));
+	    }
+	  }
+
+	  // Corrected rows for an upload: the old rows are deleted and the new ones saved as a new batch
+	  @PostMapping(path = "/importdata/batches/{batchId}/replace", consumes = "application/json", produces = "application/json")
+	  @ResponseBody
+	  public ResponseEntity<Map<String, Object>> replaceBatch(@PathVariable String batchId,
+	      @RequestBody List<ImportDataDTO> rows, HttpSession session) {
+	    ResponseEntity<Map<String, Object>> denied = denyBatchAccess(batchId, "change", session);
+	    if (denied != null) return denied;
+	    return replace(batchId, rows, null, session);
+	  }
+
+	  @PostMapping(path = "/importdata/batches/{batchId}/replace", consumes = "multipart/form-data", produces = "application/json")
+	  @ResponseBody
+	  public ResponseEntity<Map<String, Object>> replaceBatchWorkbook(@PathVariable String batchId,
+	      @RequestParam("file") MultipartFile file, HttpSession session) {
+	    ResponseEntity<Map<String, Object>> denied = denyBatchAccess(batchId, "change", session);
+	    if (denied != null) return denied;
+	    List<ImportDataDTO> rows;
+	    try {
+	      rows = excelImportService.parseImportSheet(file);
+	    } catch (Exception ex) {
+	      return ResponseEntity.badRequest().body(Map.of("error", "Failed to parse Excel: " + ex.getMessage()));
+	    }
+	    return replace(batchId, rows, file.getOriginalFilename(), session);
+	  }
+
+	  private ResponseEntity<Map<String, Object>> replace(String batchId, List<ImportDataDTO> rows, String fileName, HttpSession session) {
+	    try {
+	      return ResponseEntity.ok(batchStatus(importBatchService.replace(batchId, rows, fileName, username(session))));
+	    } catch (ImportValidationException ex) {
+	      return ResponseEntity.badRequest().body(Map.of("savedCount", 0, "validation", ex.getReport()));
+	    } catch (ResourceNotFoundException ex) {
+	      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", ex.getMessage()));
+	    } catch (IllegalStateException | ObjectOptimisticLockingFailureException ex) {
+	      return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", String.valueOf(ex.getMessage())));
+	    }
+	  }
+
+	  // A batch is viewed, rolled back and replaced by the user who uploaded it and by admins; null when allowed
+	  private ResponseEntity<Map<String, Object>> denyBatchAccess(String batchId, String action, HttpSession session) {
+	    User loggedInUser = (User) session.getAttribute("loggedInUser");
+	    if (loggedInUser == null) {
+	      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+	    }
+	    if (loggedInUser.getRole() == User.Role.ADMIN) return null;
+	    boolean own = importBatchService.findBatch(batchId)
+	        .map(batch -> loggedInUser.getUsername().equals(batch.getCreatedBy()))
+	        .orElse(true); // unknown batch: let the service answer 404
+	    return own ? null : ResponseEntity.status(HttpStatus.FORBIDDEN)
+	        .body(Map.of("error", "Only the uploader or an admin can " + action + " import batch " + batchId));
+	  }
+
+	  private static Map<String, Object> batchStatus(ImportBatch batch) {
+	    Map<String, Object> body = new LinkedHashMap<>();
+	    body.put("batchId", batch.getBatchId());
+	    body.put("status", batch.getStatus());
+	    body.put("fileName", batch.getFileName());
+	    body.put("contentHash", batch.getContentHash());
+	    body.put("rowCount", batch.getRowCount());
+	    body.put("replacedBy", batch.getReplacedBy());
+	    body.put("createdBy", batch.getCreatedBy());
+	    body.put("createdAt", batch.getCreatedAt());
+	    return body;
+	  }
+
+	  private static boolean isAdmin(HttpSession session) {
+	    User loggedInUser = (User) session.getAttribute("loggedInUser");
+	    return loggedInUser != null && loggedInUser.getRole() == User.Role.ADMIN;
+	  }
+
+	  private static String username(HttpSession session) {
+	    User loggedInUser = (User) session.getAttribute("loggedInUser");
+	    return loggedInUser != null ? loggedInUser.getUsername() : null;
+	  }
+
+	  // Dry run of the bulk-save checks; nothing is written
+	  @PostMapping(path = "/importdata/validate", consumes = "application/json", produces = "application/json")
+	  @ResponseBody
+	  public ResponseEntity<ImportValidationReport> validateRows(@RequestBody List<ImportDataDTO> rows, HttpSession session) {
+	    if (session.getAttribute("loggedInUser") == null) {
+	      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+	    }
+	    return ResponseEntity.ok(importDataService.validateAll(rows));
 	  }
 	}
 
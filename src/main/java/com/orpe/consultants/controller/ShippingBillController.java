@@ -31,32 +31,19 @@ public class ShippingBillController {
         try {
             bill = ExcelShippingBillExtractor.extractFromExcel(file.getInputStream());
             
-            // Debug output
-            System.out.println("Extracted Shipping Bill Data:");
-            System.out.println("SB No: " + bill.getSbNo());
-            System.out.println("SB Date: " + bill.getSbDate());
-            System.out.println("Port Code: " + bill.getPortCode());
-            System.out.println("LEO Date: " + bill.getLeoDate());
-            System.out.println("BRC Realisation Date: " + bill.getBrcRealisationDate());
-            System.out.println("Invoice No Date: " + bill.getInvoiceNoDate());
-            System.out.println("Buyer Details: " + bill.getBuyerDetails());
-            System.out.println("Exchange Rate: " + bill.getExchangeRate());
-            System.out.println("Invoice Value: " + bill.getInvoiceValue());
-            System.out.println("Currency: " + bill.getCurrency());
-            System.out.println("HS CD: " + bill.getHsCd());
-            System.out.println("Description: " + bill.getDescription());
-            System.out.println("Model No: " + bill.getModelNo());
-            System.out.println("Quantity: " + bill.getQuantity());
-            System.out.println("Unit: " + bill.getUnit());
-            System.out.println("FOB: " + bill.getFob());
-            System.out.println("PMV Per Unit: " + bill.getPmvPerUnit());
-            System.out.println("Scheme Description: " + bill.getSchemeDescription());
-            System.out.println("DBK SNO: " + bill.getDbkSno());
-            System.out.println("Rate: " + bill.getRate());
-            System.out.println("DBK Amt SB: " + bill.getDbkAmtSb());
+            if (log.isDebugEnabled()) {
+                log.debug("Extracted shipping bill sbNo={} sbDate={} portCode={} leoDate={} brcRealisationDate={} invoiceNoDate={} "
+                        + "buyerDetails={} exchangeRate={} invoiceValue={} currency={} hsCd={} description={} modelNo={} quantity={} unit={} fob={} "
+                        + "pmvPerUnit={} schemeDescription={} dbkSno={} rate={} dbkAmtSb={}",
+                        bill.getSbNo(), bill.getSbDate(), bill.getPortCode(), bill.getLeoDate(),
+                        bill.getBrcRealisationDate(), bill.getInvoiceNoDate(), bill.getBuyerDetails(), bill.getExchangeRate(),
+                        bill.getInvoiceValue(), bill.getCurrency(), bill.getHsCd(), bill.getDescription(), bill.getModelNo(),
+                        bill.getQuantity(), bill.getUnit(), bill.getFob(), bill.getPmvPerUnit(),
+                        bill.getSchemeDescription(), bill.getDbkSno(), bill.getRate(), bill.getDbkAmtSb());
+            }
             
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to extract shipping bill from {}", file.getOriginalFilename(), e);
             model.addAttribute("error", "Failed to extract data from Excel: " + e.getMessage());
         }
 
@@ -0,0 +1,52 @@
+package com.orpe.consultants.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Occupancy and connection wait times of one Hikari pool, as reported by
+ * the diagnostics endpoint.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConnectionPoolStats {
+
+    private String pool;
+
+    private int active;
+
+    private int idle;
+
+    private int maxConnections;
+
+    /**
+     * Threads waiting for a connection right now.
+     */
+    private int pendingThreads;
+
+    private long acquisitions;
+
+    private double avgWaitMillis;
+
+    private double maxWaitMillis;
+
+    /**
+     * Number of acquisitions per wait-time bucket.
+     */
+    private Map<String, Long> waitHistogram;
+
+    /**
+     * Borrowers that gave up after connection-timeout.
+     */
+    private long timeouts;
+
+    private double avgUsageMillis;
+
+    private long maxUsageMillis;
+}
@@ -0,0 +1,42 @@
+package com.orpe.consultants.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Rows to delete or update in bulk: either an explicit id list (e.g. the
+ * rows selected on the list page) or a filter, not both.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportBulkEditRequest {
+
+    private List<Long> ids;
+
+    private ImportDataFilter filter;
+
+    /**
+     * New column values; only used by bulk update.
+     */
+    private ImportBulkUpdate set;
+
+    /**
+     * Only count the rows that would be affected.
+     */
+    private boolean dryRun;
+
+    /**
+     * Required for a delete by filter: the rowCount of its dry run. The
+     * delete is refused when the filter now matches a different number of
+     * rows, and never removes more than this many.
+     */
+    private Long expectedRows;
+}
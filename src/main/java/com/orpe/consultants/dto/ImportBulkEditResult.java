@@ -0,0 +1,30 @@
+package com.orpe.consultants.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a bulk delete or update.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportBulkEditResult {
+
+    private boolean dryRun;
+
+    /**
+     * Rows deleted or updated; for a dry run, the rows that would be.
+     */
+    private long rowCount;
+
+    /**
+     * DELETE/UPDATE statements run, one transaction each.
+     */
+    private int statements;
+
+    private long elapsedMillis;
+}
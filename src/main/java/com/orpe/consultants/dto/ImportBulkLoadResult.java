@@ -0,0 +1,44 @@
+package com.orpe.consultants.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a LOAD DATA bulk load, with the time spent in each step.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportBulkLoadResult {
+
+    /**
+     * ImportBatch of the saved rows; use it to roll back or replace the upload.
+     */
+    private String batchId;
+
+    private int rowCount;
+
+    private int insertedCount;
+
+    private int newMaterials;
+
+    /**
+     * Parsing, row validation and writing the TSV file.
+     */
+    private long parseMillis;
+
+    /**
+     * LOAD DATA into the staging table.
+     */
+    private long loadMillis;
+
+    /**
+     * Duplicate check and the copy into tbl_import_data.
+     */
+    private long mergeMillis;
+
+    private long elapsedMillis;
+}
@@ -0,0 +1,25 @@
+package com.orpe.consultants.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Columns to set on every row of a bulk update; null fields are left as
+ * they are.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportBulkUpdate {
+
+    private StockWiseEligibility stockWiseEligibility;
+
+    private String claimYear;
+
+    private String claimRefNo;
+}
@@ -71,6 +71,11 @@ public class ImportDataFilter {
     /**
      * BE Date range end (inclusive).
      */
+    private LocalDate beDateTo;
+
+    /**
+     * Exact BE Date filter.
+     */
     private LocalDate beDate;
 
     /**
@@ -0,0 +1,43 @@
+package com.orpe.consultants.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a pipelined workbook or JSON ingest. Stage times are busy time only
+ * (waiting on a queue is not counted), so with good overlap elapsedMillis
+ * stays close to the slowest stage instead of their sum.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportPipelineResult {
+
+    /**
+     * ImportBatch of the saved rows; use it to roll back or replace the upload.
+     */
+    private String batchId;
+
+    private int rowCount;
+
+    private int savedCount;
+
+    private int batches;
+
+    /**
+     * Reading and decoding rows (workbook load or JSON binding).
+     */
+    private long parseMillis;
+
+    /**
+     * Validation and Material lookup.
+     */
+    private long validateMillis;
+
+    private long insertMillis;
+
+    private long elapsedMillis;
+}
@@ -0,0 +1,67 @@
+package com.orpe.consultants.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of validating a batch of import rows before it is saved. Every
+ * problem is counted; only the first maxErrors are kept with details.
+ */
+@Getter
+public class ImportValidationReport {
+
+    private int rowCount;
+
+    private final int maxErrors;
+
+    private int errorCount;
+
+    private final List<RowError> errors = new ArrayList<>();
+
+    public ImportValidationReport(int rowCount, int maxErrors) {
+        this.rowCount = rowCount;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Count rows of a batch that is validated in chunks.
+     */
+    public void addRows(int rows) {
+        rowCount += rows;
+    }
+
+    public void reject(int row, String beNo, String field, String message) {
+        errorCount++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(row, beNo, field, message));
+        }
+    }
+
+    public boolean isValid() {
+        return errorCount == 0;
+    }
+
+    public boolean isTruncated() {
+        return errorCount > errors.size();
+    }
+
+    /**
+     * One problem in one row. Row numbers are 1-based positions in the
+     * submitted batch.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+
+        private int row;
+
+        private String beNo;
+
+        private String field;
+
+        private String message;
+    }
+}
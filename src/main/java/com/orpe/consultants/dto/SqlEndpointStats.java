@@ -0,0 +1,51 @@
+package com.orpe.consultants.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Aggregated JDBC statement statistics for one endpoint, as reported by
+ * the diagnostics endpoint.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SqlEndpointStats {
+
+    /**
+     * HTTP method and mapped path, e.g. "GET /importdata/list".
+     */
+    private String endpoint;
+
+    private long requests;
+
+    private double avgStatements;
+
+    private long maxStatements;
+
+    private double avgRowsRead;
+
+    private double avgSqlMillis;
+
+    /**
+     * Total statements per kind (SELECT, COUNT, INSERT, ...).
+     */
+    private Map<String, Long> statementsByType;
+
+    /**
+     * Number of requests per statements-per-request bucket.
+     */
+    private Map<String, Long> statementHistogram;
+
+    /**
+     * Requests in which one SELECT repeated at least the N+1 threshold.
+     */
+    private long nPlusOneRequests;
+
+    private String lastNPlusOneSql;
+}
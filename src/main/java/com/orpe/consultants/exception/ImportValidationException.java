@@ -0,0 +1,17 @@
+package com.orpe.consultants.exception;
+
+import com.orpe.consultants.dto.ImportValidationReport;
+
+public class ImportValidationException extends RuntimeException {
+
+    private final ImportValidationReport report;
+
+    public ImportValidationException(ImportValidationReport report) {
+        super(report.getErrorCount() + " validation error(s) in " + report.getRowCount() + " import row(s)");
+        this.report = report;
+    }
+
+    public ImportValidationReport getReport() {
+        return report;
+    }
+}
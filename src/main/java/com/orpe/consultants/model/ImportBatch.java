@@ -0,0 +1,59 @@
+package com.orpe.consultants.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One committed upload of import rows; its rows in tbl_import_data carry
+ * the batch_id. See V6__import_batches.sql.
+ */
+@Entity
+@Table(name = "import_batches")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor @Builder
+public class ImportBatch {
+
+ // ROLLING_BACK and REPLACING stay set if the chunked delete is cut off; running it again finishes it
+ public enum Status { ACTIVE, ROLLING_BACK, ROLLED_BACK, REPLACING, REPLACED }
+
+ @Id
+ @Column(name = "batch_id", length = 36, nullable = false, updatable = false)
+ private String batchId;
+
+ @Enumerated(EnumType.STRING)
+ @Column(name = "status", length = 16, nullable = false)
+ private Status status;
+
+ @Column(name = "file_name", length = 255)
+ private String fileName;
+
+ // SHA-256 of the uploaded file, or of the rows' line keys for JSON uploads
+ @Column(name = "content_hash", length = 64)
+ private String contentHash;
+
+ @Column(name = "row_count", nullable = false)
+ private int rowCount;
+
+ // Batch that took this one's place after a replace
+ @Column(name = "replaced_by", length = 36)
+ private String replacedBy;
+
+ @Column(name = "created_by", length = 100)
+ private String createdBy;
+
+ @Version
+ @Column(name = "version", nullable = false)
+ private long version;
+
+ @CreationTimestamp
+ @Column(name = "created_at", nullable = false, updatable = false)
+ private LocalDateTime createdAt;
+
+ @UpdateTimestamp
+ @Column(name = "updated_at", nullable = false)
+ private LocalDateTime updatedAt;
+}
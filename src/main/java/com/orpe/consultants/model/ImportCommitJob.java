@@ -0,0 +1,60 @@
+package com.orpe.consultants.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a chunked bulk commit of import rows; committedRows is the
+ * checkpoint a failed job resumes from. See V4__import_commit_jobs.sql.
+ */
+@Entity
+@Table(name = "import_commit_jobs")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor @Builder
+public class ImportCommitJob {
+
+ public enum Status { RUNNING, FAILED, COMPLETED }
+
+ @Id
+ @Column(name = "job_id", length = 36, nullable = false, updatable = false)
+ private String jobId;
+
+ @Enumerated(EnumType.STRING)
+ @Column(name = "status", length = 16, nullable = false)
+ private Status status;
+
+ // SHA-256 of the rows' line keys, so a resume must send the same batch
+ @Column(name = "batch_hash", length = 64, nullable = false, updatable = false)
+ private String batchHash;
+
+ @Column(name = "total_rows", nullable = false)
+ private int totalRows;
+
+ @Column(name = "committed_rows", nullable = false)
+ private int committedRows;
+
+ @Column(name = "chunk_size", nullable = false)
+ private int chunkSize;
+
+ @Column(name = "last_error", length = 1000)
+ private String lastError;
+
+ @Column(name = "created_by", length = 100)
+ private String createdBy;
+
+ @Version
+ @Column(name = "version", nullable = false)
+ private long version;
+
+ @CreationTimestamp
+ @Column(name = "created_at", nullable = false, updatable = false)
+ private LocalDateTime createdAt;
+
+ @UpdateTimestamp
+ @Column(name = "updated_at", nullable = false)
+ private LocalDateTime updatedAt;
+}
@@ -21,8 +21,16 @@ import java.time.LocalDateTime;
  indexes = {
      @Index(name = "idx_import_be_no", columnList = "be_no"),
      @Index(name = "idx_import_dbk_part_no", columnList = "dbk_part_no"),
-     @Index(name = "idx_import_bom_part_no", columnList = "bom_part_no"),
-     @Index(name = "idx_import_itchs_code", columnList = "itchs_code")
+     @Index(name = "idx_import_itchs_code", columnList = "itchs_code"),
+     // Composite filter indexes, see V2__import_data_filter_indexes.sql
+     @Index(name = "idx_import_be_date", columnList = "be_date"),
+     @Index(name = "idx_import_claim_year_be_date", columnList = "claim_year, be_date"),
+     @Index(name = "idx_import_claim_year_elig_be_date", columnList = "claim_year, stock_wise_eligibility, be_date"),
+     @Index(name = "idx_import_elig_be_date", columnList = "stock_wise_eligibility, be_date"),
+     @Index(name = "idx_import_port_code_be_date", columnList = "port_code, be_date"),
+     @Index(name = "idx_import_bom_part_no_be_date", columnList = "bom_part_no, be_date"),
+     // Batch rollback/replace, see V6__import_batches.sql
+     @Index(name = "idx_import_batch_id", columnList = "batch_id")
  }
 )
 @Getter 
@@ -87,10 +95,16 @@ public class ImportData {
  @JoinColumn(
      name = "bom_part_no",
      referencedColumnName = "bom_part_no",
-     foreignKey = @ForeignKey(name = "fk_import_material")
+     // No DB constraint: tbl_import_data is partitioned by be_date (V3 migration)
+     foreignKey = @ForeignKey(value = ConstraintMode.NO_CONSTRAINT)
  )
  private Material material; // maps materials.bom_part_no
 
+ // Read-only copy of the FK column so listings can read the BOM part no
+ // from the same SELECT without initialising the lazy Material proxy
+ @Column(name = "bom_part_no", length = 50, insertable = false, updatable = false)
+ private String bomPartNo;
+
  @Column(name = "alt_boe_part_no", length = 100)
  @Size(max = 100)
  private String altBoePartNo;
@@ -165,6 +179,10 @@ public class ImportData {
  @Column(name = "duty_claimed_amt", precision = 18, scale = 6)
  private BigDecimal dutyClaimedAmt;
 
+ // Upload that created the row (ImportBatch); null for rows saved one at a time
+ @Column(name = "batch_id", length = 36)
+ private String batchId;
+
  // Audit
  @CreationTimestamp
  @Column(name = "created_at", nullable = false, updatable = false)
@@ -0,0 +1,92 @@
+package com.orpe.consultants.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Queued upload, processed by whichever node claims it first. After the
+ * insert all changes go through the lease-checked updates of
+ * ImportJobRepository instead of the entity. See V7__import_jobs.sql.
+ */
+@Entity
+@Table(name = "import_jobs")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor @Builder
+public class ImportJob {
+
+ public enum Type { WORKBOOK, JSON, BULK_LOAD }
+
+ public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+ @Id
+ @Column(name = "job_id", length = 36, nullable = false, updatable = false)
+ private String jobId;
+
+ @Enumerated(EnumType.STRING)
+ @Column(name = "job_type", length = 16, nullable = false, updatable = false)
+ private Type type;
+
+ @Enumerated(EnumType.STRING)
+ @Column(name = "status", length = 16, nullable = false)
+ private Status status;
+
+ @Column(name = "file_name", length = 255)
+ private String fileName;
+
+ // SHA-256 of the payload; equals the content hash of the ImportBatch the job creates
+ @Column(name = "content_hash", length = 64, nullable = false, updatable = false)
+ private String contentHash;
+
+ @Column(name = "payload_size", nullable = false, updatable = false)
+ private long payloadSize;
+
+ @Column(name = "attempts", nullable = false)
+ private int attempts;
+
+ @Column(name = "max_attempts", nullable = false)
+ private int maxAttempts;
+
+ // Not claimed before this time; pushed back after a failed attempt. Set by the database on insert
+ @Column(name = "available_at", insertable = false, updatable = false)
+ private LocalDateTime availableAt;
+
+ // Node working on the job while RUNNING
+ @Column(name = "lease_owner", length = 100)
+ private String leaseOwner;
+
+ @Column(name = "lease_expires_at")
+ private LocalDateTime leaseExpiresAt;
+
+ @Column(name = "heartbeat_at")
+ private LocalDateTime heartbeatAt;
+
+ @Column(name = "batch_id", length = 36)
+ private String batchId;
+
+ @Column(name = "row_count")
+ private Integer rowCount;
+
+ @Column(name = "last_error", length = 1000)
+ private String lastError;
+
+ @Column(name = "created_by", length = 100)
+ private String createdBy;
+
+ @CreationTimestamp
+ @Column(name = "created_at", nullable = false, updatable = false)
+ private LocalDateTime createdAt;
+
+ @Column(name = "started_at")
+ private LocalDateTime startedAt;
+
+ @Column(name = "finished_at")
+ private LocalDateTime finishedAt;
+
+ @UpdateTimestamp
+ @Column(name = "updated_at", nullable = false)
+ private LocalDateTime updatedAt;
+}
@@ -11,7 +11,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "shipping_bills", indexes = {
+@Table(name = "shipping_bills", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_shipping_bills_sb_no_sb_date", columnNames = {"sb_no", "sb_date"})
+}, indexes = {
     @Index(name = "idx_sb_no", columnList = "sb_no"),
     @Index(name = "idx_sb_date", columnList = "sb_date")
 })
@@ -27,7 +29,8 @@ public class ShippingBill implements Serializable {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "sb_no", nullable = false, unique = true, length = 50)
+    // Unique together with sb_date (uk_shipping_bills_sb_no_sb_date); partitioning needs sb_date in every unique key
+    @Column(name = "sb_no", nullable = false, length = 50)
     @NotBlank(message = "Shipping Bill Number is required")
     private String sbNo;
 
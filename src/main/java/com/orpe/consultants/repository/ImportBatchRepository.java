@@ -0,0 +1,30 @@
+package com.orpe.consultants.repository;
+
+import com.orpe.consultants.model.ImportBatch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ImportBatchRepository extends JpaRepository<ImportBatch, String> {
+
+    List<ImportBatch> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    List<ImportBatch> findAllByCreatedByOrderByCreatedAtDesc(String createdBy, Pageable pageable);
+
+    /**
+     * Loads the batch and bumps its version when the transaction commits, so
+     * the transaction conflicts with any concurrent status change of the
+     * batch (rollback, replace) instead of writing past it.
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select b from ImportBatch b where b.batchId = :batchId")
+    Optional<ImportBatch> findAndBumpVersion(@Param("batchId") String batchId);
+}
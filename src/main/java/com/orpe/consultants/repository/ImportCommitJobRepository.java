@@ -0,0 +1,9 @@
+package com.orpe.consultants.repository;
+
+import com.orpe.consultants.model.ImportCommitJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ImportCommitJobRepository extends JpaRepository<ImportCommitJob, String> {
+}
@@ -0,0 +1,296 @@
+package com.orpe.consultants.repository;
+
+import com.orpe.consultants.dto.ImportDataDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * MySQL LOAD DATA path for very large import loads. Rows are written to a
+ * TSV file in the bulk-load directory, sent with LOAD DATA LOCAL INFILE into
+ * tbl_import_data_staging and then copied into materials and
+ * tbl_import_data with INSERT ... SELECT, so the server sees a handful of
+ * statements instead of one INSERT per row.
+ *
+ * The connection URL must allow local infile for the directory
+ * (allowLoadLocalInfileInPath) and the server needs local_infile=ON.
+ */
+@Repository
+public class ImportDataBulkLoader {
+
+    // Same order in the TSV, the LOAD DATA column list and the merge
+    static final List<String> COLUMNS = List.of(
+        "be_no", "be_date", "be_month", "be_year", "claim_ref_no", "claim_year", "port_code",
+        "country_of_origin", "supplier_name_address", "itchs_code", "item_description", "bom_part_no",
+        "alt_boe_part_no", "dbk_part_no", "quantity", "uom", "assessable_value", "bcd_rate", "bcd",
+        "sws_rate", "sws", "add_rate", "add_duty", "igst_rate", "igst", "total_duty", "notn_no",
+        "notn_eligibility", "qty_opening_balance", "qty_used", "closing_balance",
+        "stock_wise_eligibility", "duty_claimed_amt");
+
+    private static final String STAGING = "tbl_import_data_staging";
+    private static final int DELETE_CHUNK = 50_000;
+
+    private final JdbcTemplate jdbc;
+    private final Path directory;
+
+    public ImportDataBulkLoader(
+            JdbcTemplate jdbc,
+            @Value("${orpe.import.bulk-load.directory:${java.io.tmpdir}/orpe-bulk-load}") Path directory) {
+        this.jdbc = jdbc;
+        try {
+            this.directory = Files.createDirectories(directory).toRealPath();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create bulk-load directory " + directory, e);
+        }
+    }
+
+    /**
+     * Starts a load with its own load_id and TSV file. Close it to delete
+     * the file and the staged rows.
+     */
+    public Load begin() throws IOException {
+        return begin(UUID.randomUUID().toString());
+    }
+
+    /**
+     * Starts a load with the given load_id, which must be a UUID; it is
+     * written into the LOAD DATA statement.
+     */
+    public Load begin(String loadId) throws IOException {
+        if (!UUID.fromString(loadId).toString().equals(loadId)) {
+            throw new IllegalArgumentException("Load id is not a UUID: " + loadId);
+        }
+        return new Load(loadId);
+    }
+
+    @FunctionalInterface
+    public interface DuplicateHandler {
+        /**
+         * @param firstLine earlier line of the same load, or null when the
+         *                  line already exists in tbl_import_data
+         */
+        void duplicate(int line, String beNo, Integer firstLine);
+    }
+
+    public final class Load implements Closeable {
+
+        private final String loadId;
+        private final Path file;
+        private final BufferedWriter out;
+        private final StringBuilder line = new StringBuilder(512);
+        private int lines;
+        private boolean staged;
+
+        private Load(String loadId) throws IOException {
+            this.loadId = loadId;
+            this.file = Files.createTempFile(directory, "import-" + loadId + "-", ".tsv");
+            this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        }
+
+        public String getLoadId() {
+            return loadId;
+        }
+
+        public int getLines() {
+            return lines;
+        }
+
+        /** Appends a row; line numbers are 1-based in the order added. */
+        public void add(ImportDataDTO r) throws IOException {
+            line.setLength(0);
+            line.append(++lines);
+            field(r.getBeNo());
+            field(r.getBeDate());
+            field(trim(r.getBeMonth()));
+            field(r.getBeYear());
+            field(r.getClaimRefNo());
+            field(r.getClaimYear());
+            field(r.getPortCode());
+            field(r.getCountryOfOrigin());
+            field(r.getSupplierNameAddress());
+            field(r.getItchsCode());
+            field(r.getItemDescription());
+            // Same as ImportDataService: trimmed, blank means no Material
+            String bom = trim(r.getBomPartNo());
+            field(bom == null || bom.isEmpty() ? null : bom);
+            field(r.getAltBoePartNo());
+            field(r.getDbkPartNo());
+            field(r.getQuantity());
+            field(r.getUom());
+            field(r.getAssessableValue());
+            field(r.getBcdRate());
+            field(r.getBcd());
+            field(r.getSwsRate());
+            field(r.getSws());
+            field(r.getAddRate());
+            field(r.getAddDuty());
+            field(r.getIgstRate());
+            field(r.getIgst());
+            field(r.getTotalDuty());
+            field(r.getNotnNo());
+            field(r.getNotnEligibility());
+            field(r.getQtyOpeningBalance());
+            field(r.getQtyUsed());
+            field(r.getClosingBalance());
+            field(r.getStockWiseEligibility() == null ? null : r.getStockWiseEligibility().name());
+            field(r.getDutyClaimedAmt());
+            line.append('\n');
+            out.write(line.toString());
+        }
+
+        /**
+         * Sends the file to the staging table. LOCAL loads turn conversion
+         * errors into warnings, so any warning fails the load.
+         * @return rows staged
+         */
+        public int load() throws IOException {
+            out.close();
+            String sql = "LOAD DATA LOCAL INFILE '" + escapeLiteral(file.toString()) + "'"
+                + " INTO TABLE " + STAGING + " CHARACTER SET utf8mb4"
+                + " FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n'"
+                + " (line_no, " + String.join(", ", COLUMNS) + ")"
+                + " SET load_id = '" + loadId + "'";
+            staged = true;
+            try {
+                int rows = jdbc.execute((Statement st) -> {
+                    int count = st.executeUpdate(sql);
+                    SQLWarning warning = st.getWarnings();
+                    if (warning != null) {
+                        throw new DataIntegrityViolationException("LOAD DATA of import load " + loadId
+                            + " reported: " + warning.getMessage());
+                    }
+                    return count;
+                });
+                if (rows != lines) {
+                    throw new DataIntegrityViolationException("LOAD DATA staged " + rows + " of " + lines + " rows");
+                }
+                return rows;
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        /** Reports lines that repeat an earlier line or a stored row (same BE no, date, BOM part, item). */
+        public void findDuplicates(DuplicateHandler handler) {
+            jdbc.query(
+                "SELECT s.line_no, s.be_no, d.first_line FROM " + STAGING + " s"
+                    + " JOIN (SELECT be_no, be_date, bom_part_no, item_description, MIN(line_no) AS first_line"
+                    + "       FROM " + STAGING + " WHERE load_id = ?"
+                    + "       GROUP BY be_no, be_date, bom_part_no, item_description HAVING COUNT(*) > 1) d"
+                    + " ON s.be_no = d.be_no AND s.be_date = d.be_date"
+                    + " AND s.bom_part_no <=> d.bom_part_no AND s.item_description = d.item_description"
+                    + " WHERE s.load_id = ? AND s.line_no > d.first_line ORDER BY s.line_no",
+                (RowCallbackHandler) rs -> handler.duplicate(rs.getInt(1), rs.getString(2), rs.getInt(3)),
+                loadId, loadId);
+
+            jdbc.query(
+                "SELECT s.line_no, s.be_no FROM " + STAGING + " s WHERE s.load_id = ? AND EXISTS ("
+                    + " SELECT 1 FROM tbl_import_data t WHERE t.be_no = s.be_no AND t.be_date = s.be_date"
+                    + " AND t.bom_part_no <=> s.bom_part_no AND t.item_description = s.item_description)"
+                    + " ORDER BY s.line_no",
+                (RowCallbackHandler) rs -> handler.duplicate(rs.getInt(1), rs.getString(2), null),
+                loadId);
+        }
+
+        /**
+         * Creates the Materials the load references but that do not exist
+         * yet. Join in the caller's transaction together with mergeRows.
+         * @return Materials created
+         */
+        public int mergeMaterials() {
+            // IGNORE only covers a concurrent insert of the same part; lengths are validated
+            return jdbc.update(
+                "INSERT IGNORE INTO materials (bom_part_no)"
+                    + " SELECT DISTINCT s.bom_part_no FROM " + STAGING + " s"
+                    + " LEFT JOIN materials m ON m.bom_part_no = s.bom_part_no"
+                    + " WHERE s.load_id = ? AND s.bom_part_no IS NOT NULL AND m.bom_part_no IS NULL",
+                loadId);
+        }
+
+        /**
+         * Copies the staged rows into tbl_import_data in line order, taking
+         * bom_part_no from the Material row as the JPA path does.
+         * @param batchId ImportBatch the rows belong to (may be null)
+         * @return rows inserted
+         */
+        public int mergeRows(LocalDateTime now, String batchId) {
+            String select = COLUMNS.stream()
+                .map(c -> c.equals("bom_part_no") ? "m.bom_part_no" : "s." + c)
+                .collect(Collectors.joining(", "));
+            return jdbc.update(
+                "INSERT INTO tbl_import_data (" + String.join(", ", COLUMNS) + ", batch_id, created_at, updated_at)"
+                    + " SELECT " + select + ", ?, ?, ? FROM " + STAGING + " s"
+                    + " LEFT JOIN materials m ON m.bom_part_no = s.bom_part_no"
+                    + " WHERE s.load_id = ? ORDER BY s.line_no",
+                batchId, now, now, loadId);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                out.close();
+                Files.deleteIfExists(file);
+            } finally {
+                // Small chunks so clean-up never holds long row locks
+                if (staged) {
+                    while (jdbc.update("DELETE FROM " + STAGING + " WHERE load_id = ? LIMIT " + DELETE_CHUNK, loadId) > 0) {
+                        // next chunk
+                    }
+                }
+            }
+        }
+
+        private void field(Object value) {
+            line.append('\t');
+            if (value == null) {
+                line.append("\\N");
+            } else if (value instanceof BigDecimal d) {
+                line.append(d.toPlainString());
+            } else if (value instanceof String s) {
+                escape(s);
+            } else {
+                line.append(value);
+            }
+        }
+
+        // LOAD DATA escapes: backslash, tab, newline, carriage return and NUL
+        private void escape(String s) {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                switch (c) {
+                    case '\\' -> line.append("\\\\");
+                    case '\t' -> line.append("\\t");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    case '\0' -> line.append("\\0");
+                    default -> line.append(c);
+                }
+            }
+        }
+    }
+
+    private static String escapeLiteral(String s) {
+        return s.replace("\\", "\\\\").replace("'", "\\'");
+    }
+
+    private static String trim(String s) {
+        return s == null ? null : s.trim();
+    }
+}
@@ -7,13 +7,18 @@ import org.springframework.data.domain.Pageable;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
-public interface ImportDataRepository extends JpaRepository<ImportData, Long>, JpaSpecificationExecutor<ImportData> {
+public interface ImportDataRepository extends JpaRepository<ImportData, Long>, JpaSpecificationExecutor<ImportData>,
+        ImportDataRepositoryCustom {
 
     // Global default
     Page<ImportData> findAllByOrderByBeDateDesc(Pageable pageable);
@@ -50,4 +55,44 @@ public interface ImportDataRepository extends JpaRepository<ImportData, Long>, J
         order by i.beDate desc
     """)
     Page<ImportData> searchAllOrderByBeDateDesc(String q, Pageable pageable);
+
+    // Distinct reference values (cached by ReferenceDataService)
+    @Query("select distinct i.portCode from ImportData i where i.portCode is not null order by i.portCode")
+    List<String> findDistinctPortCodes();
+
+    @Query("select distinct i.itchsCode from ImportData i where i.itchsCode is not null order by i.itchsCode")
+    List<String> findDistinctItchsCodes();
+
+    @Query("select distinct i.countryOfOrigin from ImportData i where i.countryOfOrigin is not null order by i.countryOfOrigin")
+    List<String> findDistinctCountriesOfOrigin();
+
+    // Any consistent read fixes the snapshot of a REPEATABLE READ transaction; this one reads one row at most
+    @Query(value = "SELECT 1 FROM tbl_import_data LIMIT 1", nativeQuery = true)
+    List<Integer> startSnapshot();
+
+    // Distinct values with their row counts, loaded into the autocomplete index
+    @Query("select i.beNo, count(i) from ImportData i where i.beNo is not null group by i.beNo")
+    List<Object[]> countRowsPerBeNo();
+
+    @Query("select i.dbkPartNo, count(i) from ImportData i where i.dbkPartNo is not null group by i.dbkPartNo")
+    List<Object[]> countRowsPerDbkPartNo();
+
+    @Query("select i.bomPartNo, count(i) from ImportData i where i.bomPartNo is not null group by i.bomPartNo")
+    List<Object[]> countRowsPerBomPartNo();
+
+    @Query("select i.itchsCode, count(i) from ImportData i where i.itchsCode is not null group by i.itchsCode")
+    List<Object[]> countRowsPerItchsCode();
+
+    // Line identity and batch of stored rows for the given BE numbers (duplicate check before a bulk save)
+    @Query("select i.beNo, i.beDate, i.bomPartNo, i.itemDescription, i.batchId from ImportData i where i.beNo in :beNos")
+    List<Object[]> findLineKeysByBeNoIn(@Param("beNos") Collection<String> beNos);
+
+    long countByBatchId(String batchId);
+
+    long countByImportIdIn(Collection<Long> importIds);
+
+    // One chunk of a batch rollback; call until it returns 0, one transaction per call
+    @Modifying
+    @Query(value = "DELETE FROM tbl_import_data WHERE batch_id = :batchId LIMIT :limit", nativeQuery = true)
+    int deleteBatchChunk(@Param("batchId") String batchId, @Param("limit") int limit);
 }
@@ -0,0 +1,42 @@
+package com.orpe.consultants.repository;
+
+import com.orpe.consultants.dto.ImportBulkUpdate;
+import com.orpe.consultants.model.ImportData;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ImportDataRepositoryCustom {
+
+    /**
+     * Fetch one page of rows matching the specification without running a
+     * count query. Reads pageSize + 1 rows to tell whether a next page exists.
+     */
+    Slice<ImportData> findSlice(Specification<ImportData> spec, Pageable pageable);
+
+    /**
+     * Keyset page of row keys for chunked bulk edits: [importId, beDate] of
+     * up to limit matching rows with importId above afterId, by importId.
+     * No entities are loaded.
+     */
+    List<Object[]> findKeysAfter(Specification<ImportData> spec, long afterId, int limit);
+
+    /**
+     * Bulk DELETE of the given rows without loading them. The optional BE
+     * date bounds (inclusive) let MySQL prune partitions.
+     * @return rows deleted
+     */
+    int deleteChunk(Collection<Long> ids, LocalDate beDateFrom, LocalDate beDateTo);
+
+    /**
+     * Bulk UPDATE of the non-null columns of changes on the given rows,
+     * without loading them; updated_at is set to now.
+     * @return rows updated
+     */
+    int updateChunk(Collection<Long> ids, LocalDate beDateFrom, LocalDate beDateTo, ImportBulkUpdate changes, LocalDateTime now);
+}
@@ -0,0 +1,104 @@
+package com.orpe.consultants.repository;
+
+import com.orpe.consultants.dto.ImportBulkUpdate;
+import com.orpe.consultants.model.ImportData;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class ImportDataRepositoryImpl implements ImportDataRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public Slice<ImportData> findSlice(Specification<ImportData> spec, Pageable pageable) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<ImportData> query = cb.createQuery(ImportData.class);
+        Root<ImportData> root = query.from(ImportData.class);
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) query.where(predicate);
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<ImportData> typed = em.createQuery(query.select(root));
+        if (pageable.isPaged()) {
+            typed.setFirstResult((int) pageable.getOffset());
+            typed.setMaxResults(pageable.getPageSize() + 1);
+        }
+
+        List<ImportData> rows = typed.getResultList();
+        boolean hasNext = pageable.isPaged() && rows.size() > pageable.getPageSize();
+        if (hasNext) rows = rows.subList(0, pageable.getPageSize());
+        return new SliceImpl<>(rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<Object[]> findKeysAfter(Specification<ImportData> spec, long afterId, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<ImportData> root = query.from(ImportData.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.greaterThan(root.get("importId"), afterId));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) predicates.add(predicate);
+
+        query.multiselect(root.get("importId"), root.get("beDate"))
+            .where(predicates.toArray(new Predicate[0]))
+            .orderBy(cb.asc(root.get("importId")));
+        return em.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public int deleteChunk(Collection<Long> ids, LocalDate beDateFrom, LocalDate beDateTo) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaDelete<ImportData> delete = cb.createCriteriaDelete(ImportData.class);
+        Root<ImportData> root = delete.from(ImportData.class);
+        delete.where(chunkPredicates(cb, root, ids, beDateFrom, beDateTo));
+        return em.createQuery(delete).executeUpdate();
+    }
+
+    @Override
+    public int updateChunk(Collection<Long> ids, LocalDate beDateFrom, LocalDate beDateTo,
+                           ImportBulkUpdate changes, LocalDateTime now) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaUpdate<ImportData> update = cb.createCriteriaUpdate(ImportData.class);
+        Root<ImportData> root = update.from(ImportData.class);
+        if (changes.getStockWiseEligibility() != null) update.set(root.get("stockWiseEligibility"), changes.getStockWiseEligibility());
+        if (changes.getClaimYear() != null) update.set(root.get("claimYear"), changes.getClaimYear());
+        if (changes.getClaimRefNo() != null) update.set(root.get("claimRefNo"), changes.getClaimRefNo());
+        // Bulk statements bypass @UpdateTimestamp
+        update.set(root.get("updatedAt"), now);
+        update.where(chunkPredicates(cb, root, ids, beDateFrom, beDateTo));
+        return em.createQuery(update).executeUpdate();
+    }
+
+    private static Predicate[] chunkPredicates(CriteriaBuilder cb, Root<ImportData> root, Collection<Long> ids,
+                                               LocalDate beDateFrom, LocalDate beDateTo) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(root.get("importId").in(ids));
+        if (beDateFrom != null) predicates.add(cb.greaterThanOrEqualTo(root.get("beDate"), beDateFrom));
+        if (beDateTo != null) predicates.add(cb.lessThanOrEqualTo(root.get("beDate"), beDateTo));
+        return predicates.toArray(new Predicate[0]);
+    }
+}
@@ -0,0 +1,67 @@
+package com.orpe.consultants.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Uploaded files of queued import jobs, kept in the database so any node
+ * can process them. Workers copy the file to local disk first, so no
+ * connection is held while a job runs.
+ */
+@Repository
+public class ImportJobPayloadStore {
+
+    private final JdbcTemplate jdbc;
+
+    public ImportJobPayloadStore(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Joins the caller's transaction, together with the ImportJob insert. */
+    public void save(String jobId, Path file) throws IOException {
+        long size = Files.size(file);
+        try (InputStream in = Files.newInputStream(file)) {
+            jdbc.update("INSERT INTO import_job_payloads (job_id, content) VALUES (?, ?)", ps -> {
+                ps.setString(1, jobId);
+                ps.setBinaryStream(2, in, size);
+            });
+        }
+    }
+
+    /** @return false when the job has no payload (any more) */
+    public boolean copyTo(String jobId, Path target) throws IOException {
+        try {
+            return jdbc.query("SELECT content FROM import_job_payloads WHERE job_id = ?",
+                (ResultSetExtractor<Boolean>) rs -> {
+                    if (!rs.next()) return false;
+                    try (InputStream in = rs.getBinaryStream(1)) {
+                        Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return true;
+                },
+                jobId);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Removes the payloads of COMPLETED and FAILED jobs. */
+    public int deleteFinished() {
+        return jdbc.update("DELETE p FROM import_job_payloads p JOIN import_jobs j ON j.job_id = p.job_id"
+            + " WHERE j.status IN ('COMPLETED', 'FAILED')");
+    }
+
+    public void delete(String jobId) {
+        jdbc.update("DELETE FROM import_job_payloads WHERE job_id = ?", jobId);
+    }
+}
@@ -0,0 +1,83 @@
+package com.orpe.consultants.repository;
+
+import com.orpe.consultants.model.ImportJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Queue operations on import_jobs. Claims and lease math run on the
+ * database clock; every update of a RUNNING job is fenced by lease_owner,
+ * so a node that lost its lease cannot overwrite the new owner's outcome.
+ */
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+
+    List<ImportJob> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    // Rows locked by another node's claim are skipped instead of waited for
+    @Query(value = "SELECT job_id FROM import_jobs WHERE status = 'QUEUED' AND available_at <= NOW(6)"
+        + " ORDER BY available_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<String> lockQueued(@Param("limit") int limit);
+
+    // Run in the transaction of lockQueued
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE import_jobs SET status = 'RUNNING', lease_owner = :owner,"
+        + " lease_expires_at = NOW(6) + INTERVAL :leaseSeconds SECOND, heartbeat_at = NOW(6),"
+        + " attempts = attempts + 1, started_at = NOW(6), updated_at = NOW(6)"
+        + " WHERE job_id IN (:jobIds) AND status = 'QUEUED'", nativeQuery = true)
+    int claim(@Param("jobIds") Collection<String> jobIds, @Param("owner") String owner,
+              @Param("leaseSeconds") long leaseSeconds);
+
+    /** @return jobs whose lease was renewed; fewer than given means leases were lost */
+    @Modifying
+    @Query(value = "UPDATE import_jobs SET lease_expires_at = NOW(6) + INTERVAL :leaseSeconds SECOND,"
+        + " heartbeat_at = NOW(6) WHERE job_id IN (:jobIds) AND lease_owner = :owner AND status = 'RUNNING'",
+        nativeQuery = true)
+    int heartbeat(@Param("jobIds") Collection<String> jobIds, @Param("owner") String owner,
+                  @Param("leaseSeconds") long leaseSeconds);
+
+    @Modifying
+    @Query(value = "UPDATE import_jobs SET status = 'COMPLETED', batch_id = :batchId, row_count = :rowCount,"
+        + " last_error = NULL, lease_owner = NULL, lease_expires_at = NULL, finished_at = NOW(6), updated_at = NOW(6)"
+        + " WHERE job_id = :jobId AND lease_owner = :owner AND status = 'RUNNING'", nativeQuery = true)
+    int complete(@Param("jobId") String jobId, @Param("owner") String owner,
+                 @Param("batchId") String batchId, @Param("rowCount") int rowCount);
+
+    @Modifying
+    @Query(value = "UPDATE import_jobs SET status = 'FAILED', last_error = :error,"
+        + " lease_owner = NULL, lease_expires_at = NULL, finished_at = NOW(6), updated_at = NOW(6)"
+        + " WHERE job_id = :jobId AND lease_owner = :owner AND status = 'RUNNING'", nativeQuery = true)
+    int fail(@Param("jobId") String jobId, @Param("owner") String owner, @Param("error") String error);
+
+    @Modifying
+    @Query(value = "UPDATE import_jobs SET status = 'QUEUED', last_error = :error,"
+        + " available_at = NOW(6) + INTERVAL :delaySeconds SECOND,"
+        + " lease_owner = NULL, lease_expires_at = NULL, updated_at = NOW(6)"
+        + " WHERE job_id = :jobId AND lease_owner = :owner AND status = 'RUNNING'", nativeQuery = true)
+    int retry(@Param("jobId") String jobId, @Param("owner") String owner,
+              @Param("error") String error, @Param("delaySeconds") long delaySeconds);
+
+    // The owner stopped renewing the lease, so its node is gone or stuck
+    @Modifying
+    @Query(value = "UPDATE import_jobs SET status = 'QUEUED', available_at = NOW(6),"
+        + " last_error = CONCAT('Lease of ', lease_owner, ' expired'),"
+        + " lease_owner = NULL, lease_expires_at = NULL, updated_at = NOW(6)"
+        + " WHERE status = 'RUNNING' AND lease_expires_at < NOW(6) AND attempts < max_attempts",
+        nativeQuery = true)
+    int requeueExpired();
+
+    @Modifying
+    @Query(value = "UPDATE import_jobs SET status = 'FAILED',"
+        + " last_error = CONCAT('Lease of ', lease_owner, ' expired after ', attempts, ' attempt(s)'),"
+        + " lease_owner = NULL, lease_expires_at = NULL, finished_at = NOW(6), updated_at = NOW(6)"
+        + " WHERE status = 'RUNNING' AND lease_expires_at < NOW(6) AND attempts >= max_attempts",
+        nativeQuery = true)
+    int failExpired();
+}
@@ -20,9 +20,15 @@ public interface ShippingBillRepository extends JpaRepository<ShippingBill, Long
     // ==================== BASIC LOOKUPS ====================
     
     /**
-     * Find shipping bill by unique SB number (uses idx_sb_no index)
+     * Find shipping bills by SB number (uses uk_shipping_bills_sb_no_sb_date).
+     * Numbers are only unique per SB date, so one number may return several bills
      */
-    Optional<ShippingBill> findBySbNo(String sbNo);
+    List<ShippingBill> findBySbNo(String sbNo);
+
+    /**
+     * Find the shipping bill with this SB number and date
+     */
+    Optional<ShippingBill> findBySbNoAndSbDate(String sbNo, LocalDate sbDate);
     
     /**
      * Check if SB number already exists
@@ -0,0 +1,61 @@
+package com.orpe.consultants.service;
+
+import com.orpe.consultants.model.ImportData;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ImportAutocompleteService {
+
+    /** Import list filter fields with typeahead, by their filter parameter name. */
+    enum Field {
+        BE_NO("beNo"),
+        DBK_PART_NO("dbkPartNo"),
+        BOM_PART_NO("bomPartNo"),
+        ITCHS_CODE("itchsCode");
+
+        private final String param;
+
+        Field(String param) {
+            this.param = param;
+        }
+
+        public String getParam() {
+            return param;
+        }
+
+        public static Optional<Field> fromParam(String param) {
+            for (Field field : values()) {
+                if (field.param.equalsIgnoreCase(param)) return Optional.of(field);
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stored values of a field starting with the prefix, ignoring case.
+     * Served from memory; empty while the index is still loading.
+     * @param field filter field
+     * @param prefix typed text; blank gives no completions
+     * @param limit maximum number of values
+     * @return matching values in alphabetical order
+     */
+    List<String> complete(Field field, String prefix, int limit);
+
+    /**
+     * Reload the index from the database in the background, e.g. after
+     * writes that bypass ImportDataService. Requests made while a reload is
+     * waiting to start are merged into it.
+     */
+    void refresh();
+
+    /** Counts the row's values in once the current transaction commits. */
+    void added(ImportData row);
+
+    /**
+     * Counts the row's values out once the current transaction commits.
+     * Reads the values right away, so an entity about to be overwritten may
+     * be passed.
+     */
+    void removed(ImportData row);
+}
@@ -0,0 +1,91 @@
+package com.orpe.consultants.service;
+
+import com.orpe.consultants.dto.ImportDataDTO;
+import com.orpe.consultants.model.ImportBatch;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+public interface ImportBatchService {
+
+    /**
+     * Validate and save rows as one new import batch, in one transaction.
+     * @param rows import data rows
+     * @param fileName uploaded file name (may be null)
+     * @param username user uploading (may be null)
+     * @return the new ACTIVE batch
+     * @throws com.orpe.consultants.exception.ImportValidationException if any row is invalid
+     */
+    ImportBatch saveBulk(List<ImportDataDTO> rows, String fileName, String username);
+
+    /**
+     * Register an upload whose rows were saved with this batch id. Joins
+     * the caller's transaction, so the batch appears together with its rows.
+     * @return the new ACTIVE batch
+     */
+    ImportBatch record(String batchId, String fileName, String contentHash, int rowCount, String username);
+
+    /**
+     * Delete all rows of a batch with chunked set-based deletes, one
+     * transaction per chunk. A rollback that was cut off (ROLLING_BACK) is
+     * finished by calling this again.
+     * @param batchId batch id
+     * @return the ROLLED_BACK batch
+     * @throws com.orpe.consultants.exception.ResourceNotFoundException if the batch does not exist
+     * @throws IllegalStateException if the batch was already rolled back or replaced
+     */
+    ImportBatch rollback(String batchId);
+
+    /**
+     * Replace a batch with corrected rows: the new rows are validated first
+     * (rows of the old batch do not count as duplicates), then the old rows
+     * are deleted in chunks and the new rows saved as a new batch. If the
+     * replace is cut off, the old batch stays REPLACING and calling this
+     * again with the same rows finishes it.
+     * @param batchId batch to replace
+     * @param rows corrected import data rows
+     * @param fileName uploaded file name (may be null)
+     * @param username user uploading (may be null)
+     * @return the new ACTIVE batch; the old one is REPLACED and points to it
+     * @throws com.orpe.consultants.exception.ImportValidationException if any new row is invalid
+     */
+    ImportBatch replace(String batchId, List<ImportDataDTO> rows, String fileName, String username);
+
+    /**
+     * Look up a batch.
+     * @param batchId batch id
+     * @return the batch if it exists
+     */
+    Optional<ImportBatch> findBatch(String batchId);
+
+    /**
+     * Latest batches first.
+     * @param limit maximum number of batches
+     * @return batches ordered by creation time, newest first
+     */
+    List<ImportBatch> findRecent(int limit);
+
+    /**
+     * Latest batches uploaded by one user first.
+     * @param username uploader
+     * @param limit maximum number of batches
+     * @return the user's batches ordered by creation time, newest first
+     */
+    List<ImportBatch> findRecent(String username, int limit);
+
+    /**
+     * Id of the batch an upload creates, and a check run in the transaction
+     * that saves it, after its rows and batch record are written, with the
+     * number of rows saved. Throwing from the check rolls the whole upload
+     * back. Import jobs use it to commit their outcome with the rows.
+     */
+    record NewBatch(String batchId, IntConsumer beforeCommit) {
+
+        /** A random batch id and no check. */
+        public static NewBatch random() {
+            return new NewBatch(UUID.randomUUID().toString(), rowCount -> { });
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.orpe.consultants.service;
+
+import com.orpe.consultants.dto.ImportBulkEditRequest;
+import com.orpe.consultants.dto.ImportBulkEditResult;
+
+public interface ImportBulkEditService {
+
+    /**
+     * Delete the rows named by id or matched by the filter with chunked
+     * DELETE statements, one transaction per chunk; nothing is loaded as
+     * an entity. With dryRun only the matching rows are counted. A delete
+     * by filter must pass the dry run's count as expectedRows.
+     * @param request ids or filter (a filter needs at least one criterion)
+     * @return rows deleted, or that would be deleted
+     * @throws IllegalArgumentException if the request names no rows, both ids and a filter,
+     *         or a filter without expectedRows
+     * @throws IllegalStateException if the filter no longer matches expectedRows rows
+     */
+    ImportBulkEditResult delete(ImportBulkEditRequest request);
+
+    /**
+     * Set the columns given in request.set on the rows named by id or
+     * matched by the filter, with chunked UPDATE statements as for delete.
+     * @param request ids or filter, and the new column values
+     * @return rows updated, or that would be updated
+     * @throws IllegalArgumentException if the request names no rows, sets nothing, or a value is invalid
+     */
+    ImportBulkEditResult update(ImportBulkEditRequest request);
+}
@@ -0,0 +1,27 @@
+package com.orpe.consultants.service;
+
+import com.orpe.consultants.dto.ImportBulkLoadResult;
+
+import java.io.InputStream;
+
+public interface ImportBulkLoadService {
+
+    /**
+     * Load a (very large) import workbook through MySQL LOAD DATA and a
+     * staging table. Runs the same checks as saveBulk; if any row is invalid
+     * or a duplicate, nothing is saved. The rows form one new import batch.
+     * @param workbook xls/xlsx stream; not closed
+     * @param fileName uploaded file name (may be null)
+     * @param username user uploading (may be null)
+     * @return batch id, row counts and per-step timings
+     * @throws com.orpe.consultants.exception.ImportValidationException with the full report
+     * @throws com.orpe.consultants.exception.FileProcessingException if the workbook or temp file cannot be handled
+     */
+    ImportBulkLoadResult load(InputStream workbook, String fileName, String username);
+
+    /**
+     * Same as load, saving the rows as the given batch.
+     * @param batch batch id (also the load id) and the check run before the merge commits
+     */
+    ImportBulkLoadResult load(InputStream workbook, String fileName, String username, ImportBatchService.NewBatch batch);
+}
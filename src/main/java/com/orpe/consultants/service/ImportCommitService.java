@@ -0,0 +1,29 @@
+package com.orpe.consultants.service;
+
+import com.orpe.consultants.dto.ImportDataDTO;
+import com.orpe.consultants.model.ImportCommitJob;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ImportCommitService {
+
+    /**
+     * Save a large batch of import rows in chunks, one transaction per chunk.
+     * The whole batch is validated first, on a resume too. When jobId names
+     * a FAILED job, the same batch is resumed after its last committed chunk.
+     * @param rows import data rows, in the same order on every attempt
+     * @param jobId job to resume, or null to start a new one
+     * @param username user starting the job (may be null)
+     * @return the job with its final status (COMPLETED or FAILED)
+     * @throws com.orpe.consultants.exception.ImportValidationException if the batch is invalid
+     */
+    ImportCommitJob commit(List<ImportDataDTO> rows, String jobId, String username);
+
+    /**
+     * Look up a commit job, e.g. to show progress or the last error.
+     * @param jobId job id
+     * @return the job if it exists
+     */
+    Optional<ImportCommitJob> findJob(String jobId);
+}
@@ -4,8 +4,10 @@ package com.orpe.consultants.service;
 
 import com.orpe.consultants.dto.ImportDataDTO;
 import com.orpe.consultants.dto.ImportDataFilter;  // Optional DTO for search/filter criteria
+import com.orpe.consultants.dto.ImportValidationReport;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,12 +15,33 @@ import java.util.Optional;
 public interface ImportDataService {
 
     /**
-     * Save multiple ImportDataDTO rows in bulk.
+     * Save multiple ImportDataDTO rows in bulk. The batch is validated first
+     * and nothing is saved if any row is invalid.
      * @param rows list of import data rows
      * @return number of rows saved
+     * @throws com.orpe.consultants.exception.ImportValidationException with the full report
      */
     int saveBulk(List<ImportDataDTO> rows);
 
+    /**
+     * Save rows that already passed validateAll, without validating again.
+     * Joins the caller's transaction, so chunked commits can call it once
+     * per chunk.
+     * @param rows validated import data rows
+     * @return number of rows saved
+     */
+    int saveValidated(List<ImportDataDTO> rows);
+
+    /**
+     * Like saveValidated(rows), tagging every row with the import batch it
+     * belongs to so the batch can later be rolled back or replaced as a
+     * whole.
+     * @param rows validated import data rows
+     * @param batchId ImportBatch id, or null for untagged rows
+     * @return number of rows saved
+     */
+    int saveValidated(List<ImportDataDTO> rows, String batchId);
+
     /**
      * Save or update a single ImportData row.
      * @param dto import data DTO
@@ -53,6 +76,15 @@ public interface ImportDataService {
      */
     Page<ImportDataDTO> search(ImportDataFilter filter, Pageable pageable);
 
+    /**
+     * Search ImportData rows without computing the total row count.
+     * Use when only previous/next navigation is needed.
+     * @param filter search filter DTO
+     * @param pageable pagination and sorting information
+     * @return slice of ImportDataDTO matching filter, with hasNext information
+     */
+    Slice<ImportDataDTO> searchSlice(ImportDataFilter filter, Pageable pageable);
+
     /**
      * Export filtered ImportData rows in CSV or Excel format.
      * @param filter search filter
@@ -69,7 +101,17 @@ public interface ImportDataService {
     boolean validate(ImportDataDTO dto);
 
     /**
-     * Count total rows matching filter criteria.
+     * Validate a whole batch without saving: required fields, positive
+     * quantities, duty totals and duplicate BE lines within the batch and
+     * against the database.
+     * @param rows import data rows
+     * @return report with every problem found (empty when valid)
+     */
+    ImportValidationReport validateAll(List<ImportDataDTO> rows);
+
+    /**
+     * Count total rows matching filter criteria. Results are cached per
+     * filter until the next write to tbl_import_data.
      * @param filter filter criteria
      * @return count of matching rows
      */
@@ -0,0 +1,36 @@
+package com.orpe.consultants.service;
+
+import com.orpe.consultants.model.ImportJob;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+
+public interface ImportJobService {
+
+    /**
+     * Store an upload in the database queue; a worker on any node picks it
+     * up, so the request returns as soon as the file is stored.
+     * @param type how the upload is processed: WORKBOOK (ingest pipeline),
+     *             JSON (JSON array or NDJSON rows) or BULK_LOAD (LOAD DATA)
+     * @param content uploaded file, read to the end but not closed
+     * @param fileName uploaded file name (may be null)
+     * @param username user uploading (may be null)
+     * @return the QUEUED job
+     * @throws com.orpe.consultants.exception.FileProcessingException if the upload cannot be stored
+     */
+    ImportJob enqueue(ImportJob.Type type, InputStream content, String fileName, String username);
+
+    /**
+     * Look up a queued job, e.g. to show its status, batch or last error.
+     * @param jobId job id
+     * @return the job if it exists
+     */
+    Optional<ImportJob> findJob(String jobId);
+
+    /**
+     * @param limit maximum number of jobs
+     * @return jobs, newest first
+     */
+    List<ImportJob> findRecent(int limit);
+}
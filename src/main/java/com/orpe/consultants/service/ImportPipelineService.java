@@ -0,0 +1,46 @@
+package com.orpe.consultants.service;
+
+import com.orpe.consultants.dto.ImportPipelineResult;
+
+import java.io.InputStream;
+
+public interface ImportPipelineService {
+
+    /**
+     * Parse, validate and save an import workbook in one pass, with the
+     * stages running concurrently. All rows are saved in one transaction;
+     * if any row is invalid nothing is saved. The rows form one new import
+     * batch.
+     * @param workbook xls/xlsx stream; not closed
+     * @param fileName uploaded file name (may be null)
+     * @param username user uploading (may be null)
+     * @return batch id, row counts and per-stage timings
+     * @throws com.orpe.consultants.exception.ImportValidationException with the full report
+     * @throws com.orpe.consultants.exception.FileProcessingException if the workbook cannot be read
+     */
+    ImportPipelineResult ingest(InputStream workbook, String fileName, String username);
+
+    /**
+     * Same as ingest, saving the rows as the given batch.
+     * @param batch batch id and the check run before the rows commit
+     */
+    ImportPipelineResult ingest(InputStream workbook, String fileName, String username, ImportBatchService.NewBatch batch);
+
+    /**
+     * Same pipeline for a JSON array or NDJSON stream of ImportDataDTO rows,
+     * read incrementally: rows are saved while the body is still arriving
+     * and only the queued batches are held in memory.
+     * @param json request body, already decompressed; not closed
+     * @param username user uploading (may be null)
+     * @return batch id, row counts and per-stage timings
+     * @throws com.orpe.consultants.exception.ImportValidationException with the full report
+     * @throws com.orpe.consultants.exception.FileProcessingException if the body is not valid JSON
+     */
+    ImportPipelineResult ingestJson(InputStream json, String username);
+
+    /**
+     * Same as ingestJson, saving the rows as the given batch.
+     * @param batch batch id and the check run before the rows commit
+     */
+    ImportPipelineResult ingestJson(InputStream json, String username, ImportBatchService.NewBatch batch);
+}
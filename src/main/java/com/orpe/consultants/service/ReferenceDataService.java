@@ -0,0 +1,52 @@
+package com.orpe.consultants.service;
+
+import com.orpe.consultants.model.Material;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ReferenceDataService {
+
+    /**
+     * Find the Material for a BOM part number, creating it if it does not
+     * exist yet. After the first lookup the stored key comes from a shared
+     * cache and no query is made.
+     * @param bomPartNo trimmed BOM part number
+     * @return Material attached to the caller's transaction, an uninitialised
+     *         reference when the key was cached
+     */
+    Material resolveMaterial(String bomPartNo);
+
+    /**
+     * resolveMaterial for many part numbers at once: cache misses are loaded
+     * with one query and the missing Materials created, then their keys are
+     * put into the shared cache.
+     * @param bomPartNos trimmed BOM part numbers
+     * @return Material per requested part number
+     */
+    Map<String, Material> resolveMaterials(Collection<String> bomPartNos);
+
+    /**
+     * Distinct port codes present in tbl_import_data.
+     * @return sorted list of port codes
+     */
+    List<String> findPortCodes();
+
+    /**
+     * Distinct ITCHS (HS) codes present in tbl_import_data.
+     * @return sorted list of HS codes
+     */
+    List<String> findHsCodes();
+
+    /**
+     * Distinct countries of origin present in tbl_import_data.
+     * @return sorted list of countries
+     */
+    List<String> findCountries();
+
+    /**
+     * Drop the cached distinct value lists after import rows were written.
+     */
+    void evictReferenceLists();
+}
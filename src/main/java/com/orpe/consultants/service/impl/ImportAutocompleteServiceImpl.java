@@ -0,0 +1,297 @@
+package com.orpe.consultants.service.impl;
+
+import com.orpe.consultants.config.Workload;
+import com.orpe.consultants.config.WorkloadContext;
+import com.orpe.consultants.model.ImportData;
+import com.orpe.consultants.repository.ImportDataRepository;
+import com.orpe.consultants.service.ImportAutocompleteService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory prefix index of the distinct BE numbers, DBK and BOM part
+ * numbers and HS codes in tbl_import_data. Each field is a sorted map from
+ * the lower-cased value to the value and the number of rows holding it; a
+ * lookup seeks to the prefix and reads the next few keys, without touching
+ * the database.
+ *
+ * The index loads once the application is ready. Rows saved or deleted
+ * through ImportDataService adjust the counts when their transaction
+ * commits. Set-based writes (bulk load, bulk delete, batch rollback) and
+ * writes made by other nodes are picked up by a full reload: on request via
+ * refresh() and every orpe.import.autocomplete.refresh-ms.
+ *
+ * A reload reads the four counts from one REPEATABLE READ snapshot, and
+ * changes applied after that snapshot was taken are replayed onto the new
+ * index. The replay is not exact: changes are applied just after their
+ * transaction commits, so one that commits right before the snapshot but
+ * is applied after it is counted twice, and a change applied just before
+ * the journal opens is missed. Both windows are a few statements wide; the
+ * next reload corrects the counts.
+ */
+@Service
+@Slf4j
+public class ImportAutocompleteServiceImpl implements ImportAutocompleteService {
+
+    private final ImportDataRepository importRepo;
+    private final TransactionTemplate readTx;
+    private final SimpleAsyncTaskExecutor executor;
+    private final boolean enabled;
+    private final int maxLimit;
+
+    // Guards index contents and journal; lookups read the maps without it
+    private final Object lock = new Object();
+    private final Object reloadLock = new Object();
+    private final AtomicBoolean reloadQueued = new AtomicBoolean();
+    private volatile Map<Field, NavigableMap<String, Term>> index;
+    // Changes committed while a reload runs; null otherwise
+    private Changes journal;
+
+    public ImportAutocompleteServiceImpl(
+            ImportDataRepository importRepo,
+            PlatformTransactionManager transactionManager,
+            Environment environment,
+            @Value("${orpe.import.autocomplete.enabled:true}") boolean enabled,
+            @Value("${orpe.import.autocomplete.max-limit:50}") int maxLimit) {
+        this.importRepo = importRepo;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        // The four counts and the journal start must share one snapshot
+        this.readTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.enabled = enabled;
+        this.maxLimit = Math.max(1, maxLimit);
+
+        this.executor = new SimpleAsyncTaskExecutor("import-autocomplete-");
+        this.executor.setDaemon(true);
+        this.executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+    }
+
+    @Override
+    public List<String> complete(Field field, String prefix, int limit) {
+        Map<Field, NavigableMap<String, Term>> current = index;
+        if (current == null || !StringUtils.hasText(prefix) || limit <= 0) return List.of();
+
+        String key = normalise(prefix);
+        int n = Math.min(limit, maxLimit);
+        List<String> values = new ArrayList<>(n);
+        for (Map.Entry<String, Term> e : current.get(field).tailMap(key, true).entrySet()) {
+            if (!e.getKey().startsWith(key) || values.size() == n) break;
+            values.add(e.getValue().value);
+        }
+        return values;
+    }
+
+    @Override
+    public void refresh() {
+        if (!enabled) return;
+        afterCommit(() -> {
+            if (reloadQueued.compareAndSet(false, true)) executor.execute(this::reload);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    // Catches writes of other nodes and anything refresh() was not told about
+    @Scheduled(fixedDelayString = "${orpe.import.autocomplete.refresh-ms:600000}",
+        initialDelayString = "${orpe.import.autocomplete.refresh-ms:600000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    @Override
+    public void added(ImportData row) {
+        record(row, 1);
+    }
+
+    @Override
+    public void removed(ImportData row) {
+        record(row, -1);
+    }
+
+    private void record(ImportData row, int delta) {
+        if (!enabled) return;
+        Changes changes = pendingChanges();
+        changes.add(Field.BE_NO, row.getBeNo(), delta);
+        changes.add(Field.DBK_PART_NO, row.getDbkPartNo(), delta);
+        changes.add(Field.BOM_PART_NO, row.getBomPartNo(), delta);
+        changes.add(Field.ITCHS_CODE, row.getItchsCode(), delta);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) apply(changes);
+    }
+
+    // One change set per transaction, applied on commit; outside a transaction a fresh one applied by the caller
+    private Changes pendingChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return new Changes();
+        Changes pending = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Changes changes = new Changes();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ImportAutocompleteServiceImpl.this);
+                }
+            });
+            pending = changes;
+        }
+        return pending;
+    }
+
+    private void apply(Changes changes) {
+        synchronized (lock) {
+            if (index != null) changes.applyTo(index);
+            if (journal != null) journal.addAll(changes);
+        }
+    }
+
+    private void reload() {
+        reloadQueued.set(false);
+        synchronized (reloadLock) {
+            long start = System.nanoTime();
+            Map<Field, NavigableMap<String, Term>> fresh;
+            Workload.Type previous = WorkloadContext.bind(Workload.Type.BULK);
+            try {
+                fresh = readTx.execute(status -> {
+                    // Snapshot first: a change journaled after it cannot also be in the counts
+                    importRepo.startSnapshot();
+                    synchronized (lock) {
+                        journal = new Changes();
+                    }
+                    return read();
+                });
+            } catch (RuntimeException ex) {
+                synchronized (lock) {
+                    journal = null;
+                }
+                log.warn("Autocomplete index reload failed; keeping the current index", ex);
+                return;
+            } finally {
+                WorkloadContext.restore(previous);
+            }
+
+            int values = 0;
+            synchronized (lock) {
+                journal.applyTo(fresh);
+                journal = null;
+                index = fresh;
+            }
+            for (NavigableMap<String, Term> terms : fresh.values()) values += terms.size();
+            log.info("Autocomplete index loaded: {} values in {} ms", values,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    private Map<Field, NavigableMap<String, Term>> read() {
+        Map<Field, NavigableMap<String, Term>> fresh = new EnumMap<>(Field.class);
+        fresh.put(Field.BE_NO, terms(importRepo.countRowsPerBeNo()));
+        fresh.put(Field.DBK_PART_NO, terms(importRepo.countRowsPerDbkPartNo()));
+        fresh.put(Field.BOM_PART_NO, terms(importRepo.countRowsPerBomPartNo()));
+        fresh.put(Field.ITCHS_CODE, terms(importRepo.countRowsPerItchsCode()));
+        return fresh;
+    }
+
+    private static NavigableMap<String, Term> terms(List<Object[]> counts) {
+        NavigableMap<String, Term> terms = new ConcurrentSkipListMap<>();
+        for (Object[] row : counts) {
+            adjust(terms, (String) row[0], ((Number) row[1]).intValue());
+        }
+        return terms;
+    }
+
+    // Caller holds lock, or owns the map exclusively
+    private static void adjust(NavigableMap<String, Term> terms, String value, int delta) {
+        if (!StringUtils.hasText(value)) return;
+        String key = normalise(value);
+        Term term = terms.get(key);
+        int rows = (term == null ? 0 : term.rows) + delta;
+        if (rows <= 0) {
+            terms.remove(key);
+        } else if (term == null) {
+            terms.put(key, new Term(value.trim(), rows));
+        } else {
+            term.rows = rows;
+        }
+    }
+
+    // Same case folding as the list filter
+    private static String normalise(String s) {
+        return s.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Term {
+        private final String value;
+        private volatile int rows;
+
+        private Term(String value, int rows) {
+            this.value = value;
+            this.rows = rows;
+        }
+    }
+
+    // Net row count change per field and value
+    private static final class Changes {
+        private final Map<Field, Map<String, Integer>> deltas = new EnumMap<>(Field.class);
+
+        void add(Field field, String value, int delta) {
+            if (!StringUtils.hasText(value)) return;
+            deltas.computeIfAbsent(field, f -> new HashMap<>()).merge(value, delta, Integer::sum);
+        }
+
+        void addAll(Changes other) {
+            other.deltas.forEach((field, values) -> values.forEach((value, delta) -> add(field, value, delta)));
+        }
+
+        void applyTo(Map<Field, NavigableMap<String, Term>> index) {
+            deltas.forEach((field, values) -> {
+                NavigableMap<String, Term> terms = index.get(field);
+                values.forEach((value, delta) -> {
+                    if (delta != 0) adjust(terms, value, delta);
+                });
+            });
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.orpe.consultants.service.impl;
+
+import com.orpe.consultants.config.Workload;
+import com.orpe.consultants.dto.ImportDataDTO;
+import com.orpe.consultants.dto.ImportValidationReport;
+import com.orpe.consultants.exception.ImportValidationException;
+import com.orpe.consultants.exception.ResourceNotFoundException;
+import com.orpe.consultants.model.ImportBatch;
+import com.orpe.consultants.repository.ImportBatchRepository;
+import com.orpe.consultants.repository.ImportDataRepository;
+import com.orpe.consultants.service.ImportAutocompleteService;
+import com.orpe.consultants.service.ImportBatchService;
+import com.orpe.consultants.service.ImportDataService;
+import com.orpe.consultants.service.ReferenceDataService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Import batches. Every row of an upload carries its batch_id, so rolling
+ * back or replacing an upload is a loop of DELETE ... WHERE batch_id = ?
+ * LIMIT n statements on the batch_id index instead of one request per row.
+ * Each delete chunk commits on its own, keeping locks and undo small; the
+ * batch status records how far a rollback or replace got.
+ */
+@Service
+@Slf4j
+public class ImportBatchServiceImpl implements ImportBatchService {
+
+    private final ImportBatchRepository batchRepo;
+    private final ImportDataRepository importRepo;
+    private final ImportDataService importDataService;
+    private final ImportDataValidator validator;
+    private final ImportDataCountCache countCache;
+    private final ReferenceDataService referenceData;
+    private final ImportAutocompleteService autocomplete;
+    private final TransactionTemplate tx;
+    private final int chunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ImportBatchServiceImpl(
+            ImportBatchRepository batchRepo,
+            ImportDataRepository importRepo,
+            ImportDataService importDataService,
+            ImportDataValidator validator,
+            ImportDataCountCache countCache,
+            ReferenceDataService referenceData,
+            ImportAutocompleteService autocomplete,
+            PlatformTransactionManager transactionManager,
+            @Value("${orpe.import.batch.chunk-size:5000}") int chunkSize) {
+        this.batchRepo = batchRepo;
+        this.importRepo = importRepo;
+        this.importDataService = importDataService;
+        this.validator = validator;
+        this.countCache = countCache;
+        this.referenceData = referenceData;
+        this.autocomplete = autocomplete;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    @Override
+    @Workload(Workload.Type.BULK)
+    public ImportBatch saveBulk(List<ImportDataDTO> rows, String fileName, String username) {
+        // Reject the whole batch up front instead of failing mid-way through the inserts
+        ImportValidationReport report = importDataService.validateAll(rows);
+        if (!report.isValid()) throw new ImportValidationException(report);
+
+        String batchId = UUID.randomUUID().toString();
+        String hash = ImportCommitServiceImpl.batchHash(rows);
+        return tx.execute(status -> {
+            insert(rows, batchId);
+            return record(batchId, fileName, hash, rows.size(), username);
+        });
+    }
+
+    @Override
+    public ImportBatch record(String batchId, String fileName, String contentHash, int rowCount, String username) {
+        ImportBatch batch = ImportBatch.builder()
+            .batchId(batchId)
+            .status(ImportBatch.Status.ACTIVE)
+            .fileName(fileName)
+            .contentHash(contentHash)
+            .rowCount(rowCount)
+            .createdBy(username)
+            .build();
+        return batchRepo.save(batch);
+    }
+
+    @Override
+    @Workload(Workload.Type.BULK)
+    public ImportBatch rollback(String batchId) {
+        tx.executeWithoutResult(status -> {
+            ImportBatch batch = load(batchId);
+            if (batch.getStatus() != ImportBatch.Status.ACTIVE && batch.getStatus() != ImportBatch.Status.ROLLING_BACK) {
+                throw new IllegalStateException("Import batch " + batchId + " is " + batch.getStatus());
+            }
+            batch.setStatus(ImportBatch.Status.ROLLING_BACK);
+        });
+
+        int deleted = deleteRows(batchId);
+        ImportBatch done = tx.execute(status -> {
+            ImportBatch batch = load(batchId);
+            batch.setStatus(ImportBatch.Status.ROLLED_BACK);
+            return batch;
+        });
+        log.info("Import batch {} rolled back: {} rows deleted", batchId, deleted);
+        return done;
+    }
+
+    @Override
+    @Workload(Workload.Type.BULK)
+    public ImportBatch replace(String batchId, List<ImportDataDTO> rows, String fileName, String username) {
+        ImportBatch.Status current = load(batchId).getStatus();
+        if (current != ImportBatch.Status.ACTIVE && current != ImportBatch.Status.REPLACING) {
+            throw new IllegalStateException("Import batch " + batchId + " is " + current);
+        }
+        // Validate before touching the old rows, so a bad correction leaves the batch as it was
+        ImportDataValidator.Session session = validator.newReplaceSession(batchId);
+        session.validate(rows);
+        ImportValidationReport report = session.report();
+        if (!report.isValid()) throw new ImportValidationException(report);
+
+        String newBatchId = UUID.randomUUID().toString();
+        String hash = ImportCommitServiceImpl.batchHash(rows);
+        tx.executeWithoutResult(status -> {
+            // A concurrent replace of the same batch fails here on the version check
+            ImportBatch old = load(batchId);
+            old.setStatus(ImportBatch.Status.REPLACING);
+            old.setReplacedBy(newBatchId);
+        });
+
+        int deleted = deleteRows(batchId);
+        ImportBatch replacement = tx.execute(status -> {
+            insert(rows, newBatchId);
+            ImportBatch created = record(newBatchId, fileName, hash, rows.size(), username);
+            ImportBatch old = load(batchId);
+            old.setStatus(ImportBatch.Status.REPLACED);
+            old.setReplacedBy(newBatchId);
+            return created;
+        });
+        log.info("Import batch {} replaced by {}: {} rows deleted, {} saved", batchId, newBatchId, deleted, rows.size());
+        return replacement;
+    }
+
+    @Override
+    public Optional<ImportBatch> findBatch(String batchId) {
+        return batchRepo.findById(batchId);
+    }
+
+    @Override
+    public List<ImportBatch> findRecent(int limit) {
+        return batchRepo.findAllByOrderByCreatedAtDesc(PageRequest.of(0, Math.max(1, limit)));
+    }
+
+    @Override
+    public List<ImportBatch> findRecent(String username, int limit) {
+        return batchRepo.findAllByCreatedByOrderByCreatedAtDesc(username, PageRequest.of(0, Math.max(1, limit)));
+    }
+
+    // Saves in chunks inside the caller's transaction, keeping one chunk of entities in the persistence context
+    private void insert(List<ImportDataDTO> rows, String batchId) {
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            importDataService.saveValidated(rows.subList(from, Math.min(rows.size(), from + chunkSize)), batchId);
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    private int deleteRows(String batchId) {
+        int deleted = 0;
+        for (;;) {
+            Integer chunk = tx.execute(status -> importRepo.deleteBatchChunk(batchId, chunkSize));
+            if (chunk == null || chunk == 0) break;
+            deleted += chunk;
+        }
+        countCache.invalidateAll();
+        referenceData.evictReferenceLists();
+        autocomplete.refresh();
+        return deleted;
+    }
+
+    private ImportBatch load(String batchId) {
+        return batchRepo.findById(batchId)
+            .orElseThrow(() -> new ResourceNotFoundException("Import batch", "batchId", batchId));
+    }
+
+    // Hashes the upload while it is being read; see contentHash
+    static DigestInputStream digesting(InputStream in) {
+        try {
+            return new DigestInputStream(in, MessageDigest.getInstance("SHA-256"));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // SHA-256 of everything read through the stream so far
+    static String contentHash(DigestInputStream in) {
+        return HexFormat.of().formatHex(in.getMessageDigest().digest());
+    }
+}
@@ -0,0 +1,199 @@
+package com.orpe.consultants.service.impl;
+
+import com.orpe.consultants.config.Workload;
+import com.orpe.consultants.dto.ImportBulkEditRequest;
+import com.orpe.consultants.dto.ImportBulkEditResult;
+import com.orpe.consultants.dto.ImportBulkUpdate;
+import com.orpe.consultants.dto.ImportDataFilter;
+import com.orpe.consultants.model.ImportData;
+import com.orpe.consultants.repository.ImportDataRepository;
+import com.orpe.consultants.service.ImportAutocompleteService;
+import com.orpe.consultants.service.ImportBulkEditService;
+import com.orpe.consultants.service.ReferenceDataService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk delete and update of import rows as set-based statements.
+ *
+ * An id list is cut into chunks of chunkSize ids. A filter is walked by
+ * importId in keyset pages of chunkSize rows, each page selected and
+ * edited in one transaction; the page's BE date range is added to the
+ * statement so MySQL only touches the partitions involved. Keyset paging
+ * keeps going forward even when the update changes a filtered column.
+ * Filter values match literally ('%' and '_' are not wildcards here), and a
+ * delete by filter must quote the row count of its dry run.
+ */
+@Service
+@Slf4j
+@Workload(Workload.Type.BULK)
+public class ImportBulkEditServiceImpl implements ImportBulkEditService {
+
+    private final ImportDataRepository importRepo;
+    private final ImportDataCountCache countCache;
+    private final ReferenceDataService referenceData;
+    private final ImportAutocompleteService autocomplete;
+    private final TransactionTemplate tx;
+    private final int chunkSize;
+
+    public ImportBulkEditServiceImpl(
+            ImportDataRepository importRepo,
+            ImportDataCountCache countCache,
+            ReferenceDataService referenceData,
+            ImportAutocompleteService autocomplete,
+            PlatformTransactionManager transactionManager,
+            @Value("${orpe.import.bulk-edit.chunk-size:1000}") int chunkSize) {
+        this.importRepo = importRepo;
+        this.countCache = countCache;
+        this.referenceData = referenceData;
+        this.autocomplete = autocomplete;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    @Override
+    public ImportBulkEditResult delete(ImportBulkEditRequest request) {
+        if (request.getFilter() != null && !request.isDryRun() && request.getExpectedRows() == null) {
+            throw new IllegalArgumentException("A delete by filter needs expectedRows, the rowCount of its dry run");
+        }
+        ImportBulkEditResult result = run("delete", request, request.getExpectedRows(), importRepo::deleteChunk);
+        // Updates leave the autocomplete fields alone; deletes may remove their last rows
+        if (!result.isDryRun()) autocomplete.refresh();
+        return result;
+    }
+
+    @Override
+    public ImportBulkEditResult update(ImportBulkEditRequest request) {
+        ImportBulkUpdate changes = checkChanges(request.getSet());
+        LocalDateTime now = LocalDateTime.now();
+        return run("update", request, null, (ids, from, to) -> importRepo.updateChunk(ids, from, to, changes, now));
+    }
+
+    // maxRows: null for no confirmation, otherwise the dry-run count the caller saw
+    private ImportBulkEditResult run(String kind, ImportBulkEditRequest request, Long maxRows, ChunkStatement statement) {
+        long start = System.nanoTime();
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        if (byIds == (request.getFilter() != null)) {
+            throw new IllegalArgumentException("Give either ids or a filter");
+        }
+
+        long rows = 0;
+        int statements = 0;
+        if (byIds) {
+            List<Long> ids = new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + chunkSize));
+                if (request.isDryRun()) {
+                    rows += importRepo.countByImportIdIn(chunk);
+                } else {
+                    Integer n = tx.execute(status -> statement.execute(chunk, null, null));
+                    rows += n == null ? 0 : n;
+                    statements++;
+                }
+            }
+        } else {
+            Specification<ImportData> spec = ImportDataServiceImpl.buildSpecification(checkFilter(request.getFilter()), true);
+            if (request.isDryRun()) {
+                rows = importRepo.count(spec);
+            } else {
+                long limit = checkExpected(kind, spec, maxRows);
+                long[] lastId = {0};
+                while (rows < limit) {
+                    int pageSize = (int) Math.min(chunkSize, limit - rows);
+                    Integer n = tx.execute(status -> {
+                        List<Object[]> keys = importRepo.findKeysAfter(spec, lastId[0], pageSize);
+                        if (keys.isEmpty()) return null;
+                        List<Long> ids = new ArrayList<>(keys.size());
+                        LocalDate min = null;
+                        LocalDate max = null;
+                        for (Object[] key : keys) {
+                            ids.add((Long) key[0]);
+                            LocalDate beDate = (LocalDate) key[1];
+                            if (min == null || beDate.isBefore(min)) min = beDate;
+                            if (max == null || beDate.isAfter(max)) max = beDate;
+                        }
+                        lastId[0] = ids.get(ids.size() - 1);
+                        return statement.execute(ids, min, max);
+                    });
+                    if (n == null) break;
+                    rows += n;
+                    statements++;
+                }
+            }
+        }
+
+        if (!request.isDryRun()) {
+            countCache.invalidateAll();
+            referenceData.evictReferenceLists();
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Bulk {}{}: {} rows, {} statements in {} ms", kind, request.isDryRun() ? " (dry run)" : "",
+            rows, statements, elapsed);
+        return ImportBulkEditResult.builder()
+            .dryRun(request.isDryRun())
+            .rowCount(rows)
+            .statements(statements)
+            .elapsedMillis(elapsed)
+            .build();
+    }
+
+    // The filter must still match the rows the caller counted; returns how many rows the walk may touch
+    private long checkExpected(String kind, Specification<ImportData> spec, Long expected) {
+        if (expected == null) return Long.MAX_VALUE;
+        long matching = importRepo.count(spec);
+        if (matching != expected) {
+            throw new IllegalStateException("The filter matches " + matching + " rows, not the expected "
+                + expected + "; run the dry run again before the " + kind);
+        }
+        return expected;
+    }
+
+    // An empty filter would match the whole table
+    private static ImportDataFilter checkFilter(ImportDataFilter f) {
+        boolean any = StringUtils.hasText(f.getBeNo()) || StringUtils.hasText(f.getClaimYear())
+            || StringUtils.hasText(f.getSupplierNameAddress()) || StringUtils.hasText(f.getCountryOfOrigin())
+            || f.getBeDateFrom() != null || f.getBeDateTo() != null || f.getBeDate() != null
+            || StringUtils.hasText(f.getBomPartNo()) || StringUtils.hasText(f.getDbkPartNo())
+            || StringUtils.hasText(f.getItchsCode()) || StringUtils.hasText(f.getPortCode())
+            || StringUtils.hasText(f.getClaimRefNo()) || StringUtils.hasText(f.getStockWiseEligibility());
+        if (!any) throw new IllegalArgumentException("The filter needs at least one criterion");
+        return f;
+    }
+
+    // Same limits as the import validation, since bulk statements bypass bean validation
+    private static ImportBulkUpdate checkChanges(ImportBulkUpdate set) {
+        if (set == null || (set.getStockWiseEligibility() == null && set.getClaimYear() == null && set.getClaimRefNo() == null)) {
+            throw new IllegalArgumentException("Nothing to update");
+        }
+        return ImportBulkUpdate.builder()
+            .stockWiseEligibility(set.getStockWiseEligibility())
+            .claimYear(checkText("claimYear", set.getClaimYear(), 32))
+            .claimRefNo(checkText("claimRefNo", set.getClaimRefNo(), 100))
+            .build();
+    }
+
+    private static String checkText(String field, String value, int maxLength) {
+        if (value == null) return null;
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) throw new IllegalArgumentException(field + " must not be blank");
+        if (trimmed.length() > maxLength) throw new IllegalArgumentException(field + " is longer than " + maxLength + " characters");
+        return trimmed;
+    }
+
+    @FunctionalInterface
+    private interface ChunkStatement {
+        int execute(List<Long> ids, LocalDate beDateFrom, LocalDate beDateTo);
+    }
+}
@@ -0,0 +1,159 @@
+package com.orpe.consultants.service.impl;
+
+import com.orpe.consultants.config.Workload;
+import com.orpe.consultants.dto.ImportBulkLoadResult;
+import com.orpe.consultants.dto.ImportDataDTO;
+import com.orpe.consultants.dto.ImportValidationReport;
+import com.orpe.consultants.exception.FileProcessingException;
+import com.orpe.consultants.exception.ImportValidationException;
+import com.orpe.consultants.repository.ImportDataBulkLoader;
+import com.orpe.consultants.service.ImportAutocompleteService;
+import com.orpe.consultants.service.ImportBatchService;
+import com.orpe.consultants.service.ImportBulkLoadService;
+import com.orpe.consultants.service.ReferenceDataService;
+import com.orpe.consultants.utils.ImportDataExtractor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestInputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LOAD DATA bulk loads. Rows are validated in chunks while the workbook is
+ * parsed and written to the TSV; duplicate BE lines are found with SQL on
+ * the staging table instead of holding every line key in memory. Materials
+ * and import rows are merged in one transaction, together with the
+ * ImportBatch record and the caller's beforeCommit check; the load id
+ * doubles as the batch id.
+ */
+@Service
+@Slf4j
+@Workload(Workload.Type.BULK)
+public class ImportBulkLoadServiceImpl implements ImportBulkLoadService {
+
+    private static final int VALIDATE_CHUNK = 1000;
+
+    private final ImportDataExtractor extractor;
+    private final ImportDataValidator validator;
+    private final ImportDataBulkLoader bulkLoader;
+    private final ImportDataCountCache countCache;
+    private final ImportBatchService importBatchService;
+    private final ReferenceDataService referenceData;
+    private final ImportAutocompleteService autocomplete;
+    private final TransactionTemplate tx;
+
+    public ImportBulkLoadServiceImpl(
+            ImportDataExtractor extractor,
+            ImportDataValidator validator,
+            ImportDataBulkLoader bulkLoader,
+            ImportDataCountCache countCache,
+            ImportBatchService importBatchService,
+            ReferenceDataService referenceData,
+            ImportAutocompleteService autocomplete,
+            PlatformTransactionManager transactionManager) {
+        this.extractor = extractor;
+        this.validator = validator;
+        this.bulkLoader = bulkLoader;
+        this.countCache = countCache;
+        this.importBatchService = importBatchService;
+        this.referenceData = referenceData;
+        this.autocomplete = autocomplete;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public ImportBulkLoadResult load(InputStream workbook, String fileName, String username) {
+        return load(workbook, fileName, username, ImportBatchService.NewBatch.random());
+    }
+
+    @Override
+    public ImportBulkLoadResult load(InputStream workbook, String fileName, String username,
+                                     ImportBatchService.NewBatch batch) {
+        long start = System.nanoTime();
+        DigestInputStream in = ImportBatchServiceImpl.digesting(workbook);
+        ImportDataValidator.Session session = validator.newRowSession();
+        ImportValidationReport report = session.report();
+
+        try (ImportDataBulkLoader.Load load = bulkLoader.begin(batch.batchId())) {
+            List<ImportDataDTO> chunk = new ArrayList<>(VALIDATE_CHUNK);
+            try {
+                extractor.streamImportRows(in, row -> {
+                    chunk.add(row);
+                    if (chunk.size() == VALIDATE_CHUNK) write(session, chunk, load);
+                });
+                // The content hash covers the whole upload, not just what the parser read
+                in.transferTo(OutputStream.nullOutputStream());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } catch (Exception e) {
+                throw new FileProcessingException("Failed to parse import workbook: " + e.getMessage(), e);
+            }
+            write(session, chunk, load);
+            if (!report.isValid()) throw new ImportValidationException(report);
+            long parsed = System.nanoTime();
+
+            int staged = load.load();
+            long loaded = System.nanoTime();
+
+            load.findDuplicates((line, beNo, firstLine) -> report.reject(line, beNo, "beNo",
+                firstLine == null ? "BE line already exists in the database" : "Duplicate BE line, same as row " + firstLine));
+            if (!report.isValid()) throw new ImportValidationException(report);
+
+            String batchId = load.getLoadId();
+            String hash = ImportBatchServiceImpl.contentHash(in);
+            int[] merged = tx.execute(status -> {
+                int materials = load.mergeMaterials();
+                int inserted = load.mergeRows(LocalDateTime.now(), batchId);
+                importBatchService.record(batchId, fileName, hash, inserted, username);
+                batch.beforeCommit().accept(inserted);
+                return new int[] {materials, inserted};
+            });
+            countCache.invalidateAll();
+            referenceData.evictReferenceLists();
+            autocomplete.refresh();
+            long done = System.nanoTime();
+
+            ImportBulkLoadResult result = ImportBulkLoadResult.builder()
+                .batchId(batchId)
+                .rowCount(staged)
+                .newMaterials(merged[0])
+                .insertedCount(merged[1])
+                .parseMillis(TimeUnit.NANOSECONDS.toMillis(parsed - start))
+                .loadMillis(TimeUnit.NANOSECONDS.toMillis(loaded - parsed))
+                .mergeMillis(TimeUnit.NANOSECONDS.toMillis(done - loaded))
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(done - start))
+                .build();
+            log.info("Bulk load {}: {} rows, {} new materials in {} ms (parse {} ms, load {} ms, merge {} ms)",
+                load.getLoadId(), result.getInsertedCount(), result.getNewMaterials(), result.getElapsedMillis(),
+                result.getParseMillis(), result.getLoadMillis(), result.getMergeMillis());
+            return result;
+        } catch (IOException e) {
+            throw new FileProcessingException("Bulk load file error: " + e.getMessage(), e);
+        }
+    }
+
+    // Validates the chunk and, while the load is still clean, appends it to the TSV
+    private static void write(ImportDataValidator.Session session, List<ImportDataDTO> chunk, ImportDataBulkLoader.Load load) {
+        if (chunk.isEmpty()) return;
+        session.validate(chunk);
+        if (session.report().isValid()) {
+            try {
+                for (ImportDataDTO row : chunk) {
+                    load.add(row);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        chunk.clear();
+    }
+}
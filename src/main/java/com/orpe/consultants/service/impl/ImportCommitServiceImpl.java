@@ -0,0 +1,219 @@
+package com.orpe.consultants.service.impl;
+
+import com.orpe.consultants.config.Workload;
+import com.orpe.consultants.dto.ImportDataDTO;
+import com.orpe.consultants.dto.ImportValidationReport;
+import com.orpe.consultants.exception.ImportValidationException;
+import com.orpe.consultants.exception.ResourceNotFoundException;
+import com.orpe.consultants.model.ImportBatch;
+import com.orpe.consultants.model.ImportCommitJob;
+import com.orpe.consultants.repository.ImportBatchRepository;
+import com.orpe.consultants.repository.ImportCommitJobRepository;
+import com.orpe.consultants.service.ImportBatchService;
+import com.orpe.consultants.service.ImportCommitService;
+import com.orpe.consultants.service.ImportDataService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Chunked bulk commit. Not transactional itself: every chunk runs in its own
+ * TransactionTemplate transaction, together with the job's committedRows
+ * update, so locks and undo are held for one chunk at a time and a failure
+ * only rolls back the chunk in flight.
+ *
+ * The job id doubles as the ImportBatch id of the rows, so a job, even a
+ * FAILED one, can be rolled back as a whole. Once the batch has left ACTIVE
+ * the job cannot resume, and every chunk checks the batch status and bumps
+ * its version, so a chunk in flight during a rollback or replace either
+ * commits before the status change (and is deleted with the batch) or fails.
+ */
+@Service
+@Slf4j
+public class ImportCommitServiceImpl implements ImportCommitService {
+
+    private final ImportDataService importDataService;
+    private final ImportBatchService importBatchService;
+    private final ImportDataValidator validator;
+    private final ImportCommitJobRepository jobRepo;
+    private final ImportBatchRepository batchRepo;
+    private final TransactionTemplate tx;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final Duration staleAfter;
+
+    public ImportCommitServiceImpl(
+            ImportDataService importDataService,
+            ImportBatchService importBatchService,
+            ImportDataValidator validator,
+            ImportCommitJobRepository jobRepo,
+            ImportBatchRepository batchRepo,
+            PlatformTransactionManager transactionManager,
+            @Value("${orpe.import.commit.chunk-size:1000}") int chunkSize,
+            @Value("${orpe.import.commit.pause-ms:0}") long pauseMillis,
+            @Value("${orpe.import.commit.stale-after-minutes:10}") long staleAfterMinutes) {
+        this.importDataService = importDataService;
+        this.importBatchService = importBatchService;
+        this.validator = validator;
+        this.jobRepo = jobRepo;
+        this.batchRepo = batchRepo;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.pauseMillis = pauseMillis;
+        this.staleAfter = Duration.ofMinutes(staleAfterMinutes);
+    }
+
+    @Override
+    @Workload(Workload.Type.BULK)
+    public ImportCommitJob commit(List<ImportDataDTO> rows, String jobId, String username) {
+        String hash = batchHash(rows);
+        ImportCommitJob job = jobId == null ? start(rows, hash, username) : resume(jobId, hash, rows);
+        if (job.getStatus() == ImportCommitJob.Status.COMPLETED) return job;
+
+        String id = job.getJobId();
+        int done = job.getCommittedRows();
+        log.info("Import commit {}: rows {}..{} in chunks of {}", id, done, rows.size(), job.getChunkSize());
+        while (done < rows.size()) {
+            int end = Math.min(rows.size(), done + job.getChunkSize());
+            List<ImportDataDTO> chunk = rows.subList(done, end);
+            boolean last = end == rows.size();
+            try {
+                // Rows and checkpoint commit together, so committedRows never runs ahead of the data
+                job = tx.execute(status -> {
+                    requireActive(batchRepo.findAndBumpVersion(id), id);
+                    importDataService.saveValidated(chunk, id);
+                    ImportCommitJob current = load(id);
+                    current.setCommittedRows(end);
+                    if (last) current.setStatus(ImportCommitJob.Status.COMPLETED);
+                    return current;
+                });
+            } catch (RuntimeException ex) {
+                return fail(id, ex);
+            }
+            done = end;
+            if (!last) pause();
+        }
+        log.info("Import commit {} completed: {} rows", id, rows.size());
+        return job;
+    }
+
+    // Optional breather between chunks so list queries and other writers get the table
+    private void pause() {
+        if (pauseMillis <= 0) return;
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public Optional<ImportCommitJob> findJob(String jobId) {
+        return jobRepo.findById(jobId);
+    }
+
+    private ImportCommitJob start(List<ImportDataDTO> rows, String hash, String username) {
+        // Whole batch up front, so a bad row never leaves a partial job behind
+        ImportValidationReport report = importDataService.validateAll(rows);
+        if (!report.isValid()) throw new ImportValidationException(report);
+
+        ImportCommitJob job = ImportCommitJob.builder()
+            .jobId(UUID.randomUUID().toString())
+            .status(rows.isEmpty() ? ImportCommitJob.Status.COMPLETED : ImportCommitJob.Status.RUNNING)
+            .batchHash(hash)
+            .totalRows(rows.size())
+            .committedRows(0)
+            .chunkSize(chunkSize)
+            .createdBy(username)
+            .build();
+        return tx.execute(status -> {
+            importBatchService.record(job.getJobId(), null, hash, rows.size(), username);
+            return jobRepo.save(job);
+        });
+    }
+
+    private ImportCommitJob resume(String jobId, String hash, List<ImportDataDTO> rows) {
+        return tx.execute(status -> {
+            ImportCommitJob job = load(jobId);
+            if (!job.getBatchHash().equals(hash) || job.getTotalRows() != rows.size()) {
+                throw new IllegalArgumentException("Rows differ from the batch of import job " + jobId);
+            }
+            // A RUNNING job without a checkpoint for a while was cut off by a restart
+            boolean stale = job.getUpdatedAt() != null && job.getUpdatedAt().isBefore(LocalDateTime.now().minus(staleAfter));
+            if (job.getStatus() == ImportCommitJob.Status.RUNNING && !stale) {
+                throw new IllegalStateException("Import job " + jobId + " is already running");
+            }
+            if (job.getStatus() != ImportCommitJob.Status.COMPLETED) {
+                // Resuming into a rolled back or replaced batch would bring its rows back
+                requireActive(batchRepo.findById(jobId), jobId);
+                // The hash only covers the line keys and quantities, so the resent rows are checked again;
+                // the committed rows of this job's own batch do not count as duplicates
+                ImportDataValidator.Session session = validator.newReplaceSession(jobId);
+                session.validate(rows);
+                if (!session.report().isValid()) throw new ImportValidationException(session.report());
+                // The version check makes a concurrent second resume fail on commit
+                job.setStatus(ImportCommitJob.Status.RUNNING);
+                job.setLastError(null);
+            }
+            return job;
+        });
+    }
+
+    private ImportCommitJob fail(String jobId, RuntimeException ex) {
+        log.error("Import commit {} failed", jobId, ex);
+        String message = String.valueOf(NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+        String lastError = message.length() > 1000 ? message.substring(0, 1000) : message;
+        return tx.execute(status -> {
+            ImportCommitJob job = load(jobId);
+            job.setStatus(ImportCommitJob.Status.FAILED);
+            job.setLastError(lastError);
+            return job;
+        });
+    }
+
+    private static void requireActive(Optional<ImportBatch> batch, String batchId) {
+        ImportBatch.Status status = batch
+            .orElseThrow(() -> new ResourceNotFoundException("Import batch", "batchId", batchId))
+            .getStatus();
+        if (status != ImportBatch.Status.ACTIVE) {
+            throw new IllegalStateException("Import batch " + batchId + " is " + status);
+        }
+    }
+
+    private ImportCommitJob load(String jobId) {
+        return jobRepo.findById(jobId)
+            .orElseThrow(() -> new ResourceNotFoundException("Import job", "jobId", jobId));
+    }
+
+    // Line keys and quantities of all rows, in order
+    static String batchHash(List<ImportDataDTO> rows) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder sb = new StringBuilder(128);
+            for (ImportDataDTO r : rows) {
+                sb.setLength(0);
+                sb.append(r.getBeNo()).append('|').append(r.getBeDate()).append('|')
+                  .append(r.getBomPartNo()).append('|').append(r.getItemDescription()).append('|')
+                  .append(r.getQuantity() == null ? null : r.getQuantity().stripTrailingZeros().toPlainString())
+                  .append('\n');
+                digest.update(sb.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.orpe.consultants.service.impl;
+
+import com.orpe.consultants.dto.ImportDataFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches COUNT(*) results of ImportData searches keyed by the normalised
+ * filter. Every write to tbl_import_data clears the cache; entries also
+ * expire after a TTL so writes made by other nodes show up eventually.
+ */
+@Component
+public class ImportDataCountCache {
+
+    private final Map<String, Entry> entries;
+    private final AtomicLong generation = new AtomicLong();
+    private final long ttlMillis;
+
+    public ImportDataCountCache(
+            @Value("${orpe.import.count-cache.max-entries:512}") int maxEntries,
+            @Value("${orpe.import.count-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public long get(ImportDataFilter filter, LongSupplier counter) {
+        String key = keyOf(filter);
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry e = entries.get(key);
+            if (e != null && now - e.createdAt < ttlMillis) return e.count;
+        }
+
+        // Count outside the lock; drop the result if a write happened meanwhile
+        long gen = generation.get();
+        long count = counter.getAsLong();
+        synchronized (entries) {
+            if (generation.get() == gen) entries.put(key, new Entry(count, now));
+        }
+        return count;
+    }
+
+    public void invalidateAll() {
+        clear();
+        // Clear again on commit so counts taken before the commit became visible are not kept
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        }
+    }
+
+    private void clear() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    // Same normalisation buildSpecification applies, so equivalent filters share an entry
+    static String keyOf(ImportDataFilter f) {
+        if (f == null) return "";
+        StringBuilder sb = new StringBuilder(64);
+        append(sb, "beNo", lower(f.getBeNo()));
+        append(sb, "claimYear", StringUtils.hasText(f.getClaimYear()) ? f.getClaimYear() : null);
+        append(sb, "supplier", lower(f.getSupplierNameAddress()));
+        append(sb, "country", lower(f.getCountryOfOrigin()));
+        append(sb, "from", f.getBeDateFrom());
+        append(sb, "to", f.getBeDateTo());
+        append(sb, "beDate", f.getBeDate());
+        append(sb, "bom", lower(f.getBomPartNo()));
+        append(sb, "dbk", lower(f.getDbkPartNo()));
+        append(sb, "hs", lower(f.getItchsCode()));
+        append(sb, "port", lowerTrimmed(f.getPortCode()));
+        append(sb, "claimRef", lower(f.getClaimRefNo()));
+        append(sb, "elig", lowerTrimmed(f.getStockWiseEligibility()));
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, String name, Object value) {
+        if (value != null) sb.append(name).append('=').append(value).append('|');
+    }
+
+    private static String lower(String s) {
+        return StringUtils.hasText(s) ? s.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String lowerTrimmed(String s) {
+        return StringUtils.hasText(s) ? s.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    private record Entry(long count, long createdAt) { }
+}
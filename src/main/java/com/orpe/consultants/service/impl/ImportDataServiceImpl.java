@@ -2,19 +2,26 @@ package com.orpe.consultants.service.impl;
 
 import com.orpe.consultants.dto.ImportDataDTO;
 import com.orpe.consultants.dto.ImportDataFilter;
+import com.orpe.consultants.dto.ImportValidationReport;
+import com.orpe.consultants.dto.StockWiseEligibility;
+import com.orpe.consultants.exception.ImportValidationException;
 import com.orpe.consultants.model.ImportData;
 import com.orpe.consultants.model.Material;
 import com.orpe.consultants.repository.ImportDataRepository;
-import com.orpe.consultants.repository.MaterialRepository;
+import com.orpe.consultants.service.ImportAutocompleteService;
 import com.orpe.consultants.service.ImportDataService;
+import com.orpe.consultants.service.ReferenceDataService;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
@@ -22,39 +29,53 @@ import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Writes run in read-write transactions. Browsing (find, search, count,
+ * export) is read-only: Hibernate skips dirty checking and snapshots, and
+ * with a replica configured the work goes to the replica pool (see
+ * ReadWriteDataSourceConfig). Validation stays on the primary, since its
+ * duplicate check must see rows committed a moment ago.
+ */
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ImportDataServiceImpl implements ImportDataService {
 
-  private final MaterialRepository materialRepo;
   private final ImportDataRepository importRepo;
+  private final ReferenceDataService referenceData;
   private final ModelMapper modelMapper;
+  private final ImportDataCountCache countCache;
+  private final ImportDataValidator validator;
+  private final ImportAutocompleteService autocomplete;
 
   @Override
   public int saveBulk(List<ImportDataDTO> rows) {
+    // Reject the whole batch up front instead of failing mid-way through the inserts
+    ImportValidationReport report = validator.validate(rows);
+    if (!report.isValid()) throw new ImportValidationException(report);
+    return saveValidated(rows);
+  }
+
+  @Override
+  public int saveValidated(List<ImportDataDTO> rows) {
+    return saveValidated(rows, null);
+  }
+
+  @Override
+  public int saveValidated(List<ImportDataDTO> rows, String batchId) {
     int saved = 0;
-    Map<String, Material> cache = new HashMap<>();
 
     for (ImportDataDTO dto : rows) {
-      Material mat = null;
-      if (dto.getBomPartNo() != null && !dto.getBomPartNo().isBlank()) {
-        String key = dto.getBomPartNo().trim();
-        mat = cache.get(key);
-        if (mat == null) {
-          mat = materialRepo.findById(key).orElseGet(() ->
-              materialRepo.save(Material.builder().bomPartNo(key).build())
-          );
-          cache.put(key, mat);
-        }
-      }
-
       ImportData entity = dtoToEntity(dto);
-      entity.setMaterial(mat);
+      entity.setMaterial(resolveMaterial(dto));
+      entity.setBatchId(batchId);
 
       importRepo.save(entity);
+      autocomplete.added(entity);
       saved++;
     }
+    countCache.invalidateAll();
+    referenceData.evictReferenceLists();
     return saved;
   }
 
@@ -62,31 +83,39 @@ public class ImportDataServiceImpl implements ImportDataService {
   public ImportDataDTO save(ImportDataDTO dto) {
     validate(dto);
 
-    Material mat = null;
-    if (dto.getBomPartNo() != null && !dto.getBomPartNo().isBlank()) {
-      String key = dto.getBomPartNo().trim();
-      mat = materialRepo.findById(key).orElseGet(() ->
-          materialRepo.save(Material.builder().bomPartNo(key).build())
-      );
-    }
     ImportData entity = dtoToEntity(dto);
-    entity.setMaterial(mat);
+    entity.setMaterial(resolveMaterial(dto));
+    // An edited row stays in its import batch; the DTO does not carry the batch id
+    if (dto.getImportId() != null) {
+      importRepo.findById(dto.getImportId()).ifPresent(stored -> {
+        entity.setBatchId(stored.getBatchId());
+        autocomplete.removed(stored);
+      });
+    }
 
     ImportData saved = importRepo.save(entity);
+    autocomplete.added(saved);
+    countCache.invalidateAll();
+    referenceData.evictReferenceLists();
     return entityToDto(saved);
   }
 
   @Override
+  @Transactional(readOnly = true)
   public Optional<ImportDataDTO> findById(Long importId) {
     return importRepo.findById(importId).map(this::entityToDto);
   }
 
   @Override
   public void deleteById(Long importId) {
-    importRepo.deleteById(importId);
+    // The stored values are needed for the autocomplete index; the DELETE itself is one statement
+    importRepo.findById(importId).ifPresent(autocomplete::removed);
+    importRepo.deleteChunk(List.of(importId), null, null);
+    countCache.invalidateAll();
   }
 
   @Override
+  @Transactional(readOnly = true)
   public List<ImportDataDTO> findAll() {
     return importRepo.findAll().stream()
       .map(this::entityToDto)
@@ -94,13 +123,23 @@ public class ImportDataServiceImpl implements ImportDataService {
   }
 
   @Override
+  @Transactional(readOnly = true)
   public Page<ImportDataDTO> search(ImportDataFilter filter, Pageable pageable) {
     Specification<ImportData> spec = buildSpecification(filter);
-    Page<ImportData> page = importRepo.findAll(spec, pageable);
-    return page.map(this::entityToDto);
+    List<ImportDataDTO> content = importRepo.findSlice(spec, pageable).map(this::entityToDto).getContent();
+    // Count only when the total can't be derived from this page, and then from the cache
+    return PageableExecutionUtils.getPage(content, pageable,
+        () -> countCache.get(filter, () -> importRepo.count(spec)));
   }
 
   @Override
+  @Transactional(readOnly = true)
+  public Slice<ImportDataDTO> searchSlice(ImportDataFilter filter, Pageable pageable) {
+    return importRepo.findSlice(buildSpecification(filter), pageable).map(this::entityToDto);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
   public byte[] exportData(ImportDataFilter filter) {
     // TODO: implement export logic (CSV or Excel)
     List<ImportData> list = importRepo.findAll(buildSpecification(filter));
@@ -128,8 +167,19 @@ public class ImportDataServiceImpl implements ImportDataService {
   }
 
   @Override
+  public ImportValidationReport validateAll(List<ImportDataDTO> rows) {
+    return validator.validate(rows);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
   public long count(ImportDataFilter filter) {
-    return importRepo.count(buildSpecification(filter));
+    return countCache.get(filter, () -> importRepo.count(buildSpecification(filter)));
+  }
+
+  private Material resolveMaterial(ImportDataDTO dto) {
+    if (dto.getBomPartNo() == null || dto.getBomPartNo().isBlank()) return null;
+    return referenceData.resolveMaterial(dto.getBomPartNo().trim());
   }
 
   private ImportData dtoToEntity(ImportDataDTO dto) {
@@ -138,59 +188,88 @@ public class ImportDataServiceImpl implements ImportDataService {
     return entity;
   }
 
+  // Reads bom_part_no from the entity's own column; never touches the lazy
+  // Material association, so mapping a page costs no extra selects.
   private ImportDataDTO entityToDto(ImportData entity) {
     ImportDataDTO dto = modelMapper.map(entity, ImportDataDTO.class);
-    if (entity.getMaterial() != null) {
-      dto.setBomPartNo(entity.getMaterial().getBomPartNo());
-    }
+    dto.setBomPartNo(entity.getBomPartNo());
     return dto;
   }
 
-  private Specification<ImportData> buildSpecification(ImportDataFilter filter) {
+  static Specification<ImportData> buildSpecification(ImportDataFilter filter) {
+    return buildSpecification(filter, false);
+  }
+
+  // Also used by the bulk edit service with literal set: there % and _ in a
+  // filter value match only themselves, so "%" cannot select the whole table
+  static Specification<ImportData> buildSpecification(ImportDataFilter filter, boolean literal) {
     return (root, query, cb) -> {
       List<Predicate> predicates = new ArrayList<>();
 
       if (StringUtils.hasText(filter.getBeNo())) {
-        predicates.add(cb.like(cb.lower(root.get("beNo")), "%" + filter.getBeNo().toLowerCase() + "%"));
+        predicates.add(contains(cb, cb.lower(root.get("beNo")), filter.getBeNo().toLowerCase(), literal));
       }
       if (StringUtils.hasText(filter.getClaimYear())) {
         predicates.add(cb.equal(root.get("claimYear"), filter.getClaimYear()));
       }
       if (StringUtils.hasText(filter.getSupplierNameAddress())) {
-        predicates.add(cb.like(cb.lower(root.get("supplierNameAddress")), "%" + filter.getSupplierNameAddress().toLowerCase() + "%"));
+        predicates.add(contains(cb, cb.lower(root.get("supplierNameAddress")), filter.getSupplierNameAddress().toLowerCase(), literal));
       }
       if (StringUtils.hasText(filter.getCountryOfOrigin())) {
-        predicates.add(cb.like(cb.lower(root.get("countryOfOrigin")), "%" + filter.getCountryOfOrigin().toLowerCase() + "%"));
+        predicates.add(contains(cb, cb.lower(root.get("countryOfOrigin")), filter.getCountryOfOrigin().toLowerCase(), literal));
       }
       if (filter.getBeDateFrom() != null) {
         predicates.add(cb.greaterThanOrEqualTo(root.get("beDate"), filter.getBeDateFrom()));
       }
+      if (filter.getBeDateTo() != null) {
+        predicates.add(cb.lessThanOrEqualTo(root.get("beDate"), filter.getBeDateTo()));
+      }
       if (filter.getBeDate() != null) {
     	  predicates.add(cb.equal(root.get("beDate"), filter.getBeDate()));
       }
       if (StringUtils.hasText(filter.getBomPartNo())) {
-        predicates.add(cb.like(cb.lower(root.get("bomPartNo")), "%" + filter.getBomPartNo().toLowerCase() + "%"));
+        predicates.add(contains(cb, cb.lower(root.get("bomPartNo")), filter.getBomPartNo().toLowerCase(), literal));
       }
       if (StringUtils.hasText(filter.getDbkPartNo())) {
-        predicates.add(cb.like(cb.lower(root.get("dbkPartNo")), "%" + filter.getDbkPartNo().toLowerCase() + "%"));
+        predicates.add(contains(cb, cb.lower(root.get("dbkPartNo")), filter.getDbkPartNo().toLowerCase(), literal));
       }
       if (StringUtils.hasText(filter.getItchsCode())) {
-        predicates.add(cb.like(cb.lower(root.get("itchsCode")), "%" + filter.getItchsCode().toLowerCase() + "%"));
+        predicates.add(contains(cb, cb.lower(root.get("itchsCode")), filter.getItchsCode().toLowerCase(), literal));
       }
       if (StringUtils.hasText(filter.getPortCode())) {
-        predicates.add(cb.like(cb.lower(root.get("portCode")), "%" + filter.getPortCode().toLowerCase() + "%"));
+        // Prefix match on the raw column (case-insensitive collation) so idx_import_port_code_be_date applies
+        predicates.add(startsWith(cb, root.get("portCode"), filter.getPortCode().trim(), literal));
       }
       if (StringUtils.hasText(filter.getClaimRefNo())) {
-        predicates.add(cb.like(cb.lower(root.get("claimRefNo")), "%" + filter.getClaimRefNo().toLowerCase() + "%"));
+        predicates.add(contains(cb, cb.lower(root.get("claimRefNo")), filter.getClaimRefNo().toLowerCase(), literal));
       }
       if (StringUtils.hasText(filter.getStockWiseEligibility())) {
-        predicates.add(cb.equal(root.get("stockWiseEligibility"), filter.getStockWiseEligibility()));
+        predicates.add(cb.equal(root.get("stockWiseEligibility"),
+            StockWiseEligibility.valueOf(filter.getStockWiseEligibility().trim().toUpperCase())));
       }
 
       return cb.and(predicates.toArray(new Predicate[0]));
     };
   }
 
+  private static Predicate contains(CriteriaBuilder cb, Expression<String> column, String value, boolean literal) {
+    return literal ? cb.like(column, "%" + escapeLike(value) + "%", '\\') : cb.like(column, "%" + value + "%");
+  }
+
+  private static Predicate startsWith(CriteriaBuilder cb, Expression<String> column, String value, boolean literal) {
+    return literal ? cb.like(column, escapeLike(value) + "%", '\\') : cb.like(column, value + "%");
+  }
+
+  private static String escapeLike(String value) {
+    StringBuilder sb = new StringBuilder(value.length() + 8);
+    for (int i = 0; i < value.length(); i++) {
+      char ch = value.charAt(i);
+      if (ch == '%' || ch == '_' || ch == '\\') sb.append('\\');
+      sb.append(ch);
+    }
+    return sb.toString();
+  }
+
   private static String trim(String s) { return s == null ? null : s.trim(); }
   private static String req(String s) {
     if (s == null || s.trim().isEmpty()) throw new IllegalArgumentException("Required field missing");
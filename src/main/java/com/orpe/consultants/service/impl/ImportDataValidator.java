@@ -0,0 +1,259 @@
+package com.orpe.consultants.service.impl;
+
+import com.orpe.consultants.dto.ImportDataDTO;
+import com.orpe.consultants.dto.ImportValidationReport;
+import com.orpe.consultants.repository.ImportDataRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Checks a whole batch of import rows before anything is written: required
+ * columns, column lengths, positive quantities, duty totals and duplicate BE
+ * lines (within the batch and against tbl_import_data). Problems are
+ * collected into an ImportValidationReport; nothing is thrown per row.
+ *
+ * A BE line is identified by BE no, BE date, BOM part no and item
+ * description, compared trimmed and case-insensitively.
+ */
+@Component
+public class ImportDataValidator {
+
+    // BE numbers per duplicate lookup, so the IN list stays index friendly
+    private static final int LOOKUP_CHUNK = 1000;
+
+    private final ImportDataRepository importRepo;
+    private final BigDecimal dutyTolerance;
+    private final int maxErrors;
+
+    public ImportDataValidator(
+            ImportDataRepository importRepo,
+            @Value("${orpe.import.validation.duty-tolerance:1.00}") BigDecimal dutyTolerance,
+            @Value("${orpe.import.validation.max-errors:1000}") int maxErrors) {
+        this.importRepo = importRepo;
+        this.dutyTolerance = dutyTolerance;
+        this.maxErrors = maxErrors;
+    }
+
+    public ImportValidationReport validate(List<ImportDataDTO> rows) {
+        Session session = newSession();
+        session.validate(rows);
+        return session.report();
+    }
+
+    /**
+     * Starts validating a batch that arrives in chunks. Row numbers continue
+     * from one chunk to the next and duplicate BE lines are found across
+     * chunks, so the final report matches validate() on the whole batch.
+     */
+    public Session newSession() {
+        return new Session(true, null);
+    }
+
+    /**
+     * Like newSession(), for rows that are about to replace an import batch:
+     * stored rows of that batch do not count as duplicates.
+     */
+    public Session newReplaceSession(String replacedBatchId) {
+        return new Session(true, replacedBatchId);
+    }
+
+    /**
+     * Like newSession(), but only with the per-row checks, for callers that
+     * look for duplicate BE lines themselves (e.g. set-based after a bulk
+     * load).
+     */
+    public Session newRowSession() {
+        return new Session(false, null);
+    }
+
+    /**
+     * Incremental validation of one batch. Not thread-safe.
+     *
+     * Lines seen in earlier chunks are remembered as 64-bit hashes (about 16
+     * bytes per row), not as strings, so a streamed batch of millions of rows
+     * does not keep its item descriptions alive.
+     */
+    public final class Session {
+
+        private final ImportValidationReport report = new ImportValidationReport(0, maxErrors);
+        private final LineIndex firstRowByLine = new LineIndex();
+        private final boolean duplicates;
+        private final String replacedBatchId;
+
+        private Session(boolean duplicates, String replacedBatchId) {
+            this.duplicates = duplicates;
+            this.replacedBatchId = replacedBatchId;
+        }
+
+        /**
+         * Validates the next chunk of the batch.
+         * @return true when the chunk added no errors
+         */
+        public boolean validate(List<ImportDataDTO> rows) {
+            int offset = report.getRowCount();
+            int errorsBefore = report.getErrorCount();
+            report.addRows(rows.size());
+            // Only lines first seen in this chunk need the database lookup
+            Map<String, Integer> newLines = new HashMap<>(rows.size() * 2);
+
+            for (int i = 0; i < rows.size(); i++) {
+                ImportDataDTO r = rows.get(i);
+                int row = offset + i + 1;
+                String beNo = r.getBeNo();
+
+                required(report, row, beNo, "beNo", beNo, 100);
+                if (r.getBeDate() == null) report.reject(row, beNo, "beDate", "BE Date is required");
+                required(report, row, beNo, "claimRefNo", r.getClaimRefNo(), 100);
+                required(report, row, beNo, "claimYear", r.getClaimYear(), 32);
+                required(report, row, beNo, "itemDescription", r.getItemDescription(), 600);
+                required(report, row, beNo, "uom", r.getUom(), 100);
+                maxLength(report, row, beNo, "bomPartNo", r.getBomPartNo(), 50);
+
+                if (r.getQuantity() == null || r.getQuantity().signum() <= 0) {
+                    report.reject(row, beNo, "quantity", "Quantity must be positive");
+                }
+                if (r.getAssessableValue() == null) {
+                    report.reject(row, beNo, "assessableValue", "Assessable value is required");
+                } else if (r.getAssessableValue().signum() < 0) {
+                    report.reject(row, beNo, "assessableValue", "Assessable value must not be negative");
+                }
+                checkDutyTotal(report, row, r);
+
+                if (duplicates && StringUtils.hasText(beNo) && r.getBeDate() != null) {
+                    String key = lineKey(beNo, r.getBeDate(), r.getBomPartNo(), r.getItemDescription());
+                    int first = firstRowByLine.putIfAbsent(hash(key), row);
+                    if (first != 0) {
+                        report.reject(row, beNo, "beNo", "Duplicate BE line, same as row " + first);
+                    } else {
+                        newLines.put(key, row);
+                    }
+                }
+            }
+
+            checkStoredDuplicates(report, newLines, replacedBatchId);
+            return report.getErrorCount() == errorsBefore;
+        }
+
+        public ImportValidationReport report() {
+            return report;
+        }
+    }
+
+    // Total duty must match BCD + SWS + ADD + IGST within the rounding tolerance
+    private void checkDutyTotal(ImportValidationReport report, int row, ImportDataDTO r) {
+        BigDecimal total = r.getTotalDuty();
+        if (total == null) return;
+        if (r.getBcd() == null && r.getSws() == null && r.getAddDuty() == null && r.getIgst() == null) return;
+
+        BigDecimal sum = nz(r.getBcd()).add(nz(r.getSws())).add(nz(r.getAddDuty())).add(nz(r.getIgst()));
+        if (sum.subtract(total).abs().compareTo(dutyTolerance) > 0) {
+            report.reject(row, r.getBeNo(), "totalDuty",
+                "Total duty " + total.toPlainString() + " does not match BCD + SWS + ADD + IGST = " + sum.toPlainString());
+        }
+    }
+
+    // One query per LOOKUP_CHUNK BE numbers instead of one per row
+    private void checkStoredDuplicates(ImportValidationReport report, Map<String, Integer> firstRowByLine, String replacedBatchId) {
+        if (firstRowByLine.isEmpty()) return;
+
+        Set<String> beNos = new LinkedHashSet<>();
+        for (String key : firstRowByLine.keySet()) {
+            beNos.add(key.substring(0, key.indexOf('\u0000')));
+        }
+        // Keys are lower-cased; the column collation is case-insensitive, so the IN list still matches
+        List<String> all = new ArrayList<>(beNos);
+        for (int from = 0; from < all.size(); from += LOOKUP_CHUNK) {
+            List<String> chunk = all.subList(from, Math.min(all.size(), from + LOOKUP_CHUNK));
+            for (Object[] stored : importRepo.findLineKeysByBeNoIn(chunk)) {
+                // Rows of the batch being replaced are deleted before the new rows go in
+                if (replacedBatchId != null && replacedBatchId.equals(stored[4])) continue;
+                String key = lineKey((String) stored[0], (LocalDate) stored[1], (String) stored[2], (String) stored[3]);
+                Integer row = firstRowByLine.get(key);
+                if (row != null) {
+                    report.reject(row, (String) stored[0], "beNo", "BE line already exists in the database");
+                }
+            }
+        }
+    }
+
+    private static void required(ImportValidationReport report, int row, String beNo, String field, String value, int maxLength) {
+        if (!StringUtils.hasText(value)) {
+            report.reject(row, beNo, field, field + " is required");
+        } else {
+            maxLength(report, row, beNo, field, value, maxLength);
+        }
+    }
+
+    private static void maxLength(ImportValidationReport report, int row, String beNo, String field, String value, int maxLength) {
+        if (value != null && value.trim().length() > maxLength) {
+            report.reject(row, beNo, field, field + " is longer than " + maxLength + " characters");
+        }
+    }
+
+    private static String lineKey(String beNo, LocalDate beDate, String bomPartNo, String itemDescription) {
+        return norm(beNo) + '\u0000' + beDate + '\u0000' + norm(bomPartNo) + '\u0000' + norm(itemDescription);
+    }
+
+    // FNV-1a over the chars with a final avalanche; collisions are ~n^2/2^65
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * Open-addressing map from line hash to the first 1-based row that had
+     * it; 0 marks an empty slot.
+     */
+    private static final class LineIndex {
+        private long[] keys = new long[1024];
+        private int[] rows = new int[1024];
+        private int size;
+
+        // Returns the row already stored for the hash, or 0 after storing this one
+        int putIfAbsent(long key, int row) {
+            if (size * 2 >= keys.length) grow();
+            int mask = keys.length - 1;
+            for (int i = (int) key & mask; ; i = (i + 1) & mask) {
+                if (rows[i] == 0) {
+                    keys[i] = key;
+                    rows[i] = row;
+                    size++;
+                    return 0;
+                }
+                if (keys[i] == key) return rows[i];
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldRows = rows;
+            keys = new long[oldKeys.length * 2];
+            rows = new int[oldRows.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldRows[i] != 0) putIfAbsent(oldKeys[i], oldRows[i]);
+            }
+        }
+    }
+
+    private static String norm(String s) {
+        return s == null ? "" : s.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static BigDecimal nz(BigDecimal b) {
+        return b == null ? BigDecimal.ZERO : b;
+    }
+}
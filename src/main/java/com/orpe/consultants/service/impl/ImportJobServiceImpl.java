@@ -0,0 +1,105 @@
+package com.orpe.consultants.service.impl;
+
+import com.orpe.consultants.config.Workload;
+import com.orpe.consultants.exception.FileProcessingException;
+import com.orpe.consultants.model.ImportJob;
+import com.orpe.consultants.repository.ImportJobPayloadStore;
+import com.orpe.consultants.repository.ImportJobRepository;
+import com.orpe.consultants.service.ImportJobService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Producer side of the import job queue. The upload is spooled to a local
+ * file while it is hashed, then stored with its job row in one transaction;
+ * ImportJobWorker does the rest on whichever node claims it.
+ */
+@Service
+@Slf4j
+public class ImportJobServiceImpl implements ImportJobService {
+
+    private final ImportJobRepository jobRepo;
+    private final ImportJobPayloadStore payloads;
+    private final TransactionTemplate tx;
+    private final int maxAttempts;
+
+    public ImportJobServiceImpl(
+            ImportJobRepository jobRepo,
+            ImportJobPayloadStore payloads,
+            PlatformTransactionManager transactionManager,
+            @Value("${orpe.import.jobs.max-attempts:3}") int maxAttempts) {
+        this.jobRepo = jobRepo;
+        this.payloads = payloads;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    @Override
+    @Workload(Workload.Type.BULK)
+    public ImportJob enqueue(ImportJob.Type type, InputStream content, String fileName, String username) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("orpe-import-job-", ".upload");
+            DigestInputStream in = ImportBatchServiceImpl.digesting(content);
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+
+            ImportJob job = ImportJob.builder()
+                .jobId(UUID.randomUUID().toString())
+                .type(type)
+                .status(ImportJob.Status.QUEUED)
+                .fileName(fileName)
+                .contentHash(ImportBatchServiceImpl.contentHash(in))
+                .payloadSize(Files.size(file))
+                .attempts(0)
+                .maxAttempts(maxAttempts)
+                .createdBy(username)
+                .build();
+            Path payload = file;
+            ImportJob saved = tx.execute(status -> {
+                try {
+                    payloads.save(job.getJobId(), payload);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return jobRepo.save(job);
+            });
+            log.info("Import job {} queued: {} {} ({} bytes)", job.getJobId(), type, fileName, job.getPayloadSize());
+            return saved;
+        } catch (IOException | UncheckedIOException e) {
+            throw new FileProcessingException("Failed to queue upload: " + e.getMessage(), e);
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Could not delete spool file {}", file, e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Optional<ImportJob> findJob(String jobId) {
+        return jobRepo.findById(jobId);
+    }
+
+    @Override
+    public List<ImportJob> findRecent(int limit) {
+        return jobRepo.findAllByOrderByCreatedAtDesc(PageRequest.of(0, Math.max(1, limit)));
+    }
+}
@@ -0,0 +1,282 @@
+package com.orpe.consultants.service.impl;
+
+import com.orpe.consultants.config.Workload;
+import com.orpe.consultants.config.WorkloadContext;
+import com.orpe.consultants.dto.ImportValidationReport;
+import com.orpe.consultants.exception.FileProcessingException;
+import com.orpe.consultants.exception.ImportValidationException;
+import com.orpe.consultants.model.ImportBatch;
+import com.orpe.consultants.model.ImportJob;
+import com.orpe.consultants.repository.ImportBatchRepository;
+import com.orpe.consultants.repository.ImportJobPayloadStore;
+import com.orpe.consultants.repository.ImportJobRepository;
+import com.orpe.consultants.service.ImportBatchService;
+import com.orpe.consultants.service.ImportBulkLoadService;
+import com.orpe.consultants.service.ImportPipelineService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+/**
+ * Consumer side of the import job queue; every node runs one. It claims up
+ * to orpe.import.jobs.workers QUEUED jobs with SKIP LOCKED, so nodes never
+ * wait on each other's claims, renews the leases of its running jobs and
+ * puts jobs of dead nodes back in the queue once their lease has expired.
+ *
+ * A job saves its rows as batch &lt;job id&gt;, in a single transaction of
+ * the pipeline or bulk load that also marks the job COMPLETED, fenced by
+ * the lease. A job cut off by a crash left nothing behind and simply runs
+ * again; a node that lost its lease before the commit rolls its rows back
+ * and leaves the job to the new owner.
+ *
+ * Queue bookkeeping runs on the interactive pool so heartbeats are never
+ * stuck behind bulk work; the jobs themselves run as BULK.
+ */
+@Service
+@Slf4j
+public class ImportJobWorker {
+
+    private final ImportJobRepository jobRepo;
+    private final ImportJobPayloadStore payloads;
+    private final ImportBatchRepository batchRepo;
+    private final ImportPipelineService importPipelineService;
+    private final ImportBulkLoadService importBulkLoadService;
+    private final TransactionTemplate tx;
+    private final SimpleAsyncTaskExecutor executor;
+    private final String nodeId;
+    private final int workers;
+    private final long leaseSeconds;
+    private final long retryDelaySeconds;
+
+    // Jobs this node is working on; only the poller adds to it
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private volatile boolean stopped;
+
+    public ImportJobWorker(
+            ImportJobRepository jobRepo,
+            ImportJobPayloadStore payloads,
+            ImportBatchRepository batchRepo,
+            ImportPipelineService importPipelineService,
+            ImportBulkLoadService importBulkLoadService,
+            PlatformTransactionManager transactionManager,
+            Environment environment,
+            @Value("${orpe.import.jobs.node-id:}") String nodeId,
+            @Value("${orpe.import.jobs.workers:2}") int workers,
+            @Value("${orpe.import.jobs.lease-seconds:60}") long leaseSeconds,
+            @Value("${orpe.import.jobs.retry-delay-seconds:30}") long retryDelaySeconds) {
+        this.jobRepo = jobRepo;
+        this.payloads = payloads;
+        this.batchRepo = batchRepo;
+        this.importPipelineService = importPipelineService;
+        this.importBulkLoadService = importBulkLoadService;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.nodeId = StringUtils.hasText(nodeId) ? nodeId : defaultNodeId();
+        this.workers = Math.max(0, workers);
+        this.leaseSeconds = Math.max(10, leaseSeconds);
+        this.retryDelaySeconds = Math.max(0, retryDelaySeconds);
+
+        // Jobs cut off by shutdown are taken over by another node when the lease runs out
+        this.executor = new SimpleAsyncTaskExecutor("import-job-");
+        this.executor.setDaemon(true);
+        this.executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        log.info("Import job worker {} with {} worker(s), lease {} s", this.nodeId, this.workers, this.leaseSeconds);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+    }
+
+    @Scheduled(fixedDelayString = "${orpe.import.jobs.poll-ms:2000}", initialDelayString = "${orpe.import.jobs.poll-ms:2000}")
+    public void poll() {
+        int free = workers - running.size();
+        if (stopped || free <= 0) return;
+
+        List<ImportJob> claimed = tx.execute(status -> {
+            List<String> ids = jobRepo.lockQueued(free);
+            if (ids.isEmpty()) return List.of();
+            jobRepo.claim(ids, nodeId, leaseSeconds);
+            return jobRepo.findAllById(ids);
+        });
+        for (ImportJob job : claimed) {
+            running.add(job.getJobId());
+            executor.execute(() -> {
+                Workload.Type previous = WorkloadContext.bind(Workload.Type.BULK);
+                try {
+                    run(job);
+                } finally {
+                    WorkloadContext.restore(previous);
+                    running.remove(job.getJobId());
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orpe.import.jobs.heartbeat-ms:15000}")
+    public void heartbeat() {
+        Set<String> ids = Set.copyOf(running);
+        if (ids.isEmpty()) return;
+        Integer renewed = tx.execute(status -> jobRepo.heartbeat(ids, nodeId, leaseSeconds));
+        if (renewed != null && renewed < ids.size()) {
+            // Too long without a heartbeat: another node may already run the job again
+            log.warn("Import job worker {} lost {} of {} lease(s)", nodeId, ids.size() - renewed, ids.size());
+        }
+    }
+
+    // Every node reaps; the updates are idempotent
+    @Scheduled(fixedDelayString = "${orpe.import.jobs.reap-ms:30000}")
+    public void reap() {
+        int[] reaped = tx.execute(status -> new int[] {jobRepo.requeueExpired(), jobRepo.failExpired()});
+        if (reaped[0] > 0 || reaped[1] > 0) {
+            log.warn("Import jobs with expired leases: {} re-queued, {} failed", reaped[0], reaped[1]);
+        }
+        payloads.deleteFinished();
+    }
+
+    void run(ImportJob job) {
+        String id = job.getJobId();
+        log.info("Import job {} ({}) attempt {} of {} on {}", id, job.getType(), job.getAttempts(), job.getMaxAttempts(), nodeId);
+        Path file = null;
+        try {
+            if (job.getAttempts() > 1) {
+                // Rows and outcome commit together, so this only finds a batch if the job row was re-queued by hand
+                Optional<ImportBatch> stored = batchRepo.findById(id);
+                if (stored.isPresent()) {
+                    log.info("Import job {} was already saved as batch {}", id, id);
+                    complete(id, id, stored.get().getRowCount());
+                    return;
+                }
+            }
+
+            file = Files.createTempFile("orpe-import-job-", ".upload");
+            if (!payloads.copyTo(id, file)) {
+                fail(id, "Upload of the job is missing");
+                return;
+            }
+            ImportBatchService.NewBatch batch = new ImportBatchService.NewBatch(id, rowCount -> completeWithRows(id, rowCount));
+            int saved;
+            try (InputStream in = Files.newInputStream(file)) {
+                saved = switch (job.getType()) {
+                    case WORKBOOK -> importPipelineService.ingest(in, job.getFileName(), job.getCreatedBy(), batch).getSavedCount();
+                    case JSON -> importPipelineService.ingestJson(in, job.getCreatedBy(), batch).getSavedCount();
+                    case BULK_LOAD -> importBulkLoadService.load(in, job.getFileName(), job.getCreatedBy(), batch).getInsertedCount();
+                };
+            }
+            log.info("Import job {} completed: batch {}, {} rows", id, id, saved);
+        } catch (LeaseLost ex) {
+            log.warn("Import job {}: lease lost before the rows committed; rolled back, job left to the new owner", id);
+        } catch (ImportValidationException ex) {
+            // The file itself is wrong; running it again cannot help
+            fail(id, validationMessage(ex.getReport(), ex.getMessage()));
+        } catch (FileProcessingException ex) {
+            fail(id, message(ex));
+        } catch (Exception ex) {
+            log.error("Import job {} attempt {} failed", id, job.getAttempts(), ex);
+            if (job.getAttempts() < job.getMaxAttempts()) {
+                long delay = retryDelaySeconds * job.getAttempts();
+                update(id, "retry", false, () -> jobRepo.retry(id, nodeId, message(ex), delay));
+            } else {
+                fail(id, message(ex));
+            }
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Could not delete job file {}", file, e);
+                }
+            }
+        }
+    }
+
+    // Runs last in the transaction that saves the job's rows
+    private void completeWithRows(String id, int rowCount) {
+        if (jobRepo.complete(id, nodeId, id, rowCount) == 0) throw new LeaseLost();
+        payloads.delete(id);
+    }
+
+    private void complete(String id, String batchId, int rowCount) {
+        if (update(id, "complete", true, () -> jobRepo.complete(id, nodeId, batchId, rowCount))) {
+            log.info("Import job {} completed: batch {}, {} rows", id, batchId, rowCount);
+        }
+    }
+
+    private void fail(String id, String error) {
+        if (update(id, "fail", true, () -> jobRepo.fail(id, nodeId, error))) {
+            log.warn("Import job {} failed: {}", id, error);
+        }
+    }
+
+    // Outcome and payload clean-up commit together, and only while this node still holds the lease
+    private boolean update(String id, String action, boolean finished, IntSupplier statement) {
+        Boolean owned = tx.execute(status -> {
+            if (statement.getAsInt() == 0) return false;
+            if (finished) payloads.delete(id);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(owned)) {
+            log.warn("Import job {}: lease lost before {}, outcome left to the new owner", id, action);
+            return false;
+        }
+        return true;
+    }
+
+    private static String validationMessage(ImportValidationReport report, String summary) {
+        if (report.getErrors().isEmpty()) return summary;
+        ImportValidationReport.RowError first = report.getErrors().get(0);
+        return truncate(summary + "; first: row " + first.getRow() + " (" + first.getBeNo() + ") "
+            + first.getField() + ": " + first.getMessage());
+    }
+
+    private static String message(Exception ex) {
+        return truncate(String.valueOf(NestedExceptionUtils.getMostSpecificCause(ex).getMessage()));
+    }
+
+    private static String truncate(String message) {
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    // Rolls back the rows of a job whose lease another node has taken over
+    private static final class LeaseLost extends RuntimeException {
+        LeaseLost() {
+            super("Import job lease lost", null, false, false);
+        }
+    }
+
+    // Host plus a random suffix, so a restarted node never mistakes the old process's leases for its own
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            host = "node";
+        }
+        if (host.length() > 80) host = host.substring(0, 80);
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,385 @@
+package com.orpe.consultants.service.impl;
+
+import com.orpe.consultants.config.Workload;
+import com.orpe.consultants.config.WorkloadContext;
+import com.orpe.consultants.dto.ImportDataDTO;
+import com.orpe.consultants.dto.ImportPipelineResult;
+import com.orpe.consultants.dto.ImportValidationReport;
+import com.orpe.consultants.exception.FileProcessingException;
+import com.orpe.consultants.exception.ImportValidationException;
+import com.orpe.consultants.service.ImportBatchService;
+import com.orpe.consultants.service.ImportDataService;
+import com.orpe.consultants.service.ImportPipelineService;
+import com.orpe.consultants.service.ReferenceDataService;
+import com.orpe.consultants.utils.ImportDataExtractor;
+import com.orpe.consultants.utils.ImportJsonReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Pipelined ingest of a workbook or a JSON/NDJSON stream:
+ * <pre>
+ * decode --[decoded]--> validate + Material lookup --[validated]--> insert
+ * </pre>
+ * Decode and validate run on their own threads, inserts on the calling
+ * thread in one transaction. Each queue holds at most queueBatches batches,
+ * so a slow insert stage throttles decoding instead of piling rows up in
+ * memory, and the persistence context is flushed and cleared per batch.
+ *
+ * The first invalid row stops the insert stage, which then rolls back.
+ * Decode and validation still run to the end so the report lists every
+ * problem, as saveBulk's does.
+ *
+ * The saved rows form one ImportBatch, registered in the insert
+ * transaction with the SHA-256 of the uploaded bytes; the caller's
+ * beforeCommit check runs last in that transaction.
+ */
+@Service
+@Slf4j
+@Workload(Workload.Type.BULK)
+public class ImportPipelineServiceImpl implements ImportPipelineService {
+
+    // End-of-stream marker, compared by identity
+    private static final List<ImportDataDTO> END = List.of();
+    private static final long POLL_MILLIS = 100;
+
+    private final ImportDataExtractor extractor;
+    private final ImportJsonReader jsonReader;
+    private final ImportDataValidator validator;
+    private final ImportDataService importDataService;
+    private final ImportBatchService importBatchService;
+    private final ReferenceDataService referenceData;
+    private final TransactionTemplate tx;
+    private final SimpleAsyncTaskExecutor stages;
+    private final int batchSize;
+    private final int queueBatches;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ImportPipelineServiceImpl(
+            ImportDataExtractor extractor,
+            ImportJsonReader jsonReader,
+            ImportDataValidator validator,
+            ImportDataService importDataService,
+            ImportBatchService importBatchService,
+            ReferenceDataService referenceData,
+            PlatformTransactionManager transactionManager,
+            Environment environment,
+            @Value("${orpe.import.pipeline.batch-size:1000}") int batchSize,
+            @Value("${orpe.import.pipeline.queue-batches:4}") int queueBatches) {
+        this.extractor = extractor;
+        this.jsonReader = jsonReader;
+        this.validator = validator;
+        this.importDataService = importDataService;
+        this.importBatchService = importBatchService;
+        this.referenceData = referenceData;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.queueBatches = Math.max(1, queueBatches);
+
+        // One short-lived thread per stage and ingest
+        this.stages = new SimpleAsyncTaskExecutor("import-pipeline-");
+        this.stages.setDaemon(true);
+        this.stages.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        // The validate stage queries stored duplicates; keep it on the bulk pool
+        this.stages.setTaskDecorator(WorkloadContext::propagate);
+    }
+
+    @Override
+    public ImportPipelineResult ingest(InputStream workbook, String fileName, String username) {
+        return ingest(workbook, fileName, username, ImportBatchService.NewBatch.random());
+    }
+
+    @Override
+    public ImportPipelineResult ingest(InputStream workbook, String fileName, String username,
+                                       ImportBatchService.NewBatch batch) {
+        DigestInputStream in = ImportBatchServiceImpl.digesting(workbook);
+        return run("workbook", in, fileName, username, batch, sink -> extractor.streamImportRows(in, sink));
+    }
+
+    @Override
+    public ImportPipelineResult ingestJson(InputStream json, String username) {
+        return ingestJson(json, username, ImportBatchService.NewBatch.random());
+    }
+
+    @Override
+    public ImportPipelineResult ingestJson(InputStream json, String username, ImportBatchService.NewBatch batch) {
+        DigestInputStream in = ImportBatchServiceImpl.digesting(json);
+        return run("JSON", in, null, username, batch, sink -> jsonReader.streamRows(in, sink));
+    }
+
+    private ImportPipelineResult run(String kind, DigestInputStream in, String fileName, String username,
+                                     ImportBatchService.NewBatch batch, RowSource source) {
+        long start = System.nanoTime();
+        Run run = new Run(validator.newSession());
+        Upload upload = new Upload(batch.batchId(), in, fileName, username, batch.beforeCommit());
+        BlockingQueue<List<ImportDataDTO>> decoded = new ArrayBlockingQueue<>(queueBatches);
+        BlockingQueue<List<ImportDataDTO>> validated = new ArrayBlockingQueue<>(queueBatches);
+
+        CompletableFuture<Void> decode = CompletableFuture.runAsync(() -> decode(kind, in, source, decoded, run), stages);
+        CompletableFuture<Void> check = CompletableFuture.runAsync(() -> validate(decoded, validated, run), stages);
+
+        int saved = 0;
+        try {
+            saved = insert(validated, run, upload);
+        } catch (Aborted ignored) {
+            // failure already recorded
+        } catch (RuntimeException ex) {
+            run.fail(ex);
+        }
+        // The stages record their own failures and stop once one is recorded
+        CompletableFuture.allOf(decode, check).join();
+
+        Throwable failure = run.failure.get();
+        if (failure instanceof RuntimeException re) throw re;
+        if (failure != null) throw new FileProcessingException("Import pipeline failed: " + failure.getMessage(), failure);
+
+        ImportValidationReport report = run.session.report();
+        if (!report.isValid()) throw new ImportValidationException(report);
+
+        ImportPipelineResult result = ImportPipelineResult.builder()
+            .batchId(upload.batchId())
+            .rowCount(report.getRowCount())
+            .savedCount(saved)
+            .batches(run.batches)
+            .parseMillis(run.parse.busyMillis())
+            .validateMillis(run.check.busyMillis())
+            .insertMillis(run.insert.busyMillis())
+            .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+            .build();
+        log.info("Pipelined {} import {}: {} rows in {} ms (parse {} ms, validate {} ms, insert {} ms)",
+            kind, upload.batchId(), result.getSavedCount(), result.getElapsedMillis(), result.getParseMillis(),
+            result.getValidateMillis(), result.getInsertMillis());
+        return result;
+    }
+
+    private void decode(String kind, InputStream in, RowSource source, BlockingQueue<List<ImportDataDTO>> decoded, Run run) {
+        run.parse.start();
+        try {
+            Batcher batcher = new Batcher(decoded, run);
+            source.read(batcher);
+            batcher.flush();
+            // Readers may stop before the end of the upload; the content hash covers all of it
+            in.transferTo(OutputStream.nullOutputStream());
+            put(decoded, END, run::failed, run, run.parse);
+        } catch (Aborted ignored) {
+            // failure already recorded
+        } catch (Throwable t) {
+            run.fail(t instanceof FileProcessingException ? t
+                : new FileProcessingException("Failed to parse import " + kind + ": " + t.getMessage(), t));
+        } finally {
+            run.parse.finish();
+        }
+    }
+
+    private void validate(BlockingQueue<List<ImportDataDTO>> decoded, BlockingQueue<List<ImportDataDTO>> validated, Run run) {
+        run.check.start();
+        try {
+            for (;;) {
+                List<ImportDataDTO> batch = take(decoded, run::failed, run, run.check);
+                if (batch == END) break;
+                if (run.session.validate(batch) && !run.invalid) {
+                    enrich(batch);
+                    put(validated, batch, run::failed, run, run.check);
+                } else {
+                    // Nothing more is saved, but keep going for the full report
+                    run.invalid = true;
+                }
+            }
+            if (!run.stopInsert()) put(validated, END, run::failed, run, run.check);
+        } catch (Aborted ignored) {
+            // failure already recorded
+        } catch (Throwable t) {
+            run.fail(t);
+        } finally {
+            run.check.finish();
+        }
+    }
+
+    // Resolve the batch's Materials in one query so the insert stage only hits the cache
+    private void enrich(List<ImportDataDTO> batch) {
+        Set<String> bomPartNos = new HashSet<>();
+        for (ImportDataDTO r : batch) {
+            if (StringUtils.hasText(r.getBomPartNo())) bomPartNos.add(r.getBomPartNo().trim());
+        }
+        if (!bomPartNos.isEmpty()) referenceData.resolveMaterials(bomPartNos);
+    }
+
+    private int insert(BlockingQueue<List<ImportDataDTO>> validated, Run run, Upload upload) {
+        run.insert.start();
+        try {
+            Integer saved = tx.execute(status -> {
+                int count = 0;
+                for (;;) {
+                    List<ImportDataDTO> batch = take(validated, run::stopInsert, run, run.insert);
+                    if (batch == END) break;
+                    count += importDataService.saveValidated(batch, upload.batchId());
+                    // Keep only one batch of entities in the persistence context
+                    entityManager.flush();
+                    entityManager.clear();
+                    run.batches++;
+                }
+                if (run.stopInsert()) {
+                    status.setRollbackOnly();
+                } else {
+                    // END was taken, so decode has read the whole upload
+                    importBatchService.record(upload.batchId(), upload.fileName(),
+                        ImportBatchServiceImpl.contentHash(upload.in()), count, upload.username());
+                    upload.beforeCommit().accept(count);
+                }
+                return count;
+            });
+            return run.stopInsert() || saved == null ? 0 : saved;
+        } finally {
+            run.insert.finish();
+        }
+    }
+
+    // Blocks while the queue is full, giving up once stop() turns true
+    private static void put(BlockingQueue<List<ImportDataDTO>> queue, List<ImportDataDTO> batch,
+                            BooleanSupplier stop, Run run, Stage stage) {
+        long start = System.nanoTime();
+        try {
+            while (!queue.offer(batch, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (stop.getAsBoolean()) throw new Aborted();
+            }
+        } catch (InterruptedException e) {
+            throw run.interrupted(e);
+        } finally {
+            stage.waitNanos += System.nanoTime() - start;
+        }
+    }
+
+    // Next batch, or END once the stream ends or stop() turns true
+    private static List<ImportDataDTO> take(BlockingQueue<List<ImportDataDTO>> queue,
+                                            BooleanSupplier stop, Run run, Stage stage) {
+        long start = System.nanoTime();
+        try {
+            for (;;) {
+                List<ImportDataDTO> batch = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (batch != null) return batch;
+                if (stop.getAsBoolean()) return END;
+            }
+        } catch (InterruptedException e) {
+            throw run.interrupted(e);
+        } finally {
+            stage.waitNanos += System.nanoTime() - start;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        void read(Consumer<ImportDataDTO> sink) throws Exception;
+    }
+
+    private final class Batcher implements Consumer<ImportDataDTO> {
+        private final BlockingQueue<List<ImportDataDTO>> queue;
+        private final Run run;
+        private List<ImportDataDTO> batch = new ArrayList<>(batchSize);
+
+        Batcher(BlockingQueue<List<ImportDataDTO>> queue, Run run) {
+            this.queue = queue;
+            this.run = run;
+        }
+
+        @Override
+        public void accept(ImportDataDTO row) {
+            batch.add(row);
+            if (batch.size() >= batchSize) flush();
+        }
+
+        void flush() {
+            if (batch.isEmpty()) return;
+            put(queue, batch, run::failed, run, run.parse);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    /**
+     * Shared state of one ingest. Stage fields are written by their own
+     * thread only and read after the stages have been joined.
+     */
+    private static final class Run {
+        final ImportDataValidator.Session session;
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Stage parse = new Stage();
+        final Stage check = new Stage();
+        final Stage insert = new Stage();
+        volatile boolean invalid;
+        int batches;
+
+        Run(ImportDataValidator.Session session) {
+            this.session = session;
+        }
+
+        void fail(Throwable t) {
+            failure.compareAndSet(null, t);
+        }
+
+        boolean failed() {
+            return failure.get() != null;
+        }
+
+        boolean stopInsert() {
+            return invalid || failed();
+        }
+
+        Aborted interrupted(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(new FileProcessingException("Import pipeline interrupted", e));
+            return new Aborted();
+        }
+    }
+
+    // The ImportBatch the ingest creates
+    private record Upload(String batchId, DigestInputStream in, String fileName, String username,
+                          IntConsumer beforeCommit) { }
+
+    private static final class Stage {
+        long startNanos;
+        long waitNanos;
+        long busyNanos;
+
+        void start() {
+            startNanos = System.nanoTime();
+        }
+
+        void finish() {
+            busyNanos = System.nanoTime() - startNanos - waitNanos;
+        }
+
+        long busyMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(busyNanos);
+        }
+    }
+
+    // Unwinds a stage after another stage failed; never escapes ingest()
+    private static final class Aborted extends RuntimeException {
+        Aborted() {
+            super(null, null, false, false);
+        }
+    }
+}
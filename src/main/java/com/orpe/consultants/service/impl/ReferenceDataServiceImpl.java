@@ -0,0 +1,101 @@
+package com.orpe.consultants.service.impl;
+
+import com.orpe.consultants.config.CacheConfig;
+import com.orpe.consultants.model.Material;
+import com.orpe.consultants.repository.ImportDataRepository;
+import com.orpe.consultants.repository.MaterialRepository;
+import com.orpe.consultants.service.ReferenceDataService;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataServiceImpl implements ReferenceDataService {
+
+  private final MaterialRepository materialRepo;
+  private final ImportDataRepository importRepo;
+  private final CacheManager cacheManager;
+
+  // The cache maps a requested part number to the stored bom_part_no; entities are never cached.
+  // getReferenceById attaches an uninitialised proxy to the caller's persistence context, so
+  // flushing an ImportData that points at it needs no snapshot SELECT on materials.
+  @Override
+  @Transactional
+  public Material resolveMaterial(String bomPartNo) {
+    Cache cache = materialCache();
+    String key = cache.get(bomPartNo, String.class);
+    if (key == null) {
+      key = materialRepo.findById(bomPartNo).orElseGet(() ->
+          materialRepo.save(Material.builder().bomPartNo(bomPartNo).build())
+      ).getBomPartNo();
+      // Deferred by the transaction-aware cache until this transaction commits
+      cache.put(bomPartNo, key);
+    }
+    return materialRepo.getReferenceById(key);
+  }
+
+  @Override
+  @Transactional
+  public Map<String, Material> resolveMaterials(Collection<String> bomPartNos) {
+    Cache cache = materialCache();
+    Map<String, Material> resolved = new HashMap<>(bomPartNos.size() * 2);
+    Set<String> missing = new LinkedHashSet<>();
+    for (String bomPartNo : bomPartNos) {
+      String key = cache.get(bomPartNo, String.class);
+      if (key != null) resolved.put(bomPartNo, materialRepo.getReferenceById(key));
+      else missing.add(bomPartNo);
+    }
+    if (missing.isEmpty()) return resolved;
+
+    // bom_part_no compares case-insensitively, like findById in resolveMaterial
+    Map<String, Material> stored = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    for (Material m : materialRepo.findAllByBomPartNoIn(missing)) {
+      stored.put(m.getBomPartNo(), m);
+    }
+    for (String bomPartNo : missing) {
+      Material m = stored.computeIfAbsent(bomPartNo, no -> materialRepo.save(Material.builder().bomPartNo(no).build()));
+      resolved.put(bomPartNo, m);
+      cache.put(bomPartNo, m.getBomPartNo());
+    }
+    return resolved;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  @Cacheable(cacheNames = CacheConfig.PORT_CODES, key = "'all'")
+  public List<String> findPortCodes() {
+    return importRepo.findDistinctPortCodes();
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  @Cacheable(cacheNames = CacheConfig.HS_CODES, key = "'all'")
+  public List<String> findHsCodes() {
+    return importRepo.findDistinctItchsCodes();
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  @Cacheable(cacheNames = CacheConfig.COUNTRIES, key = "'all'")
+  public List<String> findCountries() {
+    return importRepo.findDistinctCountriesOfOrigin();
+  }
+
+  private Cache materialCache() {
+    return Objects.requireNonNull(cacheManager.getCache(CacheConfig.MATERIALS));
+  }
+
+  @Override
+  @CacheEvict(cacheNames = {CacheConfig.PORT_CODES, CacheConfig.HS_CODES, CacheConfig.COUNTRIES}, allEntries = true)
+  public void evictReferenceLists() {
+    // eviction handled by the annotation
+  }
+}
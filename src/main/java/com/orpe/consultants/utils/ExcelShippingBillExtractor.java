@@ -7,8 +7,6 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -221,7 +219,7 @@ public class ExcelShippingBillExtractor {
                             return targetCell.getLocalDateTimeCellValue().toLocalDate();
                         }
                         String value = getCellValueAsString(targetCell).trim();
-                        LocalDate date = parseFlexibleDate(value);
+                        LocalDate date = ValueParsers.parseDate(value);
                         if (date != null) {
                             return date;
                         }
@@ -248,7 +246,7 @@ public class ExcelShippingBillExtractor {
                             return BigDecimal.valueOf(targetCell.getNumericCellValue());
                         }
                         String value = getCellValueAsString(targetCell).trim();
-                        BigDecimal numericValue = parseNumericValue(value);
+                        BigDecimal numericValue = ValueParsers.scanDecimal(value);
                         if (numericValue != null) {
                             return numericValue;
                         }
@@ -364,38 +362,4 @@ public class ExcelShippingBillExtractor {
                 return "";
         }
     }
-
-    private static LocalDate parseFlexibleDate(String dateStr) {
-        if (dateStr == null || dateStr.trim().isEmpty()) return null;
-        
-        DateTimeFormatter[] formatters = {
-            DateTimeFormatter.ofPattern("yyyy-MM-dd"),
-            DateTimeFormatter.ofPattern("dd-MM-yyyy"),
-            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
-            DateTimeFormatter.ofPattern("dd-MMM-yy", Locale.ENGLISH),
-            DateTimeFormatter.ofPattern("dd-MMM-yyyy", Locale.ENGLISH)
-        };
-        
-        for (DateTimeFormatter formatter : formatters) {
-            try {
-                return LocalDate.parse(dateStr.trim(), formatter);
-            } catch (Exception e) {
-                // Try next formatter
-            }
-        }
-        return null;
-    }
-
-    private static BigDecimal parseNumericValue(String value) {
-        if (value == null || value.trim().isEmpty()) return null;
-        
-        try {
-            // Remove common non-numeric characters but keep decimal points and minus signs
-            String cleaned = value.replaceAll("[^\\d.-]", "");
-            if (cleaned.isEmpty()) return null;
-            return new BigDecimal(cleaned);
-        } catch (Exception e) {
-            return null;
-        }
-    }
 }
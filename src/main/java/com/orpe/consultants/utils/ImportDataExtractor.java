@@ -2,103 +2,204 @@ package com.orpe.consultants.utils;
 
 import com.orpe.consultants.dto.ImportDataDTO;
 import com.orpe.consultants.dto.StockWiseEligibility;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
-
-import static java.util.stream.Collectors.toList;
+import java.util.function.Consumer;
 
 @Service
 public class ImportDataExtractor {
 
     private static final List<String> PREFERRED_SHEETS = List.of("IMPORT", "IMPORT DETAILS");
 
-    private static final DateTimeFormatter[] DATE_PATTERNS = new DateTimeFormatter[] {
-        DateTimeFormatter.ofPattern("yyyy-MM-dd"),
-        DateTimeFormatter.ofPattern("dd-MM-yyyy"),
-        DateTimeFormatter.ofPattern("dd/MM/yyyy"),
-        DateTimeFormatter.ofPattern("MM/dd/yyyy"),
-        DateTimeFormatter.ofPattern("yyyy/MM/dd")
-    };
+    // Rows evaluated per chunk in EVALUATE_ALL mode; interruption is checked between chunks
+    private static final int EVALUATE_CHUNK_ROWS = 1000;
+
+    /**
+     * Order of parsed rows: latest BE date first, rows without a date on top.
+     */
+    public static final Comparator<ImportDataDTO> BE_DATE_ORDER =
+        Comparator.comparing(ImportDataDTO::getBeDate,
+            Comparator.nullsLast(Comparator.<LocalDate>naturalOrder())).reversed();
+
+    /**
+     * How formula cells are turned into values.
+     * <ul>
+     *   <li>CACHED_FIRST: use the result Excel saved in the file; evaluate only cells without one</li>
+     *   <li>EVALUATE: always evaluate (for files written by tools that do not store results)</li>
+     *   <li>EVALUATE_ALL: evaluate every formula of the sheet up front, then read the stored results</li>
+     * </ul>
+     * Evaluated results are memoised per workbook in all modes.
+     */
+    public enum FormulaMode { CACHED_FIRST, EVALUATE, EVALUATE_ALL }
+
+    private final FormulaMode formulaMode;
+
+    // Rows held in memory while ordering; beyond that sorted runs are spilled to temp files
+    private final int sortBufferRows;
+
+    public ImportDataExtractor() {
+        this(FormulaMode.CACHED_FIRST, 50_000);
+    }
+
+    @Autowired
+    public ImportDataExtractor(
+            @Value("${orpe.import.formula-mode:CACHED_FIRST}") FormulaMode formulaMode,
+            @Value("${orpe.import.sort.buffer-rows:50000}") int sortBufferRows) {
+        this.formulaMode = formulaMode;
+        this.sortBufferRows = sortBufferRows;
+    }
 
     public List<ImportDataDTO> parseImportSheet(MultipartFile file) throws Exception {
-        try (InputStream in = file.getInputStream(); Workbook wb = WorkbookFactory.create(in)) {
-            Sheet sheet = pickSheet(wb);
-
-            DataFormatter fmt = new DataFormatter();
-            FormulaEvaluator eval = wb.getCreationHelper().createFormulaEvaluator();
-
-            // Header map
-            Row header = sheet.getRow(0);
-            if (header == null) throw new IllegalArgumentException("Header row missing");
-            Map<String,Integer> idx = new HashMap<>();
-            for (int c = 0; c < header.getLastCellNum(); c++) {
-                String key = normalize(fmt.formatCellValue(header.getCell(c), eval));
-                if (!key.isBlank()) idx.putIfAbsent(key, c);
+        try (InputStream in = file.getInputStream()) {
+            return parseImportSheet(in);
+        }
+    }
+
+    public List<ImportDataDTO> parseImportSheet(InputStream in) throws Exception {
+        try (Workbook wb = WorkbookFactory.create(in);
+             ImportRowSorter sorter = new ImportRowSorter(BE_DATE_ORDER, sortBufferRows)) {
+            parseSheet(new CellDecoder(wb, formulaMode), pickSheet(wb), sorter::add);
+            ImportRowBuffer rows = new ImportRowBuffer((int) Math.min(sorter.size(), Integer.MAX_VALUE));
+            sorter.forEachSorted(rows::add);
+            return rows;
+        }
+    }
+
+    /**
+     * Parse every sheet whose name contains "import" (one per month, say)
+     * and return their rows in BE_DATE_ORDER, staged in an ImportRowBuffer.
+     */
+    public List<ImportDataDTO> parseImportSheets(InputStream in) throws Exception {
+        ImportRowBuffer rows = new ImportRowBuffer();
+        streamImportSheets(in, rows::add);
+        return rows;
+    }
+
+    /**
+     * Same as parseImportSheets but hands the rows to the sink one by one,
+     * so the caller never needs the whole sorted list in memory.
+     */
+    public void streamImportSheets(InputStream in, Consumer<? super ImportDataDTO> sink) throws Exception {
+        try (Workbook wb = WorkbookFactory.create(in);
+             ImportRowSorter sorter = new ImportRowSorter(BE_DATE_ORDER, sortBufferRows)) {
+            // One decoder per workbook so cross-sheet formulas share the evaluator's cache
+            CellDecoder d = new CellDecoder(wb, formulaMode);
+            for (Sheet sheet : importSheets(wb)) {
+                parseSheet(d, sheet, sorter::add);
+            }
+            sorter.forEachSorted(sink);
+        }
+    }
+
+    /**
+     * Hands the rows of every import sheet to the sink as soon as each row
+     * is decoded, in sheet order and unsorted, for consumers that do not
+     * need BE_DATE_ORDER (e.g. the ingest pipeline).
+     */
+    public void streamImportRows(InputStream in, Consumer<? super ImportDataDTO> sink) throws Exception {
+        try (Workbook wb = WorkbookFactory.create(in)) {
+            CellDecoder d = new CellDecoder(wb, formulaMode);
+            for (Sheet sheet : importSheets(wb)) {
+                parseSheet(d, sheet, sink::accept);
             }
+        }
+    }
+
+    private void parseSheet(CellDecoder d, Sheet sheet, Consumer<ImportDataDTO> sink) {
+        if (formulaMode == FormulaMode.EVALUATE_ALL) d.evaluateAll(sheet);
+
+        // Resolve every field to its column once; -1 when the sheet lacks it
+        Row header = sheet.getRow(0);
+        if (header == null) throw new IllegalArgumentException("Header row missing");
+        int[] cols = columnPlan(header, d);
+
+        for (int r = 1; r <= sheet.getLastRowNum(); r++) {
+            Row row = sheet.getRow(r);
+            if (row == null) continue;
+
+            String beNo = d.string(row, cols[Field.BE_NO.ordinal()]);
+            if (beNo.isEmpty()) continue; // skip empty rows
+
+            ImportDataDTO dto = ImportDataDTO.builder()
+                .beNo(beNo)
+                .beDate(d.date(row, cols[Field.BE_DATE.ordinal()]))
+                .beMonth(d.string(row, cols[Field.MONTH.ordinal()]))
+                .beYear(d.integer(row, cols[Field.YEAR.ordinal()]))
+                .claimRefNo(d.string(row, cols[Field.CLAIM_REF_NO.ordinal()]))
+                .claimYear(d.string(row, cols[Field.CLAIM_YEAR.ordinal()]))
+                .portCode(d.string(row, cols[Field.PORT_CODE.ordinal()]))
+                .countryOfOrigin(d.string(row, cols[Field.COUNTRY_OF_ORIGIN.ordinal()]))
+                .supplierNameAddress(d.string(row, cols[Field.SUPPLIER.ordinal()]))
+                .itchsCode(d.string(row, cols[Field.ITCHS_CODE.ordinal()]))
+                .itemDescription(d.string(row, cols[Field.ITEM_DESCRIPTION.ordinal()]))
+                .bomPartNo(d.string(row, cols[Field.BOM_PART_NO.ordinal()]))
+                .altBoePartNo(d.string(row, cols[Field.ALT_BOE_PART_NO.ordinal()]))
+                .dbkPartNo(d.string(row, cols[Field.DBK_PART_NO.ordinal()]))
+                .quantity(d.decimal(row, cols[Field.QUANTITY.ordinal()]))
+                .uom(d.string(row, cols[Field.UOM.ordinal()]))
+                .assessableValue(d.decimal(row, cols[Field.ASSESSABLE_VALUE.ordinal()]))
+                .bcdRate(d.percent(row, cols[Field.BCD_RATE.ordinal()]))
+                .bcd(d.decimal(row, cols[Field.BCD.ordinal()]))
+                .swsRate(d.percent(row, cols[Field.SWS_RATE.ordinal()]))
+                .sws(d.decimal(row, cols[Field.SWS.ordinal()]))
+                .addRate(d.percent(row, cols[Field.ADD_RATE.ordinal()]))
+                .addDuty(d.decimal(row, cols[Field.ADD_DUTY.ordinal()]))
+                .igstRate(d.percent(row, cols[Field.IGST_RATE.ordinal()]))
+                .igst(d.decimal(row, cols[Field.IGST.ordinal()]))
+                .totalDuty(d.decimal(row, cols[Field.TOTAL_DUTY.ordinal()]))
+                .notnNo(d.string(row, cols[Field.NOTN_NO.ordinal()]))
+                .notnEligibility(d.string(row, cols[Field.NOTN_ELIGIBILITY.ordinal()]))
+                .qtyOpeningBalance(d.decimal(row, cols[Field.QTY_OPENING_BALANCE.ordinal()]))
+                .qtyUsed(d.decimal(row, cols[Field.QTY_USED.ordinal()]))
+                .closingBalance(d.decimal(row, cols[Field.CLOSING_BALANCE.ordinal()]))
+                .stockWiseEligibility(parseEligibility(d.string(row, cols[Field.STOCK_WISE_ELIGIBILITY.ordinal()])))
+                .dutyClaimedAmt(d.decimal(row, cols[Field.DUTY_CLAIMED_AMT.ordinal()]))
+                .build();
 
-            List<ImportDataDTO> rows = new ArrayList<>();
-            for (int r = 1; r <= sheet.getLastRowNum(); r++) {
-                Row row = sheet.getRow(r);
-                if (row == null) continue;
-
-                String beNo = getString(row, col(idx, "BE NO"), fmt, eval).trim();
-                if (beNo.isEmpty()) continue; // skip empty rows
-
-                ImportDataDTO dto = ImportDataDTO.builder()
-                    .beNo(beNo)
-                    .beDate(getDate(row, col(idx, "BE DATE"), fmt, eval))
-                    .beMonth(getString(row, col(idx, "MONTH"), fmt, eval))
-                    .beYear(getInteger(row, col(idx, "YEAR"), fmt, eval))
-                    .claimRefNo(getString(row, col(idx, "CLAIM REF NO"), fmt, eval))
-                    .claimYear(getString(row, col(idx, "CLAIM YEAR"), fmt, eval))
-                    .portCode(getString(row, col(idx, "PORT CODE"), fmt, eval))
-                    .countryOfOrigin(getString(row, col(idx, "COUNTRY OF ORIGIN"), fmt, eval))
-                    .supplierNameAddress(getString(row, col(idx, "SUPPLIER NAME & ADDRESS"), fmt, eval))
-                    .itchsCode(getString(row, col(idx, "ITCHS CODE","HS CODE","HS CD"), fmt, eval))
-                    .itemDescription(getString(row, col(idx, "ITEM DESCRIPTION","ITEM DESCRIPTION."), fmt, eval))
-                    .bomPartNo(getString(row, col(idx, "BOM PART NO"), fmt, eval))
-                    .altBoePartNo(getString(row, col(idx, "ALTERNATE BOE PART NO"), fmt, eval))
-                    .dbkPartNo(getString(row, col(idx, "DBK PART NO"), fmt, eval))
-                    .quantity(getDecimal(row, col(idx, "QUANTITY","QTY"), fmt, eval))
-                    .uom(getString(row, col(idx, "UOM","UNIT"), fmt, eval))
-                    .assessableValue(getDecimal(row, col(idx, "ASSESSABLE VALUE","ASSESSABLE"), fmt, eval))
-                    .bcdRate(getPercent(row, col(idx, "BCD RATE"), fmt, eval))
-                    .bcd(getDecimal(row, col(idx, "BCD"), fmt, eval))
-                    .swsRate(getPercent(row, col(idx, "SWS RATE"), fmt, eval))
-                    .sws(getDecimal(row, col(idx, "SWS"), fmt, eval))
-                    .addRate(getPercent(row, col(idx, "ADD RATE"), fmt, eval))
-                    .addDuty(getDecimal(row, col(idx, "ADD","ADD DUTY","ADDL DUTY"), fmt, eval))
-                    .igstRate(getPercent(row, col(idx, "IGST RATE"), fmt, eval))
-                    .igst(getDecimal(row, col(idx, "IGST"), fmt, eval))
-                    .totalDuty(getDecimal(row, col(idx, "TOTAL DUTY","TOTAL"), fmt, eval))
-                    .notnNo(getString(row, col(idx,
-                        "NOTN NO",
-                        "NOTN NO(SHOULD AUTO FETCH FROM BOE)",
-                        "NOTN NOSHOULD AUTO FETCH FROM BOE",
-                        "NOTIFICATION NO"), fmt, eval))
-                    .notnEligibility(getString(row, col(idx, "NOTN ELIGIBILITY","ELIGIBILITY"), fmt, eval))
-                    .qtyOpeningBalance(getDecimal(row, col(idx, "QTY (OPENING BALANCE)","QTY OPENING BALANCE","OPENING BALANCE"), fmt, eval))
-                    .qtyUsed(getDecimal(row, col(idx, "QTY USED","USED QTY"), fmt, eval))
-                    .closingBalance(getDecimal(row, col(idx, "CLOSING BALANCE","QTY CLOSING BALANCE"), fmt, eval))
-                    .stockWiseEligibility(parseEligibility(getString(row, col(idx, "STOCK WISE ELIGIBILITY","STOCK ELIGIBILITY"), fmt, eval)))
-                    .dutyClaimedAmt(getDecimal(row, col(idx, "DUTY CLAIMED AMT","DUTY CLAIMED"), fmt, eval))
-                    .build();
-
-                rows.add(dto);
+            sink.accept(dto);
+        }
+    }
+
+    private static int[] columnPlan(Row header, CellDecoder d) {
+        Map<String,Integer> idx = new HashMap<>();
+        for (int c = 0; c < header.getLastCellNum(); c++) {
+            String key = normalize(d.string(header, c));
+            if (!key.isBlank()) idx.putIfAbsent(key, c);
+        }
+        int[] cols = new int[FIELDS.length];
+        for (Field field : FIELDS) {
+            cols[field.ordinal()] = -1;
+            for (String alias : field.aliases) {
+                Integer c = idx.get(alias);
+                if (c != null) {
+                    cols[field.ordinal()] = c;
+                    break;
+                }
             }
+        }
+        return cols;
+    }
 
-            return rows.stream()
-                .sorted(Comparator.comparing(ImportDataDTO::getBeDate,
-                        Comparator.nullsLast(Comparator.naturalOrder())).reversed())
-                .collect(toList());
+    private static List<Sheet> importSheets(Workbook wb) {
+        List<Sheet> sheets = new ArrayList<>();
+        for (int i = 0; i < wb.getNumberOfSheets(); i++) {
+            String name = wb.getSheetName(i).toLowerCase(Locale.ROOT);
+            if (name.contains("import") && wb.getSheetAt(i).getRow(0) != null) {
+                sheets.add(wb.getSheetAt(i));
+            }
         }
+        if (sheets.isEmpty()) sheets.add(pickSheet(wb));
+        return sheets;
     }
 
     private static Sheet pickSheet(Workbook wb) {
@@ -123,153 +224,368 @@ public class ImportDataExtractor {
         return s.trim().replaceAll("\\s+", " ").toUpperCase();
     }
 
-    private static Integer col(Map<String,Integer> idx, String... aliases) {
-        for (String a : aliases) {
-            Integer c = idx.get(normalize(a));
-            if (c != null) return c;
-        }
+    private static StockWiseEligibility parseEligibility(String s) {
+        if (s == null) return null;
+        s = s.trim().toUpperCase();
+        if (s.startsWith("OPEN")) return StockWiseEligibility.OPEN;
+        if (s.startsWith("CLOSE")) return StockWiseEligibility.CLOSED;
         return null;
     }
 
-    private static String getString(Row r, Integer c, DataFormatter f, FormulaEvaluator e) {
-        if (c == null) return "";
-        Cell cell = r.getCell(c);
-        return cell == null ? "" : f.formatCellValue(cell, e).trim();
+    /** Header aliases per DTO field, normalised once at class load. */
+    private enum Field {
+        BE_NO("BE NO"),
+        BE_DATE("BE DATE"),
+        MONTH("MONTH"),
+        YEAR("YEAR"),
+        CLAIM_REF_NO("CLAIM REF NO"),
+        CLAIM_YEAR("CLAIM YEAR"),
+        PORT_CODE("PORT CODE"),
+        COUNTRY_OF_ORIGIN("COUNTRY OF ORIGIN"),
+        SUPPLIER("SUPPLIER NAME & ADDRESS"),
+        ITCHS_CODE("ITCHS CODE", "HS CODE", "HS CD"),
+        ITEM_DESCRIPTION("ITEM DESCRIPTION", "ITEM DESCRIPTION."),
+        BOM_PART_NO("BOM PART NO"),
+        ALT_BOE_PART_NO("ALTERNATE BOE PART NO"),
+        DBK_PART_NO("DBK PART NO"),
+        QUANTITY("QUANTITY", "QTY"),
+        UOM("UOM", "UNIT"),
+        ASSESSABLE_VALUE("ASSESSABLE VALUE", "ASSESSABLE"),
+        BCD_RATE("BCD RATE"),
+        BCD("BCD"),
+        SWS_RATE("SWS RATE"),
+        SWS("SWS"),
+        ADD_RATE("ADD RATE"),
+        ADD_DUTY("ADD", "ADD DUTY", "ADDL DUTY"),
+        IGST_RATE("IGST RATE"),
+        IGST("IGST"),
+        TOTAL_DUTY("TOTAL DUTY", "TOTAL"),
+        NOTN_NO("NOTN NO",
+            "NOTN NO(SHOULD AUTO FETCH FROM BOE)",
+            "NOTN NOSHOULD AUTO FETCH FROM BOE",
+            "NOTIFICATION NO"),
+        NOTN_ELIGIBILITY("NOTN ELIGIBILITY", "ELIGIBILITY"),
+        QTY_OPENING_BALANCE("QTY (OPENING BALANCE)", "QTY OPENING BALANCE", "OPENING BALANCE"),
+        QTY_USED("QTY USED", "USED QTY"),
+        CLOSING_BALANCE("CLOSING BALANCE", "QTY CLOSING BALANCE"),
+        STOCK_WISE_ELIGIBILITY("STOCK WISE ELIGIBILITY", "STOCK ELIGIBILITY"),
+        DUTY_CLAIMED_AMT("DUTY CLAIMED AMT", "DUTY CLAIMED");
+
+        final String[] aliases;
+
+        Field(String... aliases) {
+            this.aliases = Arrays.stream(aliases).map(ImportDataExtractor::normalize).toArray(String[]::new);
+        }
     }
 
- // Keep this for general amounts (no percent scaling)
-    private static BigDecimal getDecimal(Row r, Integer c, DataFormatter f, FormulaEvaluator e) {
-        if (c == null) return null; // or BigDecimal.ZERO to preserve prior behavior
-        Cell cell = r.getCell(c);
-        if (cell == null) return null;
-
-        try {
-            if (cell.getCellType() == CellType.FORMULA) {
-                CellValue cv = e.evaluate(cell);
-                if (cv == null) return null;
-                switch (cv.getCellType()) {
-                    case NUMERIC:
-                        if (DateUtil.isCellDateFormatted(cell)) return null;
-                        return BigDecimal.valueOf(cv.getNumberValue());
-                    case STRING:
-                        return parsePlainNumber(cv.getStringValue());
-                    case BOOLEAN:
-                        return cv.getBooleanValue() ? BigDecimal.ONE : BigDecimal.ZERO;
-                    default:
-                        return null;
+    private static final Field[] FIELDS = Field.values();
+
+    /**
+     * Reads typed values straight from the cell type. DataFormatter is only
+     * used for text that depends on a number format; number formats are
+     * classified once per cell style index. Formula cells resolve through
+     * formulaValue(), at most one evaluation per cell.
+     */
+    private static final class CellDecoder {
+
+        private static final byte STYLE_UNKNOWN = 0;
+        private static final byte STYLE_GENERAL = 1;
+        private static final byte STYLE_DATE = 2;
+        private static final byte STYLE_PERCENT = 3;
+        private static final byte STYLE_OTHER = 4;
+
+        // Memo marker for cells whose evaluation failed
+        private static final CellValue FAILED = new CellValue("");
+
+        private final DataFormatter fmt = new DataFormatter();
+        private final Workbook wb;
+        private final FormulaEvaluator eval;
+        private final FormulaMode mode;
+        private final boolean date1904;
+        private final byte[] styleKinds;
+        private final Map<CellAddressKey, CellValue> evaluated = new HashMap<>();
+
+        CellDecoder(Workbook wb, FormulaMode mode) {
+            this.wb = wb;
+            this.eval = wb.getCreationHelper().createFormulaEvaluator();
+            this.mode = mode;
+            this.date1904 = isDate1904(wb);
+            this.styleKinds = new byte[Math.max(1, wb.getNumCellStyles())];
+        }
+
+        /**
+         * Evaluates the sheet's formula cells and stores the results in the
+         * cells, a chunk of rows at a time. POI evaluators are not thread-safe,
+         * so this runs on the parsing thread; workbooks run in parallel instead.
+         */
+        void evaluateAll(Sheet sheet) {
+            int last = sheet.getLastRowNum();
+            for (int from = sheet.getFirstRowNum(); from <= last; from += EVALUATE_CHUNK_ROWS) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IllegalStateException("Formula evaluation interrupted");
+                }
+                int to = Math.min(last, from + EVALUATE_CHUNK_ROWS - 1);
+                for (int r = from; r <= to; r++) {
+                    Row row = sheet.getRow(r);
+                    if (row == null) continue;
+                    for (Cell cell : row) {
+                        if (cell.getCellType() != CellType.FORMULA) continue;
+                        try {
+                            eval.evaluateFormulaCell(cell);
+                        } catch (RuntimeException ex) {
+                            // Leave the stored result (if any); formulaValue() treats the cell as empty
+                            evaluated.put(keyOf(cell), FAILED);
+                        }
+                    }
                 }
             }
-            if (cell.getCellType() == CellType.NUMERIC) {
-                if (DateUtil.isCellDateFormatted(cell)) return null;
-                return BigDecimal.valueOf(cell.getNumericCellValue());
-            } else if (cell.getCellType() == CellType.STRING) {
-                return parsePlainNumber(cell.getStringCellValue());
-            } else if (cell.getCellType() == CellType.BOOLEAN) {
-                return cell.getBooleanCellValue() ? BigDecimal.ONE : BigDecimal.ZERO;
+        }
+
+        String string(Row r, int c) {
+            if (c < 0) return "";
+            Cell cell = r.getCell(c);
+            if (cell == null) return "";
+            switch (cell.getCellType()) {
+                case STRING:
+                    return cell.getStringCellValue().trim();
+                case BLANK:
+                    return "";
+                case NUMERIC:
+                    return number(cell, cell.getNumericCellValue());
+                case BOOLEAN:
+                    return cell.getBooleanCellValue() ? "TRUE" : "FALSE";
+                case FORMULA: {
+                    CellValue cv = formulaValue(cell);
+                    if (cv == null) return "";
+                    switch (cv.getCellType()) {
+                        case STRING:
+                            return cv.getStringValue().trim();
+                        case NUMERIC:
+                            return number(cell, cv.getNumberValue());
+                        case BOOLEAN:
+                            return cv.getBooleanValue() ? "TRUE" : "FALSE";
+                        default:
+                            return "";
+                    }
+                }
+                default:
+                    return fmt.formatCellValue(cell).trim();
             }
-            return null;
-        } catch (Exception ex) {
-            return null;
         }
-    }
 
-    // Returns 7.5 for a 7.5% cell and 15 for 15%
-    private static BigDecimal getPercent(Row r, Integer c, DataFormatter f, FormulaEvaluator e) {
-        if (c == null) return null;
-        Cell cell = r.getCell(c);
-        if (cell == null) return null;
-
-        try {
-            if (cell.getCellType() == CellType.FORMULA) {
-                CellValue cv = e.evaluate(cell);
-                if (cv == null) return null;
-                if (cv.getCellType() == CellType.NUMERIC) {
-                    BigDecimal v = BigDecimal.valueOf(cv.getNumberValue()); // Excel fraction
-                    String fmt = cell.getCellStyle() != null ? cell.getCellStyle().getDataFormatString() : null;
-                    if (fmt != null && fmt.contains("%")) return v.multiply(BigDecimal.valueOf(100));
-                    // Fallback: known rate column but no % format
-                    return v.compareTo(BigDecimal.ONE) <= 0 ? v.multiply(BigDecimal.valueOf(100)) : v;
-                } else if (cv.getCellType() == CellType.STRING) {
-                    return parsePercentText(cv.getStringValue());
+        // Keep this for general amounts (no percent scaling)
+        BigDecimal decimal(Row r, int c) {
+            if (c < 0) return null;
+            Cell cell = r.getCell(c);
+            if (cell == null) return null;
+
+            switch (cell.getCellType()) {
+                case NUMERIC:
+                    if (styleKind(cell) == STYLE_DATE) return null;
+                    return BigDecimal.valueOf(cell.getNumericCellValue());
+                case STRING:
+                    return ValueParsers.parseNumber(cell.getStringCellValue(), false);
+                case BOOLEAN:
+                    return cell.getBooleanCellValue() ? BigDecimal.ONE : BigDecimal.ZERO;
+                case FORMULA:
+                    CellValue cv = formulaValue(cell);
+                    if (cv == null) return null;
+                    switch (cv.getCellType()) {
+                        case NUMERIC:
+                            if (styleKind(cell) == STYLE_DATE) return null;
+                            return BigDecimal.valueOf(cv.getNumberValue());
+                        case STRING:
+                            return ValueParsers.parseNumber(cv.getStringValue(), false);
+                        case BOOLEAN:
+                            return cv.getBooleanValue() ? BigDecimal.ONE : BigDecimal.ZERO;
+                        default:
+                            return null;
+                    }
+                default:
+                    return null;
+            }
+        }
+
+        // Returns 7.5 for a 7.5% cell and 15 for 15%
+        BigDecimal percent(Row r, int c) {
+            if (c < 0) return null;
+            Cell cell = r.getCell(c);
+            if (cell == null) return null;
+
+            switch (cell.getCellType()) {
+                case NUMERIC: {
+                    byte kind = styleKind(cell);
+                    if (kind == STYLE_DATE) return null;
+                    return scalePercent(cell.getNumericCellValue(), kind);
+                }
+                case STRING:
+                    return ValueParsers.parseNumber(cell.getStringCellValue(), true);
+                case BOOLEAN:
+                    return cell.getBooleanCellValue() ? BigDecimal.valueOf(100) : BigDecimal.ZERO;
+                case FORMULA: {
+                    CellValue cv = formulaValue(cell);
+                    if (cv == null) return null;
+                    if (cv.getCellType() == CellType.NUMERIC) {
+                        return scalePercent(cv.getNumberValue(), styleKind(cell));
+                    } else if (cv.getCellType() == CellType.STRING) {
+                        return ValueParsers.parseNumber(cv.getStringValue(), true);
+                    }
+                    return null;
+                }
+                default:
+                    return null;
+            }
+        }
+
+        LocalDate date(Row r, int c) {
+            if (c < 0) return null;
+            Cell cell = r.getCell(c);
+            if (cell == null) return null;
+
+            switch (cell.getCellType()) {
+                case NUMERIC:
+                    return numericDate(cell, cell.getNumericCellValue());
+                case STRING:
+                    return ValueParsers.parseDate(cell.getStringCellValue());
+                case FORMULA: {
+                    CellValue cv = formulaValue(cell);
+                    if (cv == null) return null;
+                    if (cv.getCellType() == CellType.NUMERIC) return numericDate(cell, cv.getNumberValue());
+                    if (cv.getCellType() == CellType.STRING) return ValueParsers.parseDate(cv.getStringValue());
+                    return null;
                 }
+                default:
+                    return null;
+            }
+        }
+
+        Integer integer(Row r, int c) {
+            if (c < 0) return null;
+            Cell cell = r.getCell(c);
+            if (cell != null && cell.getCellType() == CellType.NUMERIC && styleKind(cell) == STYLE_GENERAL) {
+                double v = cell.getNumericCellValue();
+                if (v == Math.rint(v) && v >= 0 && v <= Integer.MAX_VALUE) return (int) v;
+            }
+            return parseDigits(string(r, c));
+        }
+
+        /**
+         * Value of a formula cell: the result stored in the file unless the
+         * mode is EVALUATE or there is none, otherwise one memoised evaluation.
+         * In EVALUATE_ALL the stored result is the one evaluateAll() wrote,
+         * except for cells it failed on, which still hold the file's stale
+         * result; those are looked up in the memo first.
+         * Returns null for errors and failed evaluations.
+         */
+        private CellValue formulaValue(Cell cell) {
+            if (mode == FormulaMode.EVALUATE_ALL && !evaluated.isEmpty() && evaluated.get(keyOf(cell)) == FAILED) {
                 return null;
             }
-            if (cell.getCellType() == CellType.NUMERIC) {
-                if (DateUtil.isCellDateFormatted(cell)) return null;
-                BigDecimal v = BigDecimal.valueOf(cell.getNumericCellValue());
-                String fmt = cell.getCellStyle() != null ? cell.getCellStyle().getDataFormatString() : null;
-                if (fmt != null && fmt.contains("%")) return v.multiply(BigDecimal.valueOf(100));
-                return v.compareTo(BigDecimal.ONE) <= 0 ? v.multiply(BigDecimal.valueOf(100)) : v;
-            } else if (cell.getCellType() == CellType.STRING) {
-                return parsePercentText(cell.getStringCellValue());
-            } else if (cell.getCellType() == CellType.BOOLEAN) {
-                return cell.getBooleanCellValue() ? BigDecimal.valueOf(100) : BigDecimal.ZERO;
+            if (mode != FormulaMode.EVALUATE && hasCachedResult(cell)) {
+                switch (cell.getCachedFormulaResultType()) {
+                    case NUMERIC:
+                        return new CellValue(cell.getNumericCellValue());
+                    case STRING:
+                        return new CellValue(cell.getStringCellValue());
+                    case BOOLEAN:
+                        return CellValue.valueOf(cell.getBooleanCellValue());
+                    default:
+                        return null;
+                }
             }
-            return null;
-        } catch (Exception ex) {
-            return null;
+            CellValue cv = evaluated.computeIfAbsent(keyOf(cell), k -> {
+                try {
+                    CellValue v = eval.evaluate(cell);
+                    return v != null ? v : FAILED;
+                } catch (RuntimeException ex) {
+                    // Unsupported function or broken reference: treat like an empty cell
+                    return FAILED;
+                }
+            });
+            return cv == FAILED || cv.getCellType() == CellType.ERROR ? null : cv;
         }
-    }
 
-    // Text helpers
-    private static BigDecimal parsePlainNumber(String raw) {
-        if (raw == null) return null;
-        String s = raw.trim();
-        if (s.isEmpty() || s.equalsIgnoreCase("S") || s.equalsIgnoreCase("NA") || s.equals("-")) return null;
-        boolean neg = s.startsWith("(") && s.endsWith(")");
-        if (neg) s = s.substring(1, s.length() - 1);
-        s = s.replace(",", "").replace("−", "-");
-        if (s.endsWith("%")) s = s.substring(0, s.length() - 1).trim(); // just in case
-        if (s.startsWith(".")) s = "0" + s;
-        BigDecimal val = new BigDecimal(s);
-        return neg ? val.negate() : val;
-    }
+        // XSSF formula cells may have no <v> element; HSSF always stores a result
+        private static boolean hasCachedResult(Cell cell) {
+            if (cell instanceof XSSFCell x) return x.getRawValue() != null;
+            return true;
+        }
 
-    private static BigDecimal parsePercentText(String raw) {
-        if (raw == null) return null;
-        String s = raw.trim();
-        if (s.isEmpty() || s.equalsIgnoreCase("S") || s.equalsIgnoreCase("NA") || s.equals("-")) return null;
-        boolean neg = s.startsWith("(") && s.endsWith(")");
-        if (neg) s = s.substring(1, s.length() - 1);
-        s = s.replace(",", "").replace("−", "-").replace("%", "").trim();
-        if (s.startsWith(".")) s = "0" + s;
-        BigDecimal val = new BigDecimal(s); // already 7.5 or 15, not 0.075
-        return neg ? val.negate() : val;
-    }
+        private CellAddressKey keyOf(Cell cell) {
+            return new CellAddressKey(wb.getSheetIndex(cell.getSheet()), cell.getRowIndex(), cell.getColumnIndex());
+        }
 
+        private String number(Cell cell, double v) {
+            byte kind = styleKind(cell);
+            if (kind == STYLE_GENERAL) {
+                // Whole numbers (BE no, HS code, year) print as plain digits in General format
+                if (v == Math.rint(v) && Math.abs(v) < 1e15 && !(v == 0 && 1 / v < 0)) {
+                    return Long.toString((long) v);
+                }
+            }
+            CellStyle style = cell.getCellStyle();
+            if (style == null) return fmt.formatRawCellContents(v, 0, "General").trim();
+            return fmt.formatRawCellContents(v, style.getDataFormat(), style.getDataFormatString()).trim();
+        }
 
+        private LocalDate numericDate(Cell cell, double v) {
+            if (styleKind(cell) == STYLE_DATE && DateUtil.isValidExcelDate(v)) {
+                return DateUtil.getLocalDateTime(v, date1904).toLocalDate();
+            }
+            return ValueParsers.parseDate(number(cell, v));
+        }
 
+        // Workbooks saved by Excel for Mac count serial dates from 1904
+        private static boolean isDate1904(Workbook wb) {
+            if (wb instanceof Date1904Support d) return d.isDate1904();
+            if (wb instanceof HSSFWorkbook h) return h.getInternalWorkbook().isUsing1904DateWindowing();
+            return false;
+        }
 
-    private static LocalDate getDate(Row r, Integer c, DataFormatter f, FormulaEvaluator e) {
-        if (c == null) return null;
-        Cell cell = r.getCell(c);
-        if (cell == null) return null;
-        try {
-            if (cell.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(cell)) {
-                return cell.getLocalDateTimeCellValue().toLocalDate();
+        private byte styleKind(Cell cell) {
+            CellStyle style = cell.getCellStyle();
+            if (style == null) return STYLE_GENERAL;
+            int i = style.getIndex();
+            if (i >= styleKinds.length) return classify(style);
+            byte kind = styleKinds[i];
+            if (kind == STYLE_UNKNOWN) {
+                kind = classify(style);
+                styleKinds[i] = kind;
             }
-            String s = f.formatCellValue(cell, e).trim();
-            if (s.isEmpty()) return null;
-            for (DateTimeFormatter p : DATE_PATTERNS) {
-                try { return LocalDate.parse(s, p); } catch (Exception ignore) {}
+            return kind;
+        }
+
+        private static byte classify(CellStyle style) {
+            String format = style.getDataFormatString();
+            if (format == null || style.getDataFormat() == 0 || "General".equalsIgnoreCase(format)) {
+                return STYLE_GENERAL;
             }
-            return null;
-        } catch (Exception ex) {
-            return null;
+            if (DateUtil.isADateFormat(style.getDataFormat(), format)) return STYLE_DATE;
+            if (format.contains("%")) return STYLE_PERCENT;
+            return STYLE_OTHER;
         }
-    }
 
-    private static Integer getInteger(Row r, Integer c, DataFormatter f, FormulaEvaluator e) {
-        String txt = getString(r, c, f, e).trim();
-        if (txt.isEmpty()) return null;
-        try { return Integer.parseInt(txt.replaceAll("\\D","")); } catch (Exception ex) { return null; }
+        private static BigDecimal scalePercent(double value, byte kind) {
+            BigDecimal v = BigDecimal.valueOf(value); // Excel fraction
+            if (kind == STYLE_PERCENT) return v.multiply(BigDecimal.valueOf(100));
+            // Fallback: known rate column but no % format
+            return v.compareTo(BigDecimal.ONE) <= 0 ? v.multiply(BigDecimal.valueOf(100)) : v;
+        }
     }
 
-    private static StockWiseEligibility parseEligibility(String s) {
-        if (s == null) return null;
-        s = s.trim().toUpperCase();
-        if (s.startsWith("OPEN")) return StockWiseEligibility.OPEN;
-        if (s.startsWith("CLOSE")) return StockWiseEligibility.CLOSED;
-        return null;
+    private record CellAddressKey(int sheet, int row, int column) { }
+
+    private static Integer parseDigits(String s) {
+        long v = 0;
+        int n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                v = v * 10 + (ch - '0');
+                if (v > Integer.MAX_VALUE) return null;
+                n++;
+            }
+        }
+        return n == 0 ? null : (int) v;
     }
 }
@@ -0,0 +1,62 @@
+package com.orpe.consultants.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.orpe.consultants.dto.ImportDataDTO;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Reads import rows from a JSON array or NDJSON (one object per line) body
+ * one object at a time, so only the row being bound is held in memory
+ * however large the payload is. Uses the application's ObjectMapper, so
+ * field and date binding match @RequestBody List&lt;ImportDataDTO&gt;.
+ */
+@Service
+public class ImportJsonReader {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader rowReader;
+
+    public ImportJsonReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.rowReader = objectMapper.readerFor(ImportDataDTO.class);
+    }
+
+    /**
+     * Hands every row to the sink as soon as it is read. The stream is not
+     * closed.
+     */
+    public void streamRows(InputStream in, Consumer<? super ImportDataDTO> sink) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            // The stream belongs to the caller
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            JsonToken first = parser.nextToken();
+            if (first == null) return;
+
+            if (first == JsonToken.START_ARRAY) {
+                JsonToken token;
+                while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                    sink.accept(rowReader.readValue(parser));
+                }
+                if (token != JsonToken.END_ARRAY) {
+                    throw new IOException("Expected an import row object at " + parser.currentLocation());
+                }
+                return;
+            }
+
+            // NDJSON, or any whitespace-separated sequence of objects
+            try (MappingIterator<ImportDataDTO> rows = rowReader.readValues(parser)) {
+                while (rows.hasNextValue()) {
+                    sink.accept(rows.nextValue());
+                }
+            }
+        }
+    }
+}
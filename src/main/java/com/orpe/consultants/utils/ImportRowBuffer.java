@@ -0,0 +1,389 @@
+package com.orpe.consultants.utils;
+
+import com.orpe.consultants.dto.ImportDataDTO;
+import com.orpe.consultants.dto.StockWiseEligibility;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Column-oriented store for staged import rows (preview, validation,
+ * commit). Strings are dictionary encoded while their values repeat (port
+ * code, UOM, country, supplier), decimals are kept as unscaled longs plus a
+ * scale, dates as epoch days. get(i) returns a read-only ImportDataDTO view
+ * that decodes on access.
+ *
+ * Rows can only be appended. Not thread-safe while rows are being added.
+ */
+public class ImportRowBuffer extends AbstractList<ImportDataDTO> {
+
+    // String columns
+    private static final int BE_NO = 0;
+    private static final int BE_MONTH = 1;
+    private static final int CLAIM_REF_NO = 2;
+    private static final int CLAIM_YEAR = 3;
+    private static final int PORT_CODE = 4;
+    private static final int COUNTRY_OF_ORIGIN = 5;
+    private static final int SUPPLIER = 6;
+    private static final int ITCHS_CODE = 7;
+    private static final int ITEM_DESCRIPTION = 8;
+    private static final int BOM_PART_NO = 9;
+    private static final int ALT_BOE_PART_NO = 10;
+    private static final int DBK_PART_NO = 11;
+    private static final int UOM = 12;
+    private static final int NOTN_NO = 13;
+    private static final int NOTN_ELIGIBILITY = 14;
+    private static final int STRING_COLUMNS = 15;
+
+    // Decimal columns
+    private static final int QUANTITY = 0;
+    private static final int ASSESSABLE_VALUE = 1;
+    private static final int BCD_RATE = 2;
+    private static final int BCD = 3;
+    private static final int SWS_RATE = 4;
+    private static final int SWS = 5;
+    private static final int ADD_RATE = 6;
+    private static final int ADD_DUTY = 7;
+    private static final int IGST_RATE = 8;
+    private static final int IGST = 9;
+    private static final int TOTAL_DUTY = 10;
+    private static final int QTY_OPENING_BALANCE = 11;
+    private static final int QTY_USED = 12;
+    private static final int CLOSING_BALANCE = 13;
+    private static final int DUTY_CLAIMED_AMT = 14;
+    private static final int DECIMAL_COLUMNS = 15;
+
+    private static final StockWiseEligibility[] ELIGIBILITY = StockWiseEligibility.values();
+
+    private final StringColumn[] strings = new StringColumn[STRING_COLUMNS];
+    private final DecimalColumn[] decimals = new DecimalColumn[DECIMAL_COLUMNS];
+    private long[] importIds;
+    private int[] beDates;
+    private int[] beYears;
+    private byte[] eligibility;
+    // Nulls of the primitive columns above
+    private final BitSet nullImportIds = new BitSet();
+    private final BitSet nullBeDates = new BitSet();
+    private final BitSet nullBeYears = new BitSet();
+    private int size;
+
+    public ImportRowBuffer() {
+        this(1024);
+    }
+
+    public ImportRowBuffer(int initialCapacity) {
+        int cap = Math.max(16, initialCapacity);
+        for (int i = 0; i < STRING_COLUMNS; i++) strings[i] = new StringColumn(cap);
+        for (int i = 0; i < DECIMAL_COLUMNS; i++) decimals[i] = new DecimalColumn(cap);
+        importIds = new long[cap];
+        beDates = new int[cap];
+        beYears = new int[cap];
+        eligibility = new byte[cap];
+    }
+
+    public static ImportRowBuffer of(Collection<? extends ImportDataDTO> rows) {
+        ImportRowBuffer buffer = new ImportRowBuffer(rows.size());
+        buffer.addAll(rows);
+        return buffer;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public ImportDataDTO get(int index) {
+        Objects.checkIndex(index, size);
+        return new RowView(this, index);
+    }
+
+    @Override
+    public boolean add(ImportDataDTO r) {
+        int i = size;
+        ensureCapacity(i + 1);
+
+        strings[BE_NO].set(i, r.getBeNo());
+        strings[BE_MONTH].set(i, r.getBeMonth());
+        strings[CLAIM_REF_NO].set(i, r.getClaimRefNo());
+        strings[CLAIM_YEAR].set(i, r.getClaimYear());
+        strings[PORT_CODE].set(i, r.getPortCode());
+        strings[COUNTRY_OF_ORIGIN].set(i, r.getCountryOfOrigin());
+        strings[SUPPLIER].set(i, r.getSupplierNameAddress());
+        strings[ITCHS_CODE].set(i, r.getItchsCode());
+        strings[ITEM_DESCRIPTION].set(i, r.getItemDescription());
+        strings[BOM_PART_NO].set(i, r.getBomPartNo());
+        strings[ALT_BOE_PART_NO].set(i, r.getAltBoePartNo());
+        strings[DBK_PART_NO].set(i, r.getDbkPartNo());
+        strings[UOM].set(i, r.getUom());
+        strings[NOTN_NO].set(i, r.getNotnNo());
+        strings[NOTN_ELIGIBILITY].set(i, r.getNotnEligibility());
+
+        decimals[QUANTITY].set(i, r.getQuantity());
+        decimals[ASSESSABLE_VALUE].set(i, r.getAssessableValue());
+        decimals[BCD_RATE].set(i, r.getBcdRate());
+        decimals[BCD].set(i, r.getBcd());
+        decimals[SWS_RATE].set(i, r.getSwsRate());
+        decimals[SWS].set(i, r.getSws());
+        decimals[ADD_RATE].set(i, r.getAddRate());
+        decimals[ADD_DUTY].set(i, r.getAddDuty());
+        decimals[IGST_RATE].set(i, r.getIgstRate());
+        decimals[IGST].set(i, r.getIgst());
+        decimals[TOTAL_DUTY].set(i, r.getTotalDuty());
+        decimals[QTY_OPENING_BALANCE].set(i, r.getQtyOpeningBalance());
+        decimals[QTY_USED].set(i, r.getQtyUsed());
+        decimals[CLOSING_BALANCE].set(i, r.getClosingBalance());
+        decimals[DUTY_CLAIMED_AMT].set(i, r.getDutyClaimedAmt());
+
+        if (r.getImportId() != null) importIds[i] = r.getImportId(); else nullImportIds.set(i);
+        if (r.getBeDate() != null) beDates[i] = (int) r.getBeDate().toEpochDay(); else nullBeDates.set(i);
+        if (r.getBeYear() != null) beYears[i] = r.getBeYear(); else nullBeYears.set(i);
+        eligibility[i] = r.getStockWiseEligibility() != null ? (byte) r.getStockWiseEligibility().ordinal() : -1;
+
+        size++;
+        modCount++;
+        return true;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= importIds.length) return;
+        int cap = Math.max(needed, importIds.length + (importIds.length >> 1));
+        for (StringColumn c : strings) c.grow(cap);
+        for (DecimalColumn c : decimals) c.grow(cap);
+        importIds = Arrays.copyOf(importIds, cap);
+        beDates = Arrays.copyOf(beDates, cap);
+        beYears = Arrays.copyOf(beYears, cap);
+        eligibility = Arrays.copyOf(eligibility, cap);
+    }
+
+    private String string(int column, int row) {
+        return strings[column].get(row);
+    }
+
+    private BigDecimal decimal(int column, int row) {
+        return decimals[column].get(row);
+    }
+
+    /**
+     * Dictionary-encoded strings. A column whose values hardly repeat (BE
+     * no, item description) switches to a UTF-8 byte arena once it is clear
+     * the dictionary costs more than it saves.
+     */
+    private static final class StringColumn {
+        private static final int CHECK_AFTER = 1024;
+
+        private int[] codes;
+        private List<String> dictionary = new ArrayList<>();
+        private Map<String, Integer> index = new HashMap<>();
+        // Arena mode: bytes of row i are data[ends[i - 1] .. ends[i]), null rows are flagged in nulls
+        private byte[] data;
+        private int[] ends;
+        private BitSet nulls;
+        private int rows;
+
+        StringColumn(int cap) {
+            codes = new int[cap];
+        }
+
+        void set(int row, String value) {
+            rows = row + 1;
+            if (data != null) {
+                append(row, value);
+                return;
+            }
+            if (value == null) {
+                codes[row] = -1;
+                return;
+            }
+            Integer code = index.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(value);
+                index.put(value, code);
+            }
+            codes[row] = code;
+            if (rows >= CHECK_AFTER && rows == Integer.highestOneBit(rows) && dictionary.size() > rows / 2) {
+                toArena();
+            }
+        }
+
+        String get(int row) {
+            if (data == null) {
+                int code = codes[row];
+                return code < 0 ? null : dictionary.get(code);
+            }
+            if (nulls.get(row)) return null;
+            int start = row == 0 ? 0 : ends[row - 1];
+            return new String(data, start, ends[row] - start, StandardCharsets.UTF_8);
+        }
+
+        void grow(int cap) {
+            if (data != null) ends = Arrays.copyOf(ends, cap);
+            else codes = Arrays.copyOf(codes, cap);
+        }
+
+        private void append(int row, String value) {
+            int start = row == 0 ? 0 : ends[row - 1];
+            if (value == null) {
+                nulls.set(row);
+                ends[row] = start;
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (start + bytes.length > data.length) {
+                data = Arrays.copyOf(data, Math.max(start + bytes.length, data.length + (data.length >> 1)));
+            }
+            System.arraycopy(bytes, 0, data, start, bytes.length);
+            ends[row] = start + bytes.length;
+        }
+
+        private void toArena() {
+            List<String> dict = dictionary;
+            int[] oldCodes = codes;
+            int filled = rows;
+            ends = new int[oldCodes.length];
+            nulls = new BitSet();
+            data = new byte[Math.max(1024, filled * 16)];
+            codes = null;
+            index = null;
+            dictionary = null;
+            for (int i = 0; i < filled; i++) {
+                append(i, oldCodes[i] < 0 ? null : dict.get(oldCodes[i]));
+            }
+        }
+    }
+
+    /**
+     * Decimals as unscaled long + scale, so 12.50 stays 12.50. Values that
+     * do not fit (more than 18 digits, odd scales) go to a side map.
+     */
+    private static final class DecimalColumn {
+        private static final byte NULL = Byte.MIN_VALUE;
+        private static final byte WIDE = Byte.MIN_VALUE + 1;
+
+        private long[] unscaled;
+        private byte[] scales;
+        private Map<Integer, BigDecimal> wide;
+
+        DecimalColumn(int cap) {
+            unscaled = new long[cap];
+            scales = new byte[cap];
+        }
+
+        void set(int row, BigDecimal value) {
+            if (value == null) {
+                scales[row] = NULL;
+            } else if (value.unscaledValue().bitLength() < 64 && value.scale() > WIDE && value.scale() <= Byte.MAX_VALUE) {
+                unscaled[row] = value.unscaledValue().longValue();
+                scales[row] = (byte) value.scale();
+            } else {
+                if (wide == null) wide = new HashMap<>();
+                wide.put(row, value);
+                scales[row] = WIDE;
+            }
+        }
+
+        BigDecimal get(int row) {
+            byte scale = scales[row];
+            if (scale == NULL) return null;
+            if (scale == WIDE) return wide.get(row);
+            return BigDecimal.valueOf(unscaled[row], scale);
+        }
+
+        void grow(int cap) {
+            unscaled = Arrays.copyOf(unscaled, cap);
+            scales = Arrays.copyOf(scales, cap);
+        }
+    }
+
+    /** Read-only ImportDataDTO backed by one row of the buffer. */
+    public static final class RowView extends ImportDataDTO {
+        private final ImportRowBuffer buffer;
+        private final int row;
+
+        private RowView(ImportRowBuffer buffer, int row) {
+            this.buffer = buffer;
+            this.row = row;
+        }
+
+        @Override public Long getImportId() { return buffer.nullImportIds.get(row) ? null : buffer.importIds[row]; }
+        @Override public String getBeNo() { return buffer.string(BE_NO, row); }
+        @Override public LocalDate getBeDate() { return buffer.nullBeDates.get(row) ? null : LocalDate.ofEpochDay(buffer.beDates[row]); }
+        @Override public String getBeMonth() { return buffer.string(BE_MONTH, row); }
+        @Override public Integer getBeYear() { return buffer.nullBeYears.get(row) ? null : buffer.beYears[row]; }
+        @Override public String getClaimRefNo() { return buffer.string(CLAIM_REF_NO, row); }
+        @Override public String getClaimYear() { return buffer.string(CLAIM_YEAR, row); }
+        @Override public String getPortCode() { return buffer.string(PORT_CODE, row); }
+        @Override public String getCountryOfOrigin() { return buffer.string(COUNTRY_OF_ORIGIN, row); }
+        @Override public String getSupplierNameAddress() { return buffer.string(SUPPLIER, row); }
+        @Override public String getItchsCode() { return buffer.string(ITCHS_CODE, row); }
+        @Override public String getItemDescription() { return buffer.string(ITEM_DESCRIPTION, row); }
+        @Override public String getBomPartNo() { return buffer.string(BOM_PART_NO, row); }
+        @Override public String getAltBoePartNo() { return buffer.string(ALT_BOE_PART_NO, row); }
+        @Override public String getDbkPartNo() { return buffer.string(DBK_PART_NO, row); }
+        @Override public BigDecimal getQuantity() { return buffer.decimal(QUANTITY, row); }
+        @Override public String getUom() { return buffer.string(UOM, row); }
+        @Override public BigDecimal getAssessableValue() { return buffer.decimal(ASSESSABLE_VALUE, row); }
+        @Override public BigDecimal getBcdRate() { return buffer.decimal(BCD_RATE, row); }
+        @Override public BigDecimal getBcd() { return buffer.decimal(BCD, row); }
+        @Override public BigDecimal getSwsRate() { return buffer.decimal(SWS_RATE, row); }
+        @Override public BigDecimal getSws() { return buffer.decimal(SWS, row); }
+        @Override public BigDecimal getAddRate() { return buffer.decimal(ADD_RATE, row); }
+        @Override public BigDecimal getAddDuty() { return buffer.decimal(ADD_DUTY, row); }
+        @Override public BigDecimal getIgstRate() { return buffer.decimal(IGST_RATE, row); }
+        @Override public BigDecimal getIgst() { return buffer.decimal(IGST, row); }
+        @Override public BigDecimal getTotalDuty() { return buffer.decimal(TOTAL_DUTY, row); }
+        @Override public String getNotnNo() { return buffer.string(NOTN_NO, row); }
+        @Override public String getNotnEligibility() { return buffer.string(NOTN_ELIGIBILITY, row); }
+        @Override public BigDecimal getQtyOpeningBalance() { return buffer.decimal(QTY_OPENING_BALANCE, row); }
+        @Override public BigDecimal getQtyUsed() { return buffer.decimal(QTY_USED, row); }
+        @Override public BigDecimal getClosingBalance() { return buffer.decimal(CLOSING_BALANCE, row); }
+        @Override public StockWiseEligibility getStockWiseEligibility() {
+            byte e = buffer.eligibility[row];
+            return e < 0 ? null : ELIGIBILITY[e];
+        }
+        @Override public BigDecimal getDutyClaimedAmt() { return buffer.decimal(DUTY_CLAIMED_AMT, row); }
+
+        // Staged rows are immutable; copy with ImportDataDTO.builder() to change one
+        @Override public void setImportId(Long v) { throw readOnly(); }
+        @Override public void setBeNo(String v) { throw readOnly(); }
+        @Override public void setBeDate(LocalDate v) { throw readOnly(); }
+        @Override public void setBeMonth(String v) { throw readOnly(); }
+        @Override public void setBeYear(Integer v) { throw readOnly(); }
+        @Override public void setClaimRefNo(String v) { throw readOnly(); }
+        @Override public void setClaimYear(String v) { throw readOnly(); }
+        @Override public void setPortCode(String v) { throw readOnly(); }
+        @Override public void setCountryOfOrigin(String v) { throw readOnly(); }
+        @Override public void setSupplierNameAddress(String v) { throw readOnly(); }
+        @Override public void setItchsCode(String v) { throw readOnly(); }
+        @Override public void setItemDescription(String v) { throw readOnly(); }
+        @Override public void setBomPartNo(String v) { throw readOnly(); }
+        @Override public void setAltBoePartNo(String v) { throw readOnly(); }
+        @Override public void setDbkPartNo(String v) { throw readOnly(); }
+        @Override public void setQuantity(BigDecimal v) { throw readOnly(); }
+        @Override public void setUom(String v) { throw readOnly(); }
+        @Override public void setAssessableValue(BigDecimal v) { throw readOnly(); }
+        @Override public void setBcdRate(BigDecimal v) { throw readOnly(); }
+        @Override public void setBcd(BigDecimal v) { throw readOnly(); }
+        @Override public void setSwsRate(BigDecimal v) { throw readOnly(); }
+        @Override public void setSws(BigDecimal v) { throw readOnly(); }
+        @Override public void setAddRate(BigDecimal v) { throw readOnly(); }
+        @Override public void setAddDuty(BigDecimal v) { throw readOnly(); }
+        @Override public void setIgstRate(BigDecimal v) { throw readOnly(); }
+        @Override public void setIgst(BigDecimal v) { throw readOnly(); }
+        @Override public void setTotalDuty(BigDecimal v) { throw readOnly(); }
+        @Override public void setNotnNo(String v) { throw readOnly(); }
+        @Override public void setNotnEligibility(String v) { throw readOnly(); }
+        @Override public void setQtyOpeningBalance(BigDecimal v) { throw readOnly(); }
+        @Override public void setQtyUsed(BigDecimal v) { throw readOnly(); }
+        @Override public void setClosingBalance(BigDecimal v) { throw readOnly(); }
+        @Override public void setStockWiseEligibility(StockWiseEligibility v) { throw readOnly(); }
+        @Override public void setDutyClaimedAmt(BigDecimal v) { throw readOnly(); }
+
+        private static UnsupportedOperationException readOnly() {
+            return new UnsupportedOperationException("Staged import rows are read-only");
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.orpe.consultants.utils;
+
+import com.orpe.consultants.dto.ImportDataDTO;
+import com.orpe.consultants.dto.StockWiseEligibility;
+import com.orpe.consultants.exception.FileProcessingException;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Sorts parsed import rows with bounded memory. Rows are buffered up to
+ * maxBufferedRows; a full buffer is sorted and spilled to a temp file as a
+ * binary run. forEachSorted() k-way merges the runs with what is left in
+ * the buffer, so only one row per run is held while reading.
+ *
+ * Not thread-safe. Close it to delete the run files.
+ */
+public class ImportRowSorter implements Closeable {
+
+    private static final int IO_BUFFER = 64 * 1024;
+
+    private final Comparator<ImportDataDTO> order;
+    private final int maxBufferedRows;
+    private final List<ImportDataDTO> buffer;
+    private final List<Path> runs = new ArrayList<>();
+    private long size;
+
+    public ImportRowSorter(Comparator<ImportDataDTO> order, int maxBufferedRows) {
+        this.order = order;
+        this.maxBufferedRows = Math.max(1, maxBufferedRows);
+        this.buffer = new ArrayList<>(Math.min(this.maxBufferedRows, 1024));
+    }
+
+    public void add(ImportDataDTO row) {
+        buffer.add(row);
+        size++;
+        if (buffer.size() >= maxBufferedRows) spill();
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int spilledRuns() {
+        return runs.size();
+    }
+
+    /** Feeds every row to the sink in order; can be called more than once. */
+    public void forEachSorted(Consumer<? super ImportDataDTO> sink) {
+        buffer.sort(order);
+        if (runs.isEmpty()) {
+            buffer.forEach(sink);
+            return;
+        }
+
+        List<RunReader> readers = new ArrayList<>(runs.size());
+        try {
+            for (Path run : runs) {
+                readers.add(new RunReader(run));
+            }
+            // Ties go to the older run, which keeps the sort stable
+            PriorityQueue<Head> heap = new PriorityQueue<>(runs.size() + 1, (a, b) -> {
+                int c = order.compare(a.row, b.row);
+                return c != 0 ? c : Integer.compare(a.source, b.source);
+            });
+            for (int i = 0; i < readers.size(); i++) {
+                ImportDataDTO first = readers.get(i).next();
+                if (first != null) heap.add(new Head(first, i));
+            }
+            int memorySource = readers.size();
+            Iterator<ImportDataDTO> memory = buffer.iterator();
+            if (memory.hasNext()) heap.add(new Head(memory.next(), memorySource));
+
+            while (!heap.isEmpty()) {
+                Head head = heap.poll();
+                sink.accept(head.row);
+                ImportDataDTO next = head.source == memorySource
+                    ? (memory.hasNext() ? memory.next() : null)
+                    : readers.get(head.source).next();
+                if (next != null) heap.add(new Head(next, head.source));
+            }
+        } catch (IOException e) {
+            throw new FileProcessingException("Failed to merge sorted import runs: " + e.getMessage(), e);
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    public List<ImportDataDTO> toList() {
+        List<ImportDataDTO> out = new ArrayList<>((int) Math.min(size, Integer.MAX_VALUE));
+        forEachSorted(out::add);
+        return out;
+    }
+
+    @Override
+    public void close() {
+        for (Path run : runs) {
+            try {
+                Files.deleteIfExists(run);
+            } catch (IOException e) {
+                run.toFile().deleteOnExit();
+            }
+        }
+        runs.clear();
+        buffer.clear();
+    }
+
+    private void spill() {
+        buffer.sort(order);
+        Path run = null;
+        try {
+            run = Files.createTempFile("orpe-import-run-", ".bin");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(run), IO_BUFFER))) {
+                out.writeInt(buffer.size());
+                for (ImportDataDTO row : buffer) {
+                    RowCodec.write(out, row);
+                }
+            }
+            runs.add(run);
+            buffer.clear();
+        } catch (IOException e) {
+            if (run != null) run.toFile().delete();
+            throw new FileProcessingException("Failed to spill import rows to disk: " + e.getMessage(), e);
+        }
+    }
+
+    private record Head(ImportDataDTO row, int source) { }
+
+    private static final class RunReader {
+        private final DataInputStream in;
+        private int remaining;
+
+        RunReader(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), IO_BUFFER));
+            this.remaining = in.readInt();
+        }
+
+        ImportDataDTO next() throws IOException {
+            if (remaining == 0) return null;
+            remaining--;
+            return RowCodec.read(in);
+        }
+
+        void close() {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+                // read-only temp file
+            }
+        }
+    }
+
+    /**
+     * Binary row layout: a null bitmap (one bit per field, 8 bytes) followed
+     * by the non-null fields in declaration order. Strings are UTF-8 with a
+     * length prefix, decimals are scale + unscaled long (or bytes when they
+     * do not fit), dates are epoch days.
+     */
+    static final class RowCodec {
+
+        private static final StockWiseEligibility[] ELIGIBILITY = StockWiseEligibility.values();
+
+        private RowCodec() { }
+
+        static void write(DataOutputStream out, ImportDataDTO r) throws IOException {
+            Object[] v = values(r);
+            long nulls = 0;
+            for (int i = 0; i < v.length; i++) {
+                if (v[i] == null) nulls |= 1L << i;
+            }
+            out.writeLong(nulls);
+            for (Object o : v) {
+                if (o == null) continue;
+                if (o instanceof String s) {
+                    byte[] b = s.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(b.length);
+                    out.write(b);
+                } else if (o instanceof BigDecimal d) {
+                    writeDecimal(out, d);
+                } else if (o instanceof LocalDate d) {
+                    out.writeLong(d.toEpochDay());
+                } else if (o instanceof Integer i) {
+                    out.writeInt(i);
+                } else if (o instanceof Long l) {
+                    out.writeLong(l);
+                } else if (o instanceof StockWiseEligibility e) {
+                    out.writeByte(e.ordinal());
+                }
+            }
+        }
+
+        static ImportDataDTO read(DataInputStream in) throws IOException {
+            long nulls = in.readLong();
+            Reader f = new Reader(in, nulls);
+            return ImportDataDTO.builder()
+                .importId(f.lng())
+                .beNo(f.str())
+                .beDate(f.date())
+                .beMonth(f.str())
+                .beYear(f.integer())
+                .claimRefNo(f.str())
+                .claimYear(f.str())
+                .portCode(f.str())
+                .countryOfOrigin(f.str())
+                .supplierNameAddress(f.str())
+                .itchsCode(f.str())
+                .itemDescription(f.str())
+                .bomPartNo(f.str())
+                .altBoePartNo(f.str())
+                .dbkPartNo(f.str())
+                .quantity(f.dec())
+                .uom(f.str())
+                .assessableValue(f.dec())
+                .bcdRate(f.dec())
+                .bcd(f.dec())
+                .swsRate(f.dec())
+                .sws(f.dec())
+                .addRate(f.dec())
+                .addDuty(f.dec())
+                .igstRate(f.dec())
+                .igst(f.dec())
+                .totalDuty(f.dec())
+                .notnNo(f.str())
+                .notnEligibility(f.str())
+                .qtyOpeningBalance(f.dec())
+                .qtyUsed(f.dec())
+                .closingBalance(f.dec())
+                .stockWiseEligibility(f.eligibility())
+                .dutyClaimedAmt(f.dec())
+                .build();
+        }
+
+        // Same order as read()
+        private static Object[] values(ImportDataDTO r) {
+            return new Object[] {
+                r.getImportId(), r.getBeNo(), r.getBeDate(), r.getBeMonth(), r.getBeYear(),
+                r.getClaimRefNo(), r.getClaimYear(), r.getPortCode(), r.getCountryOfOrigin(),
+                r.getSupplierNameAddress(), r.getItchsCode(), r.getItemDescription(), r.getBomPartNo(),
+                r.getAltBoePartNo(), r.getDbkPartNo(), r.getQuantity(), r.getUom(), r.getAssessableValue(),
+                r.getBcdRate(), r.getBcd(), r.getSwsRate(), r.getSws(), r.getAddRate(), r.getAddDuty(),
+                r.getIgstRate(), r.getIgst(), r.getTotalDuty(), r.getNotnNo(), r.getNotnEligibility(),
+                r.getQtyOpeningBalance(), r.getQtyUsed(), r.getClosingBalance(), r.getStockWiseEligibility(),
+                r.getDutyClaimedAmt()
+            };
+        }
+
+        private static void writeDecimal(DataOutputStream out, BigDecimal d) throws IOException {
+            BigInteger unscaled = d.unscaledValue();
+            out.writeInt(d.scale());
+            if (unscaled.bitLength() < 64) {
+                out.writeByte(0);
+                out.writeLong(unscaled.longValue());
+            } else {
+                byte[] b = unscaled.toByteArray();
+                out.writeByte(b.length);
+                out.write(b);
+            }
+        }
+
+        private static final class Reader {
+            private final DataInputStream in;
+            private final long nulls;
+            private int field;
+
+            Reader(DataInputStream in, long nulls) {
+                this.in = in;
+                this.nulls = nulls;
+            }
+
+            private boolean present() {
+                return (nulls & (1L << field++)) == 0;
+            }
+
+            String str() throws IOException {
+                if (!present()) return null;
+                byte[] b = new byte[in.readInt()];
+                in.readFully(b);
+                return new String(b, StandardCharsets.UTF_8);
+            }
+
+            BigDecimal dec() throws IOException {
+                if (!present()) return null;
+                int scale = in.readInt();
+                int len = in.readUnsignedByte();
+                if (len == 0) return BigDecimal.valueOf(in.readLong(), scale);
+                byte[] b = new byte[len];
+                in.readFully(b);
+                return new BigDecimal(new BigInteger(b), scale);
+            }
+
+            LocalDate date() throws IOException {
+                return present() ? LocalDate.ofEpochDay(in.readLong()) : null;
+            }
+
+            Integer integer() throws IOException {
+                return present() ? in.readInt() : null;
+            }
+
+            Long lng() throws IOException {
+                return present() ? in.readLong() : null;
+            }
+
+            StockWiseEligibility eligibility() throws IOException {
+                return present() ? ELIGIBILITY[in.readByte()] : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.orpe.consultants.utils;
+
+import com.orpe.consultants.dto.ImportDataDTO;
+import com.orpe.consultants.exception.FileProcessingException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Parses several import workbooks (or a zip of them) concurrently and merges
+ * the rows in ImportDataExtractor.BE_DATE_ORDER.
+ *
+ * Each workbook is parsed on one pool thread, all its import sheets included
+ * (POI workbooks are not thread-safe). A workbook may only start once its
+ * estimated in-memory size fits into the global budget, so a large zip cannot
+ * load every workbook at the same time.
+ *
+ * With spring.threads.virtual.enabled=true on Java 21+ the workbooks run on
+ * virtual threads (still capped at the configured thread count, parsing is
+ * CPU bound); otherwise on a fixed platform-thread pool. The virtual-thread
+ * executor enforces its cap by blocking the submitting request thread, so
+ * a submission can fail with an interrupt as well as a rejection.
+ */
+@Service
+@Slf4j
+public class ParallelImportExtractor {
+
+    private static final long MB = 1024L * 1024L;
+
+    private final ImportDataExtractor extractor;
+    private final Executor pool;
+    private final AutoCloseable poolCloser;
+    private final Semaphore memoryBudget;
+    private final int budgetMb;
+    private final int inflation;
+
+    public ParallelImportExtractor(
+            ImportDataExtractor extractor,
+            @Value("${orpe.import.parse.threads:0}") int threads,
+            @Value("${orpe.import.parse.memory-budget-mb:512}") int budgetMb,
+            @Value("${orpe.import.parse.inflation:10}") int inflation,
+            Environment environment) {
+        this.extractor = extractor;
+        this.budgetMb = Math.max(1, budgetMb);
+        this.inflation = Math.max(1, inflation);
+        this.memoryBudget = new Semaphore(this.budgetMb, true);
+
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("import-parse-");
+            virtual.setVirtualThreads(true);
+            virtual.setConcurrencyLimit(size);
+            this.pool = virtual;
+            this.poolCloser = virtual;
+        } else {
+            AtomicInteger seq = new AtomicInteger();
+            ExecutorService fixed = Executors.newFixedThreadPool(size, r -> {
+                Thread t = new Thread(r, "import-parse-" + seq.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            this.pool = fixed;
+            this.poolCloser = fixed::shutdownNow;
+        }
+        log.info("Import parsing on {} {} threads", size, pool instanceof SimpleAsyncTaskExecutor ? "virtual" : "platform");
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        poolCloser.close();
+    }
+
+    public List<ImportDataDTO> parse(List<MultipartFile> files) {
+        List<File> tempFiles = new ArrayList<>();
+        List<ZipFile> zips = new ArrayList<>();
+        try {
+            List<Source> sources = new ArrayList<>();
+            for (MultipartFile file : files) {
+                if (file == null || file.isEmpty()) continue;
+                String name = Objects.requireNonNullElse(file.getOriginalFilename(), "upload");
+                if (name.toLowerCase(Locale.ROOT).endsWith(".zip")) {
+                    File tmp = Files.createTempFile("orpe-import-", ".zip").toFile();
+                    tempFiles.add(tmp);
+                    file.transferTo(tmp);
+                    ZipFile zip = new ZipFile(tmp);
+                    zips.add(zip);
+                    addZipEntries(zip, name, sources);
+                } else {
+                    sources.add(new Source(name, file.getSize(), file::getInputStream));
+                }
+            }
+            return parseAll(sources);
+        } catch (IOException e) {
+            throw new FileProcessingException("Failed to read uploaded files: " + e.getMessage(), e);
+        } finally {
+            for (ZipFile zip : zips) {
+                try {
+                    zip.close();
+                } catch (IOException ignored) {
+                    // temp file is deleted below anyway
+                }
+            }
+            for (File tmp : tempFiles) {
+                if (!tmp.delete()) tmp.deleteOnExit();
+            }
+        }
+    }
+
+    // Free memory budget in MB; all of it once no parse is running
+    int availableBudgetMb() {
+        return memoryBudget.availablePermits();
+    }
+
+    private static void addZipEntries(ZipFile zip, String zipName, List<Source> sources) {
+        Enumeration<? extends ZipEntry> entries = zip.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            String entryName = entry.getName();
+            String lower = entryName.toLowerCase(Locale.ROOT);
+            // Skip folders and macOS resource forks
+            if (entry.isDirectory() || lower.contains("__macosx/")) continue;
+            if (!lower.endsWith(".xlsx") && !lower.endsWith(".xls")) continue;
+            sources.add(new Source(zipName + "!" + entryName, Math.max(entry.getSize(), 0),
+                () -> zip.getInputStream(entry)));
+        }
+    }
+
+    private List<ImportDataDTO> parseAll(List<Source> sources) {
+        if (sources.isEmpty()) return new ImportRowBuffer();
+        if (sources.size() == 1) return parseOne(sources.get(0));
+
+        List<CompletableFuture<List<ImportDataDTO>>> futures = new ArrayList<>(sources.size());
+        // Set once the result is lost; tasks that have not started yet skip their workbook
+        AtomicBoolean aborted = new AtomicBoolean();
+        try {
+            for (Source source : sources) {
+                // Wait on the request thread until the workbook fits into the budget
+                int permits = permitsFor(source);
+                memoryBudget.acquire(permits);
+                try {
+                    futures.add(CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return aborted.get() ? List.<ImportDataDTO>of() : parseOne(source);
+                        } finally {
+                            memoryBudget.release(permits);
+                        }
+                    }, pool));
+                } catch (RuntimeException e) {
+                    // RejectedExecutionException from a closed pool, or IllegalStateException when the
+                    // wait for the virtual-thread executor's concurrency limit is interrupted
+                    memoryBudget.release(permits);
+                    aborted.set(true);
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new FileProcessingException("Import parsing interrupted", e);
+                    }
+                    throw e;
+                }
+            }
+
+            List<List<ImportDataDTO>> parts = new ArrayList<>(futures.size());
+            for (CompletableFuture<List<ImportDataDTO>> f : futures) {
+                parts.add(f.get());
+            }
+            return merge(parts);
+        } catch (ExecutionException e) {
+            // Not cancelled: a task cancelled before it ran would never give its permits back.
+            // Every submitted task runs its finally; the ones still queued return at once.
+            aborted.set(true);
+            Throwable cause = e.getCause();
+            if (cause instanceof FileProcessingException fpe) throw fpe;
+            throw new FileProcessingException("Failed to parse import files: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            aborted.set(true);
+            Thread.currentThread().interrupt();
+            throw new FileProcessingException("Import parsing interrupted", e);
+        }
+    }
+
+    private List<ImportDataDTO> parseOne(Source source) {
+        long start = System.nanoTime();
+        try (InputStream in = source.opener().open()) {
+            List<ImportDataDTO> rows = extractor.parseImportSheets(in);
+            log.debug("Parsed {} rows from {} in {} ms", rows.size(), source.name(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return rows;
+        } catch (Exception e) {
+            throw new FileProcessingException("Failed to parse " + source.name() + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Compressed size times a rough inflation factor, capped so one big workbook can still run alone
+    private int permitsFor(Source source) {
+        long estimate = (source.size() * inflation + MB - 1) / MB;
+        return (int) Math.max(1, Math.min(budgetMb, estimate));
+    }
+
+    // k-way merge of lists that are each already in BE_DATE_ORDER
+    static List<ImportDataDTO> merge(List<List<ImportDataDTO>> parts) {
+        int total = 0;
+        for (List<ImportDataDTO> p : parts) total += p.size();
+        ImportRowBuffer out = new ImportRowBuffer(total);
+
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(Math.max(1, parts.size()),
+            (a, b) -> {
+                int c = ImportDataExtractor.BE_DATE_ORDER.compare(a.head(), b.head());
+                // Keep file order for equal dates
+                return c != 0 ? c : Integer.compare(a.part, b.part);
+            });
+        for (int i = 0; i < parts.size(); i++) {
+            if (!parts.get(i).isEmpty()) heap.add(new Cursor(parts.get(i), i));
+        }
+        while (!heap.isEmpty()) {
+            Cursor cur = heap.poll();
+            out.add(cur.head());
+            if (++cur.pos < cur.rows.size()) heap.add(cur);
+        }
+        return out;
+    }
+
+    @FunctionalInterface
+    private interface StreamOpener {
+        InputStream open() throws IOException;
+    }
+
+    private record Source(String name, long size, StreamOpener opener) { }
+
+    private static final class Cursor {
+        final List<ImportDataDTO> rows;
+        final int part;
+        int pos;
+
+        Cursor(List<ImportDataDTO> rows, int part) {
+            this.rows = rows;
+            this.part = part;
+        }
+
+        ImportDataDTO head() {
+            return rows.get(pos);
+        }
+    }
+}
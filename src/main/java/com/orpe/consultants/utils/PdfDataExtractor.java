@@ -2,30 +2,11 @@ package com.orpe.consultants.utils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class PdfDataExtractor {
 
-    private static final DateTimeFormatter[] DATE_FORMATTERS = new DateTimeFormatter[] {
-        DateTimeFormatter.ofPattern("dd-MMM-yy", Locale.ENGLISH),
-        DateTimeFormatter.ofPattern("dd/MM/yyyy", Locale.ENGLISH)
-    };
-
-    private static LocalDate parseDateFlexible(String dateStr) {
-        if (dateStr == null || dateStr.trim().isEmpty()) return null;
-        for (DateTimeFormatter formatter : DATE_FORMATTERS) {
-            try {
-                return LocalDate.parse(dateStr.trim().toUpperCase(), formatter);
-            } catch (Exception e) {
-                // Continue trying other formats
-            }
-        }
-        return null;
-    }
-
     private static String extractSingleLineValue(String text, String label) {
         // Matches label followed by newline and captures next line content
         Pattern pattern = Pattern.compile("(?i)" + Pattern.quote(label) + "\\s*\\n\\s*([^\n]+)");
@@ -42,7 +23,7 @@ public class PdfDataExtractor {
 
     public static LocalDate extractSbDate(String text) {
         String dateStr = extractSingleLineValue(text, "SB Date");
-        return parseDateFlexible(dateStr);
+        return ValueParsers.parseDate(dateStr);
     }
 
     public static String extractPortCode(String text) {
@@ -51,12 +32,12 @@ public class PdfDataExtractor {
 
     public static LocalDate extractLeoDate(String text) {
         String dateStr = extractSingleLineValue(text, "LEO Date");
-        return parseDateFlexible(dateStr);
+        return ValueParsers.parseDate(dateStr);
     }
 
     public static LocalDate extractBrcRealisationDate(String text) {
         String dateStr = extractSingleLineValue(text, "BRC Realisation Date");
-        return parseDateFlexible(dateStr);
+        return ValueParsers.parseDate(dateStr);
     }
 
     public static String extractInvoiceNoDate(String text) {
@@ -65,12 +46,12 @@ public class PdfDataExtractor {
 
     public static BigDecimal extractExchangeRate(String text) {
         String val = extractSingleLineValue(text, "EXCHANGE RATE");
-        return parseBigDecimal(val);
+        return ValueParsers.scanDecimal(val);
     }
 
     public static BigDecimal extractInvoiceValue(String text) {
         String val = extractSingleLineValue(text, "INVOICE VALUE");
-        return parseBigDecimal(val);
+        return ValueParsers.scanDecimal(val);
     }
 
     public static String extractCurrency(String text) {
@@ -92,7 +73,7 @@ public class PdfDataExtractor {
 
     public static BigDecimal extractQuantity(String text) {
         String val = extractSingleLineValue(text, "QUANTITY");
-        return parseBigDecimal(val);
+        return ValueParsers.scanDecimal(val);
     }
 
     public static String extractUnit(String text) {
@@ -101,12 +82,12 @@ public class PdfDataExtractor {
 
     public static BigDecimal extractFob(String text) {
         String val = extractSingleLineValue(text, "FOB");
-        return parseBigDecimal(val);
+        return ValueParsers.scanDecimal(val);
     }
 
     public static BigDecimal extractPmvPerUnit(String text) {
         String val = extractSingleLineValue(text, "PMV \\(per qty\\)");
-        return parseBigDecimal(val);
+        return ValueParsers.scanDecimal(val);
     }
 
     public static String extractSchemeDescription(String text) {
@@ -119,12 +100,12 @@ public class PdfDataExtractor {
 
     public static BigDecimal extractRate(String text) {
         String val = extractSingleLineValue(text, "RATE");
-        return parseBigDecimal(val);
+        return ValueParsers.scanDecimal(val);
     }
 
     public static BigDecimal extractDbkAmtSb(String text) {
         String val = extractSingleLineValue(text, "DBK AMT \\(AIR\\) Given in SB");
-        return parseBigDecimal(val);
+        return ValueParsers.scanDecimal(val);
     }
 
     public static String extractBuyerDetails(String text) {
@@ -137,16 +118,4 @@ public class PdfDataExtractor {
         }
         return null;
     }
-
-
-    private static BigDecimal parseBigDecimal(String val) {
-        try {
-            if (val == null || val.isEmpty()) return null;
-            // Remove non-numeric except dots and commas, commas replaced with empty for decimal support
-            String cleaned = val.replaceAll("[^\\d.,-]", "").replace(",", "");
-            return new BigDecimal(cleaned);
-        } catch (Exception e) {
-            return null;
-        }
-    }
 }
@@ -0,0 +1,128 @@
+package com.orpe.consultants.utils;
+
+import com.orpe.consultants.dto.ConnectionPoolStats;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection wait and usage times per Hikari pool. Registered as the
+ * metrics tracker of every pool in WorkloadDataSourceConfig, so Hikari
+ * reports each borrow, return and timeout here.
+ */
+@Component
+public class PoolMetrics implements MetricsTrackerFactory {
+
+    // Upper bounds (inclusive, milliseconds) of the wait-time histogram buckets
+    private static final long[] WAIT_LIMITS_MILLIS = {1, 5, 20, 100, 500, 2000};
+
+    private final ConcurrentMap<String, Tracker> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        Tracker tracker = new Tracker(poolStats);
+        pools.put(poolName, tracker);
+        return tracker;
+    }
+
+    public List<ConnectionPoolStats> snapshot() {
+        List<ConnectionPoolStats> out = new ArrayList<>();
+        pools.forEach((name, tracker) -> out.add(tracker.toDto(name)));
+        out.sort(Comparator.comparing(ConnectionPoolStats::getPool));
+        return out;
+    }
+
+    public void reset() {
+        pools.values().forEach(Tracker::reset);
+    }
+
+    private static int bucketOf(long waitNanos) {
+        for (int b = 0; b < WAIT_LIMITS_MILLIS.length; b++) {
+            if (waitNanos <= WAIT_LIMITS_MILLIS[b] * 1_000_000) return b;
+        }
+        return WAIT_LIMITS_MILLIS.length;
+    }
+
+    private static String bucketLabel(int b) {
+        if (b == WAIT_LIMITS_MILLIS.length) return ">" + WAIT_LIMITS_MILLIS[b - 1] + "ms";
+        return "<=" + WAIT_LIMITS_MILLIS[b] + "ms";
+    }
+
+    private static final class Tracker implements IMetricsTracker {
+        final PoolStats poolStats;
+        final LongAdder acquisitions = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+        final AtomicLong maxWaitNanos = new AtomicLong();
+        final AtomicLongArray waitHistogram = new AtomicLongArray(WAIT_LIMITS_MILLIS.length + 1);
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder usages = new LongAdder();
+        final LongAdder usageMillis = new LongAdder();
+        final AtomicLong maxUsageMillis = new AtomicLong();
+
+        Tracker(PoolStats poolStats) {
+            this.poolStats = poolStats;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquisitions.increment();
+            waitNanos.add(elapsedAcquiredNanos);
+            maxWaitNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            waitHistogram.incrementAndGet(bucketOf(elapsedAcquiredNanos));
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usages.increment();
+            usageMillis.add(elapsedBorrowedMillis);
+            maxUsageMillis.accumulateAndGet(elapsedBorrowedMillis, Math::max);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+
+        void reset() {
+            acquisitions.reset();
+            waitNanos.reset();
+            maxWaitNanos.set(0);
+            for (int b = 0; b < waitHistogram.length(); b++) waitHistogram.set(b, 0);
+            timeouts.reset();
+            usages.reset();
+            usageMillis.reset();
+            maxUsageMillis.set(0);
+        }
+
+        ConnectionPoolStats toDto(String pool) {
+            Map<String, Long> hist = new LinkedHashMap<>();
+            for (int b = 0; b < waitHistogram.length(); b++) hist.put(bucketLabel(b), waitHistogram.get(b));
+            return ConnectionPoolStats.builder()
+                .pool(pool)
+                .active(poolStats.getActiveConnections())
+                .idle(poolStats.getIdleConnections())
+                .maxConnections(poolStats.getMaxConnections())
+                .pendingThreads(poolStats.getPendingThreads())
+                .acquisitions(acquisitions.sum())
+                .avgWaitMillis(waitNanos.sum() / 1_000_000.0 / Math.max(1, acquisitions.sum()))
+                .maxWaitMillis(maxWaitNanos.get() / 1_000_000.0)
+                .waitHistogram(hist)
+                .timeouts(timeouts.sum())
+                .avgUsageMillis((double) usageMillis.sum() / Math.max(1, usages.sum()))
+                .maxUsageMillis(maxUsageMillis.get())
+                .build();
+        }
+    }
+}
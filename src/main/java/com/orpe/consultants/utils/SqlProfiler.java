@@ -0,0 +1,204 @@
+package com.orpe.consultants.utils;
+
+import com.orpe.consultants.dto.SqlEndpointStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects JDBC statement counts, rows and time per HTTP request and
+ * aggregates them per endpoint. Statements are fed in by ProfilingDataSource,
+ * requests are opened and closed by SqlProfilerFilter.
+ */
+@Component
+@Slf4j
+public class SqlProfiler {
+
+    public enum StatementType { SELECT, COUNT, INSERT, UPDATE, DELETE, OTHER }
+
+    // Upper bounds (inclusive) of the statements-per-request histogram buckets
+    private static final int[] BUCKET_LIMITS = {0, 1, 2, 5, 10, 25, 50, 100};
+
+    private final ThreadLocal<RequestStats> current = new ThreadLocal<>();
+    private final ConcurrentMap<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    @Value("${orpe.sql-profiler.enabled:false}")
+    private boolean enabled;
+
+    @Value("${orpe.sql-profiler.n-plus-one-threshold:5}")
+    private int nPlusOneThreshold;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getNPlusOneThreshold() {
+        return nPlusOneThreshold;
+    }
+
+    public void beginRequest() {
+        current.set(new RequestStats());
+    }
+
+    public void endRequest(String endpoint) {
+        RequestStats stats = current.get();
+        current.remove();
+        if (stats == null) return;
+
+        List<String> suspects = stats.nPlusOneSuspects(nPlusOneThreshold);
+        for (String sql : suspects) {
+            log.warn("Possible N+1 on {}: {} executions of [{}]",
+                endpoint, stats.perStatement.get(sql), sql);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("{} issued {} statements (select={}, count={}, insert={}, update={}, delete={}), rowsRead={}, rowsAffected={}, sql={}ms",
+                endpoint, stats.statements,
+                stats.byType[StatementType.SELECT.ordinal()], stats.byType[StatementType.COUNT.ordinal()],
+                stats.byType[StatementType.INSERT.ordinal()], stats.byType[StatementType.UPDATE.ordinal()],
+                stats.byType[StatementType.DELETE.ordinal()],
+                stats.rowsRead, stats.rowsAffected, stats.elapsedNanos / 1_000_000);
+        }
+        endpoints.computeIfAbsent(endpoint, k -> new EndpointStats()).add(stats, suspects);
+    }
+
+    public void recordStatement(String sql, long elapsedNanos, long rowsAffected) {
+        RequestStats stats = current.get();
+        if (stats == null) return;
+        stats.statements++;
+        stats.byType[classify(sql).ordinal()]++;
+        stats.elapsedNanos += elapsedNanos;
+        if (rowsAffected > 0) stats.rowsAffected += rowsAffected;
+        if (sql != null) stats.perStatement.merge(sql, 1, Integer::sum);
+    }
+
+    public void recordRowRead() {
+        RequestStats stats = current.get();
+        if (stats != null) stats.rowsRead++;
+    }
+
+    public List<SqlEndpointStats> snapshot() {
+        List<SqlEndpointStats> out = new ArrayList<>();
+        endpoints.forEach((endpoint, stats) -> out.add(stats.toDto(endpoint)));
+        out.sort(Comparator.comparing(SqlEndpointStats::getEndpoint));
+        return out;
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    static StatementType classify(String sql) {
+        if (sql == null) return StatementType.OTHER;
+        int i = 0;
+        int n = sql.length();
+        while (i < n && (Character.isWhitespace(sql.charAt(i)) || sql.charAt(i) == '(')) i++;
+        int keyword = startsWithKeyword(sql, i, "select") ? 6 : startsWithKeyword(sql, i, "with") ? 4 : 0;
+        if (keyword > 0) {
+            // Past the keyword that matched, so "WITH x AS (...)" is not read from the middle of its CTE name
+            int j = i + keyword;
+            while (j < n && Character.isWhitespace(sql.charAt(j))) j++;
+            return sql.regionMatches(true, j, "count(", 0, 6) ? StatementType.COUNT : StatementType.SELECT;
+        }
+        if (sql.regionMatches(true, i, "insert", 0, 6)) return StatementType.INSERT;
+        if (sql.regionMatches(true, i, "update", 0, 6)) return StatementType.UPDATE;
+        if (sql.regionMatches(true, i, "delete", 0, 6)) return StatementType.DELETE;
+        return StatementType.OTHER;
+    }
+
+    private static boolean startsWithKeyword(String sql, int at, String keyword) {
+        int end = at + keyword.length();
+        return sql.regionMatches(true, at, keyword, 0, keyword.length())
+            && (end == sql.length() || !Character.isJavaIdentifierPart(sql.charAt(end)));
+    }
+
+    private static int bucketOf(long statements) {
+        for (int b = 0; b < BUCKET_LIMITS.length; b++) {
+            if (statements <= BUCKET_LIMITS[b]) return b;
+        }
+        return BUCKET_LIMITS.length;
+    }
+
+    private static String bucketLabel(int b) {
+        if (b == BUCKET_LIMITS.length) return ">" + BUCKET_LIMITS[b - 1];
+        int lo = b == 0 ? 0 : BUCKET_LIMITS[b - 1] + 1;
+        return lo == BUCKET_LIMITS[b] ? String.valueOf(lo) : lo + "-" + BUCKET_LIMITS[b];
+    }
+
+    // Per-request counters, only ever touched by the request thread
+    private static final class RequestStats {
+        long statements;
+        final long[] byType = new long[StatementType.values().length];
+        long rowsRead;
+        long rowsAffected;
+        long elapsedNanos;
+        final Map<String, Integer> perStatement = new HashMap<>();
+
+        List<String> nPlusOneSuspects(int threshold) {
+            List<String> out = new ArrayList<>(1);
+            perStatement.forEach((sql, count) -> {
+                if (count >= threshold && classify(sql) == StatementType.SELECT) out.add(sql);
+            });
+            return out;
+        }
+    }
+
+    private static final class EndpointStats {
+        final LongAdder requests = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final LongAdder rowsRead = new LongAdder();
+        final LongAdder elapsedNanos = new LongAdder();
+        final LongAdder nPlusOneRequests = new LongAdder();
+        final LongAdder[] byType = newAdders(StatementType.values().length);
+        final AtomicLong maxStatements = new AtomicLong();
+        final AtomicLongArray histogram = new AtomicLongArray(BUCKET_LIMITS.length + 1);
+        final AtomicReference<String> lastNPlusOneSql = new AtomicReference<>();
+
+        void add(RequestStats s, List<String> suspects) {
+            requests.increment();
+            statements.add(s.statements);
+            rowsRead.add(s.rowsRead);
+            elapsedNanos.add(s.elapsedNanos);
+            for (int t = 0; t < s.byType.length; t++) byType[t].add(s.byType[t]);
+            maxStatements.accumulateAndGet(s.statements, Math::max);
+            histogram.incrementAndGet(bucketOf(s.statements));
+            if (!suspects.isEmpty()) {
+                nPlusOneRequests.increment();
+                lastNPlusOneSql.set(suspects.get(0));
+            }
+        }
+
+        SqlEndpointStats toDto(String endpoint) {
+            long n = Math.max(1, requests.sum());
+            Map<String, Long> hist = new LinkedHashMap<>();
+            for (int b = 0; b < histogram.length(); b++) hist.put(bucketLabel(b), histogram.get(b));
+            Map<String, Long> types = new LinkedHashMap<>();
+            for (StatementType t : StatementType.values()) types.put(t.name(), byType[t.ordinal()].sum());
+            return SqlEndpointStats.builder()
+                .endpoint(endpoint)
+                .requests(requests.sum())
+                .avgStatements((double) statements.sum() / n)
+                .maxStatements(maxStatements.get())
+                .avgRowsRead((double) rowsRead.sum() / n)
+                .avgSqlMillis(elapsedNanos.sum() / 1_000_000.0 / n)
+                .statementsByType(types)
+                .statementHistogram(hist)
+                .nPlusOneRequests(nPlusOneRequests.sum())
+                .lastNPlusOneSql(lastNPlusOneSql.get())
+                .build();
+        }
+
+        private static LongAdder[] newAdders(int n) {
+            LongAdder[] out = new LongAdder[n];
+            for (int i = 0; i < n; i++) out[i] = new LongAdder();
+            return out;
+        }
+    }
+}
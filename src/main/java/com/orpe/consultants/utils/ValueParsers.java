@@ -0,0 +1,252 @@
+package com.orpe.consultants.utils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Date and number parsing shared by the import, shipping bill and PDF
+ * extractors. Every method scans the characters once and returns null for
+ * input it does not recognise; none of them throws on bad input, so
+ * probing a cell that holds something else costs no exception.
+ */
+public final class ValueParsers {
+
+    private static final String[] MONTHS = {
+        "jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec"
+    };
+
+    // Direct-mapped memo of recently parsed date strings; a sheet repeats the same few dates on many rows
+    private static final int MEMO_SIZE = 256;
+    private static final DateEntry[] MEMO = new DateEntry[MEMO_SIZE];
+
+    private ValueParsers() {
+    }
+
+    /**
+     * Parses "1,234.50", "(12.5)", "−3", ".5" and, when percent is set, "7.5%"
+     * (kept as 7.5, not 0.075). Returns null for blanks, placeholders ("-",
+     * "S", "NA") and anything that is not a number.
+     */
+    public static BigDecimal parseNumber(String raw, boolean percent) {
+        if (raw == null) return null;
+        int start = 0;
+        int end = raw.length();
+        while (start < end && raw.charAt(start) <= ' ') start++;
+        while (end > start && raw.charAt(end - 1) <= ' ') end--;
+        if (start == end) return null;
+        if (end - start <= 2 && isPlaceholder(raw, start, end)) return null;
+
+        boolean neg = false;
+        if (raw.charAt(start) == '(' && raw.charAt(end - 1) == ')') {
+            neg = true;
+            start++;
+            end--;
+        }
+        if (end > start && raw.charAt(end - 1) == '%') {
+            end--;
+            while (end > start && raw.charAt(end - 1) <= ' ') end--;
+        }
+
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        boolean sign = false;
+        boolean exponent = false;
+        for (int i = start; i < end; i++) {
+            char ch = raw.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                if (digits < 18) unscaled = unscaled * 10 + (ch - '0');
+                digits++;
+                if (scale >= 0) scale++;
+            } else if (ch == ',') {
+                // thousands separator
+            } else if (ch == '.' && scale < 0) {
+                scale = 0;
+            } else if ((ch == '-' || ch == '−' || ch == '+') && i == start && !sign) {
+                sign = true;
+                if (ch != '+') neg = !neg;
+            } else if ((ch == 'e' || ch == 'E') && digits > 0) {
+                exponent = true;
+                break;
+            } else if (percent && ch == '%') {
+                // ignored, as replace("%", "") did
+            } else {
+                return null;
+            }
+        }
+        if (digits == 0) return null;
+
+        BigDecimal val;
+        if (digits <= 18 && !exponent) {
+            val = BigDecimal.valueOf(unscaled, Math.max(scale, 0));
+        } else {
+            // Rare: long digit strings and exponents go through the String constructor
+            String s = raw.substring(start, end).replace(",", "").replace("−", "-").replace("%", "");
+            if (s.startsWith(".")) s = "0" + s;
+            if (s.startsWith("-.")) s = "-0" + s.substring(1);
+            try {
+                val = new BigDecimal(s);
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+            return neg && !s.startsWith("-") ? val.negate() : val;
+        }
+        return neg ? val.negate() : val;
+    }
+
+    /**
+     * Picks the number out of free text such as "1,234.50 USD" or "Rs 12":
+     * every character other than a digit, '.' or '-' is skipped, and what
+     * is left must be a plain decimal with an optional leading minus.
+     * Returns null when it is not.
+     */
+    public static BigDecimal scanDecimal(String raw) {
+        if (raw == null) return null;
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        boolean neg = false;
+        boolean kept = false;
+        for (int i = 0, n = raw.length(); i < n; i++) {
+            char ch = raw.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                if (digits < 18) unscaled = unscaled * 10 + (ch - '0');
+                digits++;
+                if (scale >= 0) scale++;
+            } else if (ch == '.') {
+                if (scale >= 0) return null;
+                scale = 0;
+            } else if (ch == '-') {
+                if (kept) return null;
+                neg = true;
+            } else {
+                continue;
+            }
+            kept = true;
+        }
+        if (digits == 0) return null;
+        if (digits > 18) return scanLongDecimal(raw);
+        BigDecimal val = BigDecimal.valueOf(unscaled, Math.max(scale, 0));
+        return neg ? val.negate() : val;
+    }
+
+    // Digit strings too long for a long; the scan above already checked the shape
+    private static BigDecimal scanLongDecimal(String raw) {
+        StringBuilder sb = new StringBuilder(raw.length());
+        for (int i = 0, n = raw.length(); i < n; i++) {
+            char ch = raw.charAt(i);
+            if ((ch >= '0' && ch <= '9') || ch == '.' || ch == '-') sb.append(ch);
+        }
+        return new BigDecimal(sb.toString());
+    }
+
+    /**
+     * Recognises the date layouts found in import workbooks, shipping bills
+     * and PDFs:
+     * <ul>
+     *   <li>yyyy-MM-dd and yyyy/MM/dd</li>
+     *   <li>dd-MM-yyyy, dd/MM/yyyy and dd.MM.yyyy; a slash date that is not
+     *       valid day first is read month first (MM/dd/yyyy)</li>
+     *   <li>d-MMM-yy and d-MMM-yyyy with an English month abbreviation in any
+     *       case, separated by '-', '/', '.' or a space (12-Jan-24, 5 JAN 2024)</li>
+     * </ul>
+     * Two-digit years are 20yy. Days 29 to 31 past the end of the month are
+     * clamped to the month end, as DateTimeFormatter's default resolver does.
+     * Repeated strings are answered from a small memo.
+     */
+    public static LocalDate parseDate(String raw) {
+        if (raw == null) return null;
+        int start = 0;
+        int end = raw.length();
+        while (start < end && raw.charAt(start) <= ' ') start++;
+        while (end > start && raw.charAt(end - 1) <= ' ') end--;
+        int len = end - start;
+        if (len < 8 || len > 11) return null;
+
+        int slot = raw.hashCode() & (MEMO_SIZE - 1);
+        DateEntry entry = MEMO[slot];
+        if (entry != null && entry.text.equals(raw)) return entry.date;
+
+        LocalDate date = len == 10 ? numericDate(raw, start) : null;
+        if (date == null) date = monthNameDate(raw, start, end);
+        if (date != null) MEMO[slot] = new DateEntry(raw, date);
+        return date;
+    }
+
+    // yyyy-MM-dd, dd-MM-yyyy and their variants; exactly ten characters from start
+    private static LocalDate numericDate(String s, int start) {
+        char c2 = s.charAt(start + 2);
+        char c4 = s.charAt(start + 4);
+        if ((c4 == '-' || c4 == '/') && s.charAt(start + 7) == c4) {
+            return toDate(digits(s, start, start + 4), digits(s, start + 5, start + 7), digits(s, start + 8, start + 10));
+        }
+        if ((c2 == '-' || c2 == '/' || c2 == '.') && s.charAt(start + 5) == c2) {
+            int a = digits(s, start, start + 2);
+            int b = digits(s, start + 3, start + 5);
+            int y = digits(s, start + 6, start + 10);
+            LocalDate dayFirst = toDate(y, b, a);
+            if (dayFirst != null || c2 != '/') return dayFirst;
+            return toDate(y, a, b);
+        }
+        return null;
+    }
+
+    // d-MMM-yy or dd-MMM-yyyy
+    private static LocalDate monthNameDate(String s, int start, int end) {
+        int dayEnd = start;
+        while (dayEnd < end && dayEnd - start < 2 && isDigit(s.charAt(dayEnd))) dayEnd++;
+        if (dayEnd == start || dayEnd + 5 > end) return null;
+        char sep = s.charAt(dayEnd);
+        if (!isDateSeparator(sep) || s.charAt(dayEnd + 4) != sep) return null;
+        int month = month(s, dayEnd + 1);
+        int yearLen = end - dayEnd - 5;
+        if (month == 0 || (yearLen != 2 && yearLen != 4)) return null;
+
+        int y = digits(s, dayEnd + 5, end);
+        if (y < 0) return null;
+        return toDate(yearLen == 2 ? 2000 + y : y, month, digits(s, start, dayEnd));
+    }
+
+    private static int month(String s, int at) {
+        for (int m = 0; m < MONTHS.length; m++) {
+            if (s.regionMatches(true, at, MONTHS[m], 0, 3)) return m + 1;
+        }
+        return 0;
+    }
+
+    private static boolean isDateSeparator(char ch) {
+        return ch == '-' || ch == '/' || ch == '.' || ch == ' ';
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static int digits(String s, int from, int to) {
+        int v = 0;
+        for (int i = from; i < to; i++) {
+            char ch = s.charAt(i);
+            if (!isDigit(ch)) return -1;
+            v = v * 10 + (ch - '0');
+        }
+        return v;
+    }
+
+    // Out-of-range days 29..31 are clamped to the month end, as the SMART resolver did
+    private static LocalDate toDate(int y, int m, int d) {
+        if (y < 0 || m < 1 || m > 12 || d < 1 || d > 31) return null;
+        return LocalDate.of(y, m, Math.min(d, YearMonth.of(y, m).lengthOfMonth()));
+    }
+
+    private static boolean isPlaceholder(String s, int start, int end) {
+        int len = end - start;
+        if (len == 1) {
+            char ch = s.charAt(start);
+            return ch == '-' || ch == 'S' || ch == 's';
+        }
+        return s.regionMatches(true, start, "NA", 0, 2);
+    }
+
+    private record DateEntry(String text, LocalDate date) { }
+}
@@ -0,0 +1,111 @@
+-- Baseline schema, equivalent to what spring.jpa.hibernate.ddl-auto=update
+-- produced before Flyway took over. Existing databases are baselined at
+-- version 1 (spring.flyway.baseline-on-migrate) and skip this script.
+
+CREATE TABLE IF NOT EXISTS users (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    username        VARCHAR(50)  NOT NULL,
+    full_name       VARCHAR(100) NOT NULL,
+    email           VARCHAR(100) NOT NULL,
+    password        VARCHAR(255) NOT NULL,
+    phone_number    VARCHAR(15),
+    role            ENUM('ADMIN','MANAGER','USER','VIEWER') NOT NULL,
+    status          ENUM('ACTIVE','INACTIVE','PENDING') NOT NULL,
+    last_login_date DATETIME(6),
+    created_at      DATETIME(6)  NOT NULL,
+    updated_at      DATETIME(6)  NOT NULL,
+    notes           VARCHAR(500),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS materials (
+    bom_part_no VARCHAR(50) NOT NULL,
+    PRIMARY KEY (bom_part_no)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS tbl_import_data (
+    import_id             BIGINT         NOT NULL AUTO_INCREMENT,
+    be_no                 VARCHAR(100)   NOT NULL,
+    be_date               DATE           NOT NULL,
+    be_month              VARCHAR(255),
+    be_year               INT,
+    claim_ref_no          VARCHAR(100)   NOT NULL,
+    claim_year            VARCHAR(32)    NOT NULL,
+    port_code             VARCHAR(100),
+    country_of_origin     VARCHAR(600),
+    supplier_name_address VARCHAR(600),
+    itchs_code            VARCHAR(100),
+    item_description      VARCHAR(600)   NOT NULL,
+    bom_part_no           VARCHAR(50),
+    alt_boe_part_no       VARCHAR(100),
+    dbk_part_no           VARCHAR(100),
+    quantity              DECIMAL(18,6)  NOT NULL,
+    uom                   VARCHAR(100)   NOT NULL,
+    assessable_value      DECIMAL(18,2)  NOT NULL,
+    bcd_rate              DECIMAL(10,6),
+    bcd                   DECIMAL(18,2),
+    sws_rate              DECIMAL(10,6),
+    sws                   DECIMAL(18,2),
+    add_rate              DECIMAL(10,6),
+    add_duty              DECIMAL(18,2),
+    igst_rate             DECIMAL(10,6),
+    igst                  DECIMAL(18,2),
+    total_duty            DECIMAL(18,2),
+    notn_no               VARCHAR(100),
+    notn_eligibility      VARCHAR(100),
+    qty_opening_balance   DECIMAL(18,6),
+    qty_used              DECIMAL(18,6),
+    closing_balance       DECIMAL(18,6),
+    stock_wise_eligibility ENUM('OPEN','CLOSED'),
+    duty_claimed_amt      DECIMAL(18,6),
+    created_at            DATETIME(6)    NOT NULL,
+    updated_at            DATETIME(6)    NOT NULL,
+    PRIMARY KEY (import_id),
+    INDEX idx_import_be_no (be_no),
+    INDEX idx_import_dbk_part_no (dbk_part_no),
+    INDEX idx_import_bom_part_no (bom_part_no),
+    INDEX idx_import_itchs_code (itchs_code),
+    CONSTRAINT fk_import_material FOREIGN KEY (bom_part_no) REFERENCES materials (bom_part_no)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS shipping_bills (
+    id                   BIGINT        NOT NULL AUTO_INCREMENT,
+    sb_no                VARCHAR(50)   NOT NULL,
+    sb_date              DATE          NOT NULL,
+    `month`              VARCHAR(20),
+    `year`               INT,
+    port_code            VARCHAR(30),
+    leo_date             DATE,
+    brc_realisation_date DATE,
+    invoice_no_date      VARCHAR(100),
+    buyer_details        TEXT,
+    exchange_rate        DECIMAL(10,4),
+    invoice_value        DECIMAL(15,2) NOT NULL,
+    currency             VARCHAR(3)    NOT NULL,
+    hs_cd                VARCHAR(20),
+    description          TEXT,
+    model_no             VARCHAR(50),
+    quantity             DECIMAL(12,3),
+    unit                 VARCHAR(20),
+    fob                  DECIMAL(15,2),
+    pmv_per_unit         DECIMAL(15,2),
+    pmv_actual           DECIMAL(15,2),
+    scheme_description   TEXT,
+    dbk_sno              VARCHAR(50),
+    dbk_applicability    VARCHAR(20),
+    rate                 DECIMAL(8,4),
+    dbk_amt_sb           DECIMAL(15,2),
+    dbk_amount           DECIMAL(15,2),
+    difference_amount    DECIMAL(15,2),
+    total_dbk            DECIMAL(15,2),
+    sbr_no               VARCHAR(50),
+    sb_utilization_amt   DECIMAL(15,2),
+    created_at           DATETIME(6)   NOT NULL,
+    updated_at           DATETIME(6)   NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_shipping_bills_sb_no UNIQUE (sb_no),
+    INDEX idx_sb_no (sb_no),
+    INDEX idx_sb_date (sb_date)
+) ENGINE=InnoDB;
@@ -0,0 +1,27 @@
+-- Composite indexes for the /importdata/list filters. Every list query
+-- orders by be_date DESC, so be_date trails each equality column and the
+-- page can be read in index order without a filesort.
+
+-- Unfiltered list and be_date range filters
+CREATE INDEX idx_import_be_date ON tbl_import_data (be_date);
+
+-- claim_year alone, and the claim_year count
+CREATE INDEX idx_import_claim_year_be_date ON tbl_import_data (claim_year, be_date);
+
+-- claim_year + stock_wise_eligibility
+CREATE INDEX idx_import_claim_year_elig_be_date ON tbl_import_data (claim_year, stock_wise_eligibility, be_date);
+
+-- stock_wise_eligibility alone (findByStockWiseEligibilityOrderByBeDateDesc)
+CREATE INDEX idx_import_elig_be_date ON tbl_import_data (stock_wise_eligibility, be_date);
+
+-- port_code prefix filter. A prefix LIKE is a range, not an equality, so
+-- the rows come back in port_code order and the page needs a filesort.
+-- That is cheap while the prefix matches a small share of the table; for
+-- a prefix matching most rows the optimiser may instead walk
+-- idx_import_be_date backwards and filter, which is the better plan there.
+CREATE INDEX idx_import_port_code_be_date ON tbl_import_data (port_code, be_date);
+
+-- findByMaterial_BomPartNoOrderByBeDateDesc; also serves fk_import_material,
+-- which makes the single-column bom_part_no index redundant
+CREATE INDEX idx_import_bom_part_no_be_date ON tbl_import_data (bom_part_no, be_date);
+DROP INDEX idx_import_bom_part_no ON tbl_import_data;
@@ -0,0 +1,95 @@
+-- Yearly RANGE partitioning of tbl_import_data (be_date) and shipping_bills
+-- (sb_date). Queries bounded on the date column (beDateFrom/beDateTo) only
+-- read the partitions of the years they cover, and a finished year can be
+-- archived as a whole partition instead of deleting row by row:
+--
+--   CREATE TABLE tbl_import_data_2020 LIKE tbl_import_data;
+--   ALTER TABLE tbl_import_data_2020 REMOVE PARTITIONING;
+--   ALTER TABLE tbl_import_data EXCHANGE PARTITION p2020 WITH TABLE tbl_import_data_2020;
+--
+-- New years are split off p_future before they start:
+--
+--   ALTER TABLE tbl_import_data REORGANIZE PARTITION p_future INTO (
+--       PARTITION p2036 VALUES LESS THAN ('2037-01-01'),
+--       PARTITION p_future VALUES LESS THAN (MAXVALUE));
+--
+-- MySQL requires the partitioning column in every unique key and does not
+-- support foreign keys on partitioned tables, hence:
+--   * the primary keys become (import_id, be_date) and (id, sb_date);
+--     the AUTO_INCREMENT ids stay unique on their own;
+--   * fk_import_material is dropped. Nothing checks the reference in the
+--     database any more; the application keeps it: ImportDataService
+--     resolves (and if needed creates) the Material in the transaction
+--     that inserts the row, the bulk load merges materials before rows in
+--     one transaction, and no code path deletes materials;
+--   * the unique key on shipping_bills.sb_no becomes
+--     uk_shipping_bills_sb_no_sb_date (sb_no, sb_date). A shipping bill
+--     number is now only unique per SB date, not globally.
+
+ALTER TABLE tbl_import_data DROP FOREIGN KEY fk_import_material;
+
+ALTER TABLE tbl_import_data
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (import_id, be_date);
+
+ALTER TABLE tbl_import_data
+PARTITION BY RANGE COLUMNS (be_date) (
+    PARTITION p_before_2020 VALUES LESS THAN ('2020-01-01'),
+    PARTITION p2020 VALUES LESS THAN ('2021-01-01'),
+    PARTITION p2021 VALUES LESS THAN ('2022-01-01'),
+    PARTITION p2022 VALUES LESS THAN ('2023-01-01'),
+    PARTITION p2023 VALUES LESS THAN ('2024-01-01'),
+    PARTITION p2024 VALUES LESS THAN ('2025-01-01'),
+    PARTITION p2025 VALUES LESS THAN ('2026-01-01'),
+    PARTITION p2026 VALUES LESS THAN ('2027-01-01'),
+    PARTITION p2027 VALUES LESS THAN ('2028-01-01'),
+    PARTITION p2028 VALUES LESS THAN ('2029-01-01'),
+    PARTITION p2029 VALUES LESS THAN ('2030-01-01'),
+    PARTITION p2030 VALUES LESS THAN ('2031-01-01'),
+    PARTITION p2031 VALUES LESS THAN ('2032-01-01'),
+    PARTITION p2032 VALUES LESS THAN ('2033-01-01'),
+    PARTITION p2033 VALUES LESS THAN ('2034-01-01'),
+    PARTITION p2034 VALUES LESS THAN ('2035-01-01'),
+    PARTITION p2035 VALUES LESS THAN ('2036-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
+
+-- The sb_no unique key was named by Hibernate on databases created with
+-- ddl-auto=update, so look it up instead of assuming uk_shipping_bills_sb_no.
+SET @sb_no_unique := (
+    SELECT index_name FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'shipping_bills'
+      AND column_name = 'sb_no' AND non_unique = 0
+    LIMIT 1);
+SET @drop_sb_no_unique := IF(@sb_no_unique IS NULL, 'DO 0',
+    CONCAT('ALTER TABLE shipping_bills DROP INDEX `', @sb_no_unique, '`'));
+PREPARE drop_sb_no_unique FROM @drop_sb_no_unique;
+EXECUTE drop_sb_no_unique;
+DEALLOCATE PREPARE drop_sb_no_unique;
+
+ALTER TABLE shipping_bills
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, sb_date),
+    ADD UNIQUE KEY uk_shipping_bills_sb_no_sb_date (sb_no, sb_date);
+
+ALTER TABLE shipping_bills
+PARTITION BY RANGE COLUMNS (sb_date) (
+    PARTITION p_before_2020 VALUES LESS THAN ('2020-01-01'),
+    PARTITION p2020 VALUES LESS THAN ('2021-01-01'),
+    PARTITION p2021 VALUES LESS THAN ('2022-01-01'),
+    PARTITION p2022 VALUES LESS THAN ('2023-01-01'),
+    PARTITION p2023 VALUES LESS THAN ('2024-01-01'),
+    PARTITION p2024 VALUES LESS THAN ('2025-01-01'),
+    PARTITION p2025 VALUES LESS THAN ('2026-01-01'),
+    PARTITION p2026 VALUES LESS THAN ('2027-01-01'),
+    PARTITION p2027 VALUES LESS THAN ('2028-01-01'),
+    PARTITION p2028 VALUES LESS THAN ('2029-01-01'),
+    PARTITION p2029 VALUES LESS THAN ('2030-01-01'),
+    PARTITION p2030 VALUES LESS THAN ('2031-01-01'),
+    PARTITION p2031 VALUES LESS THAN ('2032-01-01'),
+    PARTITION p2032 VALUES LESS THAN ('2033-01-01'),
+    PARTITION p2033 VALUES LESS THAN ('2034-01-01'),
+    PARTITION p2034 VALUES LESS THAN ('2035-01-01'),
+    PARTITION p2035 VALUES LESS THAN ('2036-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
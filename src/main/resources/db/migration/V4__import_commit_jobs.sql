@@ -0,0 +1,20 @@
+-- Checkpoints of chunked bulk commits (/importdata/bulk-commit). Each chunk
+-- is inserted in its own transaction together with the committed_rows
+-- update, so after a failure the job resumes at the first row that was not
+-- committed. batch_hash guards against resuming with a different file.
+
+CREATE TABLE IF NOT EXISTS import_commit_jobs (
+    job_id          VARCHAR(36)    NOT NULL,
+    status          VARCHAR(16)    NOT NULL,
+    batch_hash      CHAR(64)       NOT NULL,
+    total_rows      INT            NOT NULL,
+    committed_rows  INT            NOT NULL,
+    chunk_size      INT            NOT NULL,
+    last_error      VARCHAR(1000),
+    created_by      VARCHAR(100),
+    version         BIGINT         NOT NULL,
+    created_at      DATETIME(6)    NOT NULL,
+    updated_at      DATETIME(6)    NOT NULL,
+    PRIMARY KEY (job_id),
+    INDEX idx_import_commit_jobs_status (status, updated_at)
+) ENGINE=InnoDB;
@@ -0,0 +1,48 @@
+-- Staging table for LOAD DATA bulk loads (/importdata/bulk-load). Rows of
+-- one load share a load_id and keep their workbook position in line_no;
+-- they are checked for duplicate BE lines and copied into tbl_import_data
+-- with set-based SQL, then deleted. Not partitioned and indexed only for
+-- those queries, so LOAD DATA has little to maintain.
+--
+-- Needs local_infile=ON on the server; the client side is limited to the
+-- orpe.import.bulk-load.directory folder (allowLoadLocalInfileInPath).
+
+CREATE TABLE IF NOT EXISTS tbl_import_data_staging (
+    load_id               CHAR(36)       NOT NULL,
+    line_no               INT            NOT NULL,
+    be_no                 VARCHAR(100)   NOT NULL,
+    be_date               DATE           NOT NULL,
+    be_month              VARCHAR(255),
+    be_year               INT,
+    claim_ref_no          VARCHAR(100)   NOT NULL,
+    claim_year            VARCHAR(32)    NOT NULL,
+    port_code             VARCHAR(100),
+    country_of_origin     VARCHAR(600),
+    supplier_name_address VARCHAR(600),
+    itchs_code            VARCHAR(100),
+    item_description      VARCHAR(600)   NOT NULL,
+    bom_part_no           VARCHAR(50),
+    alt_boe_part_no       VARCHAR(100),
+    dbk_part_no           VARCHAR(100),
+    quantity              DECIMAL(18,6)  NOT NULL,
+    uom                   VARCHAR(100)   NOT NULL,
+    assessable_value      DECIMAL(18,2)  NOT NULL,
+    bcd_rate              DECIMAL(10,6),
+    bcd                   DECIMAL(18,2),
+    sws_rate              DECIMAL(10,6),
+    sws                   DECIMAL(18,2),
+    add_rate              DECIMAL(10,6),
+    add_duty              DECIMAL(18,2),
+    igst_rate             DECIMAL(10,6),
+    igst                  DECIMAL(18,2),
+    total_duty            DECIMAL(18,2),
+    notn_no               VARCHAR(100),
+    notn_eligibility      VARCHAR(100),
+    qty_opening_balance   DECIMAL(18,6),
+    qty_used              DECIMAL(18,6),
+    closing_balance       DECIMAL(18,6),
+    stock_wise_eligibility ENUM('OPEN','CLOSED'),
+    duty_claimed_amt      DECIMAL(18,6),
+    PRIMARY KEY (load_id, line_no),
+    INDEX idx_import_staging_line (load_id, be_no, be_date)
+) ENGINE=InnoDB;
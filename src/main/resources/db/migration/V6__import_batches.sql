@@ -0,0 +1,23 @@
+-- Import batches: every committed upload gets a row here and its
+-- tbl_import_data rows carry the batch_id, so a bad upload is rolled back
+-- or replaced with chunked DELETE ... WHERE batch_id = ? statements instead
+-- of one request per row. Rows saved before this migration have no batch.
+
+CREATE TABLE IF NOT EXISTS import_batches (
+    batch_id        VARCHAR(36)    NOT NULL,
+    status          VARCHAR(16)    NOT NULL,
+    file_name       VARCHAR(255),
+    content_hash    CHAR(64),
+    row_count       INT            NOT NULL,
+    replaced_by     VARCHAR(36),
+    created_by      VARCHAR(100),
+    version         BIGINT         NOT NULL,
+    created_at      DATETIME(6)    NOT NULL,
+    updated_at      DATETIME(6)    NOT NULL,
+    PRIMARY KEY (batch_id),
+    INDEX idx_import_batches_created_at (created_at)
+) ENGINE=InnoDB;
+
+ALTER TABLE tbl_import_data
+    ADD COLUMN batch_id VARCHAR(36) NULL,
+    ADD INDEX idx_import_batch_id (batch_id);
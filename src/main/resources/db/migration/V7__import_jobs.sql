@@ -0,0 +1,41 @@
+-- Cluster-wide queue of upload jobs (/importdata/jobs). Any node can take a
+-- QUEUED job with SELECT ... FOR UPDATE SKIP LOCKED (MySQL 8.0+), marks it
+-- RUNNING under a lease and renews the lease while it works. A job whose
+-- lease ran out (its node died) goes back to QUEUED until max_attempts is
+-- reached. Lease times use the database clock, so node clocks do not matter.
+--
+-- The uploaded file lives in its own table, so claiming and heartbeats never
+-- read the blob; it is removed once the job has finished.
+
+CREATE TABLE IF NOT EXISTS import_jobs (
+    job_id            VARCHAR(36)    NOT NULL,
+    job_type          VARCHAR(16)    NOT NULL,
+    status            VARCHAR(16)    NOT NULL,
+    file_name         VARCHAR(255),
+    content_hash      CHAR(64)       NOT NULL,
+    payload_size      BIGINT         NOT NULL,
+    attempts          INT            NOT NULL,
+    max_attempts      INT            NOT NULL,
+    available_at      DATETIME(6)    NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    lease_owner       VARCHAR(100),
+    lease_expires_at  DATETIME(6),
+    heartbeat_at      DATETIME(6),
+    batch_id          VARCHAR(36),
+    row_count         INT,
+    last_error        VARCHAR(1000),
+    created_by        VARCHAR(100),
+    created_at        DATETIME(6)    NOT NULL,
+    started_at        DATETIME(6),
+    finished_at       DATETIME(6),
+    updated_at        DATETIME(6)    NOT NULL,
+    PRIMARY KEY (job_id),
+    INDEX idx_import_jobs_queue (status, available_at),
+    INDEX idx_import_jobs_lease (status, lease_expires_at),
+    INDEX idx_import_jobs_created_at (created_at)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS import_job_payloads (
+    job_id   VARCHAR(36)  NOT NULL,
+    content  LONGBLOB     NOT NULL,
+    PRIMARY KEY (job_id)
+) ENGINE=InnoDB;
@@ -0,0 +1,70 @@
+package com.orpe.consultants.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Routing as wired by ReadWriteDataSourceConfig, with stub pools instead of
+ * two databases.
+ */
+class ReadWriteRoutingDataSourceTests {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private JdbcTemplate jdbc;
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (DataSource pool : new DataSource[] {primary, replica}) {
+            Connection con = mock(Connection.class);
+            when(con.getAutoCommit()).thenReturn(true);
+            when(con.createStatement()).thenReturn(mock(Statement.class));
+            when(pool.getConnection()).thenReturn(con);
+        }
+        LazyConnectionDataSourceProxy dataSource =
+            new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica));
+        // Known defaults, so the proxy does not borrow a connection to look them up
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        jdbc = new JdbcTemplate(dataSource);
+        tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() throws Exception {
+        tx.setReadOnly(true);
+        tx.executeWithoutResult(status -> jdbc.execute("SELECT 1"));
+
+        verify(replica).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void writesAndNonTransactionalWorkUseThePrimary() throws Exception {
+        tx.executeWithoutResult(status -> jdbc.execute("UPDATE t SET c = 1"));
+        jdbc.execute("SELECT 1");
+
+        verify(primary, times(2)).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void connectionsThatRunNoStatementAreNeverBorrowed() throws Exception {
+        tx.setReadOnly(true);
+        tx.executeWithoutResult(status -> { });
+
+        verify(primary, never()).getConnection();
+        verify(replica, never()).getConnection();
+    }
+}
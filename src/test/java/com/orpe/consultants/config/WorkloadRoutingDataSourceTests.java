@@ -0,0 +1,86 @@
+package com.orpe.consultants.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Routing as wired by WorkloadDataSourceConfig with a replica, with stub
+ * pools instead of databases.
+ */
+class WorkloadRoutingDataSourceTests {
+
+    private final DataSource interactive = mock(DataSource.class);
+    private final DataSource bulk = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private JdbcTemplate jdbc;
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (DataSource pool : new DataSource[] {interactive, bulk, replica}) {
+            Connection con = mock(Connection.class);
+            when(con.getAutoCommit()).thenReturn(true);
+            when(con.createStatement()).thenReturn(mock(Statement.class));
+            when(pool.getConnection()).thenReturn(con);
+        }
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+            new WorkloadRoutingDataSource(new ReadWriteRoutingDataSource(interactive, replica), bulk));
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        jdbc = new JdbcTemplate(dataSource);
+        tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void clearWorkload() {
+        WorkloadContext.restore(null);
+    }
+
+    @Test
+    void bulkWorkUsesTheBulkPoolEvenWhenReadOnly() throws Exception {
+        WorkloadContext.bind(Workload.Type.BULK);
+        tx.executeWithoutResult(status -> jdbc.execute("UPDATE t SET c = 1"));
+        tx.setReadOnly(true);
+        tx.executeWithoutResult(status -> jdbc.execute("SELECT 1"));
+
+        verify(bulk, times(2)).getConnection();
+        verify(interactive, never()).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void interactiveWorkKeepsTheReadWriteSplit() throws Exception {
+        tx.executeWithoutResult(status -> jdbc.execute("UPDATE t SET c = 1"));
+        tx.setReadOnly(true);
+        tx.executeWithoutResult(status -> jdbc.execute("SELECT 1"));
+
+        verify(interactive).getConnection();
+        verify(replica).getConnection();
+        verify(bulk, never()).getConnection();
+    }
+
+    @Test
+    void propagatedTasksStayOnTheCallersPool() throws Exception {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor();
+        executor.setTaskDecorator(WorkloadContext::propagate);
+
+        WorkloadContext.bind(Workload.Type.BULK);
+        CompletableFuture.runAsync(() -> jdbc.execute("SELECT 1"), executor).get();
+
+        verify(bulk).getConnection();
+        verify(interactive, never()).getConnection();
+    }
+}
@@ -0,0 +1,192 @@
+package com.orpe.consultants.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mixed load against a running instance: workbook uploads to
+ * /importdata/importExcel alongside /importdata/list browsing. Prints
+ * throughput and latency percentiles per request type, so the same run can
+ * be compared between a Java 17 build (platform threads) and a Java 21 build
+ * with spring.threads.virtual.enabled=true, e.g.
+ * <pre>
+ * mvn test -Dtest=ImportLoadBenchmarkTests \
+ *   -Dorpe.bench.url=http://localhost:8080 \
+ *   -Dorpe.bench.user=admin -Dorpe.bench.password=secret \
+ *   -Dorpe.bench.workbook=/path/to/import.xlsx \
+ *   -Dorpe.bench.uploaders=4 -Dorpe.bench.browsers=64 -Dorpe.bench.seconds=60
+ * </pre>
+ * Keep server.tomcat.threads.max and the Hikari pool size the same for both
+ * runs, otherwise the comparison measures the configuration instead.
+ */
+@EnabledIfSystemProperty(named = "orpe.bench.url", matches = ".+")
+class ImportLoadBenchmarkTests {
+
+    private final String baseUrl = System.getProperty("orpe.bench.url").replaceAll("/+$", "");
+    private final int uploaders = Integer.getInteger("orpe.bench.uploaders", 4);
+    private final int browsers = Integer.getInteger("orpe.bench.browsers", 64);
+    private final int warmupSeconds = Integer.getInteger("orpe.bench.warmup-seconds", 10);
+    private final int seconds = Integer.getInteger("orpe.bench.seconds", 60);
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .cookieHandler(new CookieManager())
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+
+    @Test
+    void mixedUploadAndBrowseLoad() throws Exception {
+        login();
+        byte[] workbook = Files.readAllBytes(Path.of(System.getProperty("orpe.bench.workbook")));
+
+        runPhase(workbook, warmupSeconds, false);
+        Result[] results = runPhase(workbook, seconds, true);
+
+        System.out.printf("%n%-8s %8s %8s %9s %9s %9s %9s %9s%n",
+            "type", "ok", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Result r : results) {
+            r.print(seconds);
+        }
+        assertTrue(results[1].ok.get() > 0, "no successful /importdata/list requests");
+    }
+
+    private Result[] runPhase(byte[] workbook, int phaseSeconds, boolean record) throws InterruptedException {
+        Result upload = new Result("upload");
+        Result browse = new Result("list");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(phaseSeconds);
+
+        ExecutorService workers = Executors.newFixedThreadPool(uploaders + browsers);
+        for (int i = 0; i < uploaders; i++) {
+            workers.execute(() -> loop(deadline, upload, () -> upload(workbook)));
+        }
+        for (int i = 0; i < browsers; i++) {
+            workers.execute(() -> loop(deadline, browse, this::browse));
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(phaseSeconds + 300L, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+        return record ? new Result[] {upload, browse} : null;
+    }
+
+    private static void loop(long deadline, Result result, Call call) {
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            long start = System.nanoTime();
+            try {
+                int status = call.run();
+                result.record(System.nanoTime() - start, status == 200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                result.record(System.nanoTime() - start, false);
+            }
+        }
+    }
+
+    private void login() throws Exception {
+        String form = "usernameOrEmail=" + enc(System.getProperty("orpe.bench.user"))
+            + "&password=" + enc(System.getProperty("orpe.bench.password"));
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build(),
+            HttpResponse.BodyHandlers.discarding());
+        assertEquals(302, response.statusCode(), "login failed");
+        assertTrue(response.headers().firstValue("Location").orElse("").endsWith("/index"), "login failed");
+    }
+
+    private int browse() throws Exception {
+        int page = ThreadLocalRandom.current().nextInt(20);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/importdata/list?page=" + page + "&size=100"))
+            .timeout(Duration.ofSeconds(60))
+            .GET()
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int upload(byte[] workbook) throws Exception {
+        String boundary = "----orpe" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(workbook.length + 512);
+        body.writeBytes(("--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"bench.xlsx\"\r\n"
+            + "Content-Type: application/vnd.openxmlformats-officedocument.spreadsheetml.sheet\r\n\r\n")
+            .getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(workbook);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/importdata/importExcel"))
+            .timeout(Duration.ofMinutes(5))
+            .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static String enc(String s) {
+        return URLEncoder.encode(s == null ? "" : s, StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        int run() throws Exception;
+    }
+
+    private static final class Result {
+        private final String name;
+        private final List<Long> latencies = new ArrayList<>();
+        private final AtomicLong ok = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        Result(String name) {
+            this.name = name;
+        }
+
+        synchronized void record(long nanos, boolean success) {
+            if (success) {
+                ok.incrementAndGet();
+                latencies.add(nanos);
+            } else {
+                errors.incrementAndGet();
+            }
+        }
+
+        synchronized void print(int seconds) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            System.out.printf("%-8s %8d %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                name, ok.get(), errors.get(), ok.get() / (double) seconds,
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+                sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, int p) {
+            if (sorted.length == 0) return 0.0;
+            int idx = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, idx)] / 1e6;
+        }
+    }
+}
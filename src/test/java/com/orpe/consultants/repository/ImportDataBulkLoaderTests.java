@@ -0,0 +1,145 @@
+package com.orpe.consultants.repository;
+
+import com.orpe.consultants.dto.ImportDataDTO;
+import com.orpe.consultants.dto.StockWiseEligibility;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Round trip of the LOAD DATA bulk-load path against a scratch MySQL schema
+ * (the server needs local_infile=ON), e.g.
+ * <pre>
+ * mvn test -Dtest=ImportDataBulkLoaderTests \
+ *   -Dorpe.it.mysql.url=jdbc:mysql://localhost:3306/orpe_it \
+ *   -Dorpe.it.mysql.user=root -Dorpe.it.mysql.password=password
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "orpe.it.mysql.url", matches = ".+")
+class ImportDataBulkLoaderTests {
+
+    @TempDir
+    static Path directory;
+
+    private static JdbcTemplate jdbc;
+    private static ImportDataBulkLoader loader;
+
+    // Unique per test so reruns never collide with rows of an earlier run
+    private final String prefix = "BL-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        String url = System.getProperty("orpe.it.mysql.url");
+        String user = System.getProperty("orpe.it.mysql.user", "root");
+        String password = System.getProperty("orpe.it.mysql.password", "");
+
+        Flyway.configure()
+            .dataSource(url, user, password)
+            .locations("classpath:db/migration")
+            .load()
+            .migrate();
+
+        String loadUrl = url + (url.contains("?") ? "&" : "?")
+            + "allowLoadLocalInfileInPath=" + directory.toRealPath();
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(loadUrl, user, password));
+        loader = new ImportDataBulkLoader(jdbc, directory);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM tbl_import_data WHERE be_no LIKE ?", prefix + "%");
+        jdbc.update("DELETE FROM materials WHERE bom_part_no LIKE ?", prefix + "%");
+    }
+
+    @Test
+    void loadsAndMergesRowsWithNewMaterials() throws Exception {
+        List<ImportDataDTO> rows = new ArrayList<>();
+        for (int i = 1; i <= 500; i++) {
+            rows.add(row(i, prefix + "P" + (i % 7)));
+        }
+        // Escapes and NULLs must survive the TSV
+        rows.get(0).setItemDescription("tab\there, newline\nthere, back\\slash, \\N");
+        rows.get(1).setBomPartNo("  ");
+        rows.get(2).setBcd(null);
+
+        String batchId = UUID.randomUUID().toString();
+        try (ImportDataBulkLoader.Load load = loader.begin()) {
+            for (ImportDataDTO r : rows) {
+                load.add(r);
+            }
+            assertEquals(500, load.load());
+
+            List<Integer> duplicates = new ArrayList<>();
+            load.findDuplicates((line, beNo, first) -> duplicates.add(line));
+            assertEquals(List.of(), duplicates);
+
+            assertEquals(7, load.mergeMaterials());
+            assertEquals(500, load.mergeRows(LocalDateTime.now(), batchId));
+        }
+
+        assertEquals(500, jdbc.queryForObject(
+            "SELECT COUNT(*) FROM tbl_import_data WHERE be_no LIKE ?", Integer.class, prefix + "%"));
+        assertEquals(500, jdbc.queryForObject(
+            "SELECT COUNT(*) FROM tbl_import_data WHERE batch_id = ?", Integer.class, batchId));
+        assertEquals(rows.get(0).getItemDescription(), jdbc.queryForObject(
+            "SELECT item_description FROM tbl_import_data WHERE be_no = ?", String.class, prefix + 1));
+        assertNull(jdbc.queryForObject(
+            "SELECT bom_part_no FROM tbl_import_data WHERE be_no = ?", String.class, prefix + 2));
+        assertNull(jdbc.queryForObject(
+            "SELECT bcd FROM tbl_import_data WHERE be_no = ?", BigDecimal.class, prefix + 3));
+        assertEquals(0, jdbc.queryForObject(
+            "SELECT COUNT(*) FROM tbl_import_data_staging WHERE be_no LIKE ?", Integer.class, prefix + "%"));
+    }
+
+    @Test
+    void reportsDuplicatesWithinTheLoadAndAgainstStoredRows() throws Exception {
+        try (ImportDataBulkLoader.Load load = loader.begin()) {
+            load.add(row(1, prefix + "P"));
+            load.load();
+            load.mergeMaterials();
+            load.mergeRows(LocalDateTime.now(), null);
+        }
+
+        List<String> duplicates = new ArrayList<>();
+        try (ImportDataBulkLoader.Load load = loader.begin()) {
+            load.add(row(1, prefix + "P"));   // already stored
+            load.add(row(2, prefix + "P"));
+            load.add(row(2, prefix + "p"));   // same line, part no differs only in case
+            load.load();
+            load.findDuplicates((line, beNo, first) -> duplicates.add(line + ":" + first));
+        }
+        assertEquals(List.of("3:2", "1:null"), duplicates);
+    }
+
+    private ImportDataDTO row(int i, String bomPartNo) {
+        return ImportDataDTO.builder()
+            .beNo(prefix + i)
+            .beDate(LocalDate.of(2024, 1 + i % 12, 1 + i % 28))
+            .claimRefNo("C" + i)
+            .claimYear("2024")
+            .itemDescription("item " + i)
+            .bomPartNo(bomPartNo)
+            .quantity(new BigDecimal("12.500000"))
+            .uom("NOS")
+            .assessableValue(new BigDecimal("1000.25"))
+            .bcd(new BigDecimal("100.00"))
+            .stockWiseEligibility(StockWiseEligibility.OPEN)
+            .build();
+    }
+}
@@ -0,0 +1,163 @@
+package com.orpe.consultants.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks with EXPLAIN that the tbl_import_data list filters use the
+ * composite indexes and yearly partitions from the Flyway migrations. The
+ * table is refilled with SEED_ROWS rows shaped like production data and
+ * analysed first, so the optimiser chooses from real statistics.
+ * Needs a scratch MySQL schema (tbl_import_data is emptied), e.g.
+ * <pre>
+ * mvn test -Dtest=ImportDataIndexExplainTests \
+ *   -Dorpe.it.mysql.url=jdbc:mysql://localhost:3306/orpe_it \
+ *   -Dorpe.it.mysql.user=root -Dorpe.it.mysql.password=password
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "orpe.it.mysql.url", matches = ".+")
+class ImportDataIndexExplainTests {
+
+    private static final int SEED_ROWS = 20_000;
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        String url = System.getProperty("orpe.it.mysql.url");
+        String user = System.getProperty("orpe.it.mysql.user", "root");
+        String password = System.getProperty("orpe.it.mysql.password", "");
+
+        Flyway.configure()
+            .dataSource(url, user, password)
+            .locations("classpath:db/migration")
+            .load()
+            .migrate();
+        connection = DriverManager.getConnection(url, user, password);
+        seed();
+    }
+
+    // Seven BE years; claim year follows the BE year, one row in ten OPEN,
+    // 50 ports and 2,000 parts, so every filter value matches a small share
+    private static void seed() throws Exception {
+        try (Statement st = connection.createStatement()) {
+            st.execute("TRUNCATE TABLE tbl_import_data");
+        }
+        Random random = new Random(29);
+        LocalDate first = LocalDate.of(2020, 1, 1);
+        int days = (int) (LocalDate.of(2026, 12, 31).toEpochDay() - first.toEpochDay());
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO tbl_import_data (be_no, be_date, claim_ref_no, claim_year, port_code, item_description, "
+                    + "bom_part_no, quantity, uom, assessable_value, stock_wise_eligibility, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, 'Item', ?, 1, 'NOS', 100, ?, NOW(6), NOW(6))")) {
+            for (int i = 0; i < SEED_ROWS; i++) {
+                LocalDate beDate = first.plusDays(random.nextInt(days + 1));
+                ps.setString(1, "BE" + i);
+                ps.setObject(2, beDate);
+                ps.setString(3, "CR" + i);
+                ps.setString(4, String.valueOf(beDate.getYear()));
+                ps.setString(5, random.nextInt(50) == 0 ? "INMAA4" : String.format("INP%02d1", random.nextInt(49)));
+                ps.setString(6, "P-" + random.nextInt(2000));
+                ps.setString(7, random.nextInt(10) == 0 ? "OPEN" : "CLOSED");
+                ps.addBatch();
+                if (i % 1000 == 999) ps.executeBatch();
+            }
+            ps.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        try (Statement st = connection.createStatement()) {
+            st.execute("ANALYZE TABLE tbl_import_data");
+        }
+    }
+
+    @AfterAll
+    static void close() throws Exception {
+        if (connection != null) connection.close();
+    }
+
+    @Test
+    void unfilteredListUsesBeDateIndex() throws Exception {
+        assertIndexUsed("SELECT * FROM tbl_import_data ORDER BY be_date DESC LIMIT 100",
+            "idx_import_be_date");
+    }
+
+    @Test
+    void beDateRangeUsesBeDateIndex() throws Exception {
+        assertIndexUsed("SELECT * FROM tbl_import_data WHERE be_date >= '2024-01-01' AND be_date <= '2024-03-31' "
+            + "ORDER BY be_date DESC LIMIT 100", "idx_import_be_date");
+    }
+
+    @Test
+    void claimYearFilterUsesClaimYearIndex() throws Exception {
+        assertIndexUsed("SELECT * FROM tbl_import_data WHERE claim_year = '2024' ORDER BY be_date DESC LIMIT 100",
+            "idx_import_claim_year_be_date");
+    }
+
+    @Test
+    void claimYearAndEligibilityUseClaimYearIndex() throws Exception {
+        assertIndexUsed("SELECT * FROM tbl_import_data WHERE claim_year = '2024' AND stock_wise_eligibility = 'OPEN' "
+            + "ORDER BY be_date DESC LIMIT 100", "idx_import_claim_year_elig_be_date");
+    }
+
+    @Test
+    void eligibilityFilterUsesEligibilityIndex() throws Exception {
+        assertIndexUsed("SELECT * FROM tbl_import_data WHERE stock_wise_eligibility = 'OPEN' ORDER BY be_date DESC LIMIT 100",
+            "idx_import_elig_be_date");
+    }
+
+    @Test
+    void portCodePrefixUsesPortCodeIndex() throws Exception {
+        // INMAA% matches 2% of the seeded rows, a selective prefix as V2 describes
+        assertIndexUsed("SELECT * FROM tbl_import_data WHERE port_code LIKE 'INMAA%' ORDER BY be_date DESC LIMIT 100",
+            "idx_import_port_code_be_date");
+    }
+
+    @Test
+    void bomPartNoFilterUsesBomPartNoIndex() throws Exception {
+        assertIndexUsed("SELECT * FROM tbl_import_data WHERE bom_part_no = 'P-1' ORDER BY be_date DESC LIMIT 100",
+            "idx_import_bom_part_no_be_date");
+    }
+
+    @Test
+    void claimYearCountIsCoveredByIndex() throws Exception {
+        assertIndexUsed("SELECT COUNT(*) FROM tbl_import_data WHERE claim_year = '2024'",
+            "idx_import_claim_year_be_date");
+    }
+
+    @Test
+    void beDateRangePrunesToOneYearPartition() throws Exception {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "EXPLAIN SELECT * FROM tbl_import_data WHERE be_date >= '2024-01-01' AND be_date <= '2024-12-31'");
+             ResultSet rs = ps.executeQuery()) {
+            assertTrue(rs.next());
+            assertEquals("p2024", rs.getString("partitions"));
+        }
+    }
+
+    // The chosen access path (key) must be exactly the index
+    private static void assertIndexUsed(String sql, String index) throws Exception {
+        try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql);
+             ResultSet rs = ps.executeQuery()) {
+            assertTrue(rs.next(), "EXPLAIN returned no rows for " + sql);
+            assertEquals(index, rs.getString("key"), "Key for [" + sql + "], possible_keys="
+                + rs.getString("possible_keys"));
+        }
+    }
+}
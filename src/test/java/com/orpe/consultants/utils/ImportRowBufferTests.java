@@ -0,0 +1,90 @@
+package com.orpe.consultants.utils;
+
+import com.orpe.consultants.dto.ImportDataDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static com.orpe.consultants.utils.ImportRowSorterTests.assertSameRows;
+import static com.orpe.consultants.utils.ImportRowSorterTests.randomRow;
+import static com.orpe.consultants.utils.ImportRowSorterTests.randomRows;
+import static com.orpe.consultants.utils.ImportRowSorterTests.values;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dictionary and arena string columns, scaled-long and wide decimals and
+ * the null flags of every column type, read back through RowView.
+ */
+class ImportRowBufferTests {
+
+    @Test
+    void readsBackEveryFieldAcrossGrowthAndTheArenaSwitch() {
+        // 10,000 rows from a capacity of 16: many regrows, and the unique
+        // string columns switch to the arena after 1024 rows
+        List<ImportDataDTO> rows = randomRows(new Random(5), 10_000);
+        ImportRowBuffer buffer = new ImportRowBuffer(16);
+        buffer.addAll(rows);
+
+        assertEquals(rows.size(), buffer.size());
+        assertSameRows(rows, buffer);
+        assertSameRows(rows, ImportRowBuffer.of(rows));
+    }
+
+    @Test
+    void keepsDecimalScalesAndWideValues() {
+        BigDecimal[] decimals = {
+            new BigDecimal("12.50"),
+            new BigDecimal("0.000"),
+            new BigDecimal("-0.01"),
+            BigDecimal.valueOf(Long.MAX_VALUE, 2),
+            BigDecimal.valueOf(Long.MIN_VALUE, 0),
+            new BigDecimal(BigInteger.TWO.pow(64), 4),
+            new BigDecimal("1E+3"),
+            BigDecimal.valueOf(7, 127),
+            BigDecimal.valueOf(7, 128),
+            BigDecimal.valueOf(7, -127),
+            BigDecimal.valueOf(7, -126)
+        };
+        ImportRowBuffer buffer = new ImportRowBuffer();
+        for (BigDecimal d : decimals) {
+            buffer.add(ImportDataDTO.builder().quantity(d).dutyClaimedAmt(d).build());
+        }
+        for (int i = 0; i < decimals.length; i++) {
+            // equals, not compareTo: the scale must survive too
+            assertEquals(decimals[i], buffer.get(i).getQuantity(), "row " + i);
+            assertEquals(decimals[i], buffer.get(i).getDutyClaimedAmt(), "row " + i);
+        }
+    }
+
+    @Test
+    void nullAndEmptyStringsStayApart() {
+        ImportRowBuffer buffer = new ImportRowBuffer();
+        buffer.add(ImportDataDTO.builder().beNo("").portCode(null).build());
+        buffer.add(ImportDataDTO.builder().beNo(null).portCode("").build());
+        buffer.add(new ImportDataDTO());
+
+        assertEquals("", buffer.get(0).getBeNo());
+        assertNull(buffer.get(0).getPortCode());
+        assertNull(buffer.get(1).getBeNo());
+        assertEquals("", buffer.get(1).getPortCode());
+        assertEquals(values(new ImportDataDTO()), values(buffer.get(2)));
+    }
+
+    @Test
+    void rowViewsAreReadOnly() {
+        ImportRowBuffer buffer = ImportRowBuffer.of(List.of(randomRow(new Random(1), 0.0)));
+        ImportDataDTO view = buffer.get(0);
+
+        assertThrows(UnsupportedOperationException.class, () -> view.setBeNo("X"));
+        assertThrows(UnsupportedOperationException.class, () -> view.setBeDate(LocalDate.now()));
+        assertThrows(UnsupportedOperationException.class, () -> view.setQuantity(BigDecimal.ONE));
+        assertThrows(UnsupportedOperationException.class, () -> view.setStockWiseEligibility(null));
+        assertThrows(UnsupportedOperationException.class, () -> buffer.set(0, new ImportDataDTO()));
+        assertThrows(UnsupportedOperationException.class, () -> buffer.remove(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.get(1));
+    }
+}
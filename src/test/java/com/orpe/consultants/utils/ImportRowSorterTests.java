@@ -0,0 +1,184 @@
+package com.orpe.consultants.utils;
+
+import com.orpe.consultants.dto.ImportDataDTO;
+import com.orpe.consultants.dto.StockWiseEligibility;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Spill runs, the k-way merge and the binary row codec, checked field by
+ * field against an in-memory stable sort of the same rows.
+ */
+class ImportRowSorterTests {
+
+    private static final int ROWS = 10_000;
+    private static final int BUFFER_ROWS = 333;
+
+    @Test
+    void spillsRunsAndMergesThemInStableOrder() {
+        List<ImportDataDTO> rows = randomRows(new Random(7), ROWS);
+        List<ImportDataDTO> expected = new ArrayList<>(rows);
+        expected.sort(ImportDataExtractor.BE_DATE_ORDER);
+
+        try (ImportRowSorter sorter = new ImportRowSorter(ImportDataExtractor.BE_DATE_ORDER, BUFFER_ROWS)) {
+            rows.forEach(sorter::add);
+            assertEquals(ROWS / BUFFER_ROWS, sorter.spilledRuns());
+            assertEquals(ROWS, sorter.size());
+
+            assertSameRows(expected, sorter.toList());
+            // A second pass reads the runs again
+            assertSameRows(expected, sorter.toList());
+        }
+    }
+
+    @Test
+    void sortsInMemoryWhenNothingSpills() {
+        List<ImportDataDTO> rows = randomRows(new Random(11), BUFFER_ROWS - 1);
+        List<ImportDataDTO> expected = new ArrayList<>(rows);
+        expected.sort(ImportDataExtractor.BE_DATE_ORDER);
+
+        try (ImportRowSorter sorter = new ImportRowSorter(ImportDataExtractor.BE_DATE_ORDER, BUFFER_ROWS)) {
+            rows.forEach(sorter::add);
+            assertEquals(0, sorter.spilledRuns());
+            assertSameRows(expected, sorter.toList());
+        }
+    }
+
+    @Test
+    void codecKeepsNullsAndExtremeValues() throws IOException {
+        ImportDataDTO empty = new ImportDataDTO();
+        ImportDataDTO full = randomRow(new Random(3), 0.0);
+        full.setImportId(Long.MIN_VALUE);
+        full.setBeYear(Integer.MAX_VALUE);
+        full.setBeNo("");
+        full.setItemDescription("Ölfilter – 油过滤器 🚚");
+        full.setQuantity(new BigDecimal(BigInteger.TEN.pow(40).negate(), 3));
+        full.setAssessableValue(new BigDecimal("1E+50"));
+        full.setBcdRate(new BigDecimal("0.000"));
+        full.setStockWiseEligibility(StockWiseEligibility.CLOSED);
+
+        for (ImportDataDTO row : List.of(empty, full)) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                ImportRowSorter.RowCodec.write(out, row);
+            }
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                assertEquals(values(row), values(ImportRowSorter.RowCodec.read(in)));
+                assertEquals(-1, in.read(), "trailing bytes");
+            }
+        }
+    }
+
+    static void assertSameRows(List<? extends ImportDataDTO> expected, List<? extends ImportDataDTO> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(values(expected.get(i)), values(actual.get(i)), "row " + i);
+        }
+    }
+
+    // Every field through its getter, so read-only views compare like plain DTOs
+    static List<Object> values(ImportDataDTO r) {
+        return Arrays.asList(
+            r.getImportId(), r.getBeNo(), r.getBeDate(), r.getBeMonth(), r.getBeYear(),
+            r.getClaimRefNo(), r.getClaimYear(), r.getPortCode(), r.getCountryOfOrigin(),
+            r.getSupplierNameAddress(), r.getItchsCode(), r.getItemDescription(), r.getBomPartNo(),
+            r.getAltBoePartNo(), r.getDbkPartNo(), r.getQuantity(), r.getUom(), r.getAssessableValue(),
+            r.getBcdRate(), r.getBcd(), r.getSwsRate(), r.getSws(), r.getAddRate(), r.getAddDuty(),
+            r.getIgstRate(), r.getIgst(), r.getTotalDuty(), r.getNotnNo(), r.getNotnEligibility(),
+            r.getQtyOpeningBalance(), r.getQtyUsed(), r.getClosingBalance(), r.getStockWiseEligibility(),
+            r.getDutyClaimedAmt());
+    }
+
+    static List<ImportDataDTO> randomRows(Random random, int count) {
+        List<ImportDataDTO> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) rows.add(randomRow(random, 0.15));
+        return rows;
+    }
+
+    /**
+     * Repeating codes (port, UOM, country) next to unique text (BE no,
+     * description), decimals of every scale including ones past a long,
+     * and BE dates within 60 days so the sort has plenty of ties.
+     */
+    static ImportDataDTO randomRow(Random random, double nullRate) {
+        Values v = new Values(random, nullRate);
+        return ImportDataDTO.builder()
+            .importId(v.pick(random.nextLong()))
+            .beNo(v.pick("BE" + random.nextInt(1_000_000)))
+            .beDate(v.pick(LocalDate.of(2024, 1, 1).plusDays(random.nextInt(60))))
+            .beMonth(v.pick(String.valueOf(1 + random.nextInt(12))))
+            .beYear(v.pick(2020 + random.nextInt(6)))
+            .claimRefNo(v.pick("CR/" + random.nextInt(500)))
+            .claimYear(v.pick(String.valueOf(2020 + random.nextInt(6))))
+            .portCode(v.pick("INMAA" + random.nextInt(4)))
+            .countryOfOrigin(v.pick(random.nextBoolean() ? "China" : "Deutschland"))
+            .supplierNameAddress(v.pick("Supplier " + random.nextInt(40) + ", Chennai"))
+            .itchsCode(v.pick(String.valueOf(84_000_000 + random.nextInt(1000))))
+            .itemDescription(v.pick("Item " + random.nextInt() + " ü"))
+            .bomPartNo(v.pick("P-" + random.nextInt(2000)))
+            .altBoePartNo(v.pick("A-" + random.nextInt(2000)))
+            .dbkPartNo(v.pick("D-" + random.nextInt(2000)))
+            .quantity(v.decimal())
+            .uom(v.pick(random.nextBoolean() ? "NOS" : "KGS"))
+            .assessableValue(v.decimal())
+            .bcdRate(v.decimal())
+            .bcd(v.decimal())
+            .swsRate(v.decimal())
+            .sws(v.decimal())
+            .addRate(v.decimal())
+            .addDuty(v.decimal())
+            .igstRate(v.decimal())
+            .igst(v.decimal())
+            .totalDuty(v.decimal())
+            .notnNo(v.pick("50/2017-" + random.nextInt(10)))
+            .notnEligibility(v.pick(random.nextBoolean() ? "Y" : "N"))
+            .qtyOpeningBalance(v.decimal())
+            .qtyUsed(v.decimal())
+            .closingBalance(v.decimal())
+            .stockWiseEligibility(v.pick(StockWiseEligibility.values()[random.nextInt(2)]))
+            .dutyClaimedAmt(v.decimal())
+            .build();
+    }
+
+    private static final class Values {
+        private final Random random;
+        private final double nullRate;
+
+        Values(Random random, double nullRate) {
+            this.random = random;
+            this.nullRate = nullRate;
+        }
+
+        <T> T pick(T value) {
+            return random.nextDouble() < nullRate ? null : value;
+        }
+
+        BigDecimal decimal() {
+            switch (random.nextInt(8)) {
+                case 0:
+                    // Unscaled value wider than a long
+                    return pick(new BigDecimal(new BigInteger(90, random), random.nextInt(6)));
+                case 1:
+                    return pick(BigDecimal.valueOf(random.nextLong(), -random.nextInt(3)));
+                case 2:
+                    return pick(BigDecimal.valueOf(random.nextInt(1000), 130));
+                default:
+                    return pick(BigDecimal.valueOf(random.nextInt(10_000_000) - 5_000_000L, random.nextInt(5)));
+            }
+        }
+    }
+}
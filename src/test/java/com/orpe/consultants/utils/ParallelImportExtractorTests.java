@@ -0,0 +1,93 @@
+package com.orpe.consultants.utils;
+
+import com.orpe.consultants.dto.ImportDataDTO;
+import com.orpe.consultants.exception.FileProcessingException;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelImportExtractorTests {
+
+    private static final int BUDGET_MB = 64;
+
+    // One thread, so most workbooks are still queued when the corrupt one fails
+    private final ParallelImportExtractor parser =
+        new ParallelImportExtractor(new ImportDataExtractor(), 1, BUDGET_MB, 10, new MockEnvironment());
+
+    @AfterEach
+    void shutdown() throws Exception {
+        parser.shutdown();
+    }
+
+    @Test
+    void corruptWorkbookInZipGivesTheWholeBudgetBack() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            addEntry(zip, "00-corrupt.xlsx", "not a workbook".getBytes());
+            for (int i = 1; i <= 20; i++) {
+                addEntry(zip, String.format("%02d.xlsx", i), workbook("BE-" + i, 200));
+            }
+        }
+        MockMultipartFile upload = new MockMultipartFile("files", "imports.zip", "application/zip", bytes.toByteArray());
+
+        FileProcessingException ex = assertThrows(FileProcessingException.class, () -> parser.parse(List.of(upload)));
+        assertTrue(ex.getMessage().contains("00-corrupt.xlsx"), ex.getMessage());
+
+        // The workbook running when parse gave up releases its share when it finishes
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (parser.availableBudgetMb() != BUDGET_MB && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(BUDGET_MB, parser.availableBudgetMb());
+    }
+
+    @Test
+    void mergesWorkbooksInBeDateOrder() throws Exception {
+        List<ImportDataDTO> rows = parser.parse(List.of(
+            new MockMultipartFile("files", "a.xlsx", null, workbook("A", 30)),
+            new MockMultipartFile("files", "b.xlsx", null, workbook("B", 30))));
+
+        assertEquals(60, rows.size());
+        for (int i = 1; i < rows.size(); i++) {
+            assertTrue(ImportDataExtractor.BE_DATE_ORDER.compare(rows.get(i - 1), rows.get(i)) <= 0, "row " + i);
+        }
+        assertEquals(BUDGET_MB, parser.availableBudgetMb());
+    }
+
+    private static void addEntry(ZipOutputStream zip, String name, byte[] content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    // An Import sheet with BE numbers and BE dates in ascending order, i.e. the reverse of BE_DATE_ORDER
+    private static byte[] workbook(String bePrefix, int rows) throws IOException {
+        try (XSSFWorkbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = wb.createSheet("Import");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("BE NO");
+            header.createCell(1).setCellValue("BE DATE");
+            LocalDate start = LocalDate.of(2024, 1, 1);
+            for (int r = 1; r <= rows; r++) {
+                Row row = sheet.createRow(r);
+                row.createCell(0).setCellValue(bePrefix + "-" + r);
+                row.createCell(1).setCellValue(start.plusDays(r).toString());
+            }
+            wb.write(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.orpe.consultants.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ValueParsers against the formatter and regex parsing the extractors used
+ * before (kept below as legacy*). Each invocation parses a whole corpus of
+ * CORPUS strings, so the scores are per string:
+ * <ul>
+ *   <li>sheetDates: 30 distinct dd-MMM-yy dates repeated, as a shipping
+ *       bill sheet has them (memo hits)</li>
+ *   <li>distinctDates: every string a different date, in all five layouts
+ *       (memo misses)</li>
+ *   <li>adjacentCells: what findAdjacentDate probes, mostly labels and
+ *       numbers with some dates</li>
+ *   <li>amounts: PDF and shipping bill amount fields</li>
+ * </ul>
+ * Run with
+ * <pre>
+ * mvn test -Dtest=ValueParsersBenchmark -Dorpe.bench.parsers=true
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueParsersBenchmark {
+
+    private static final int CORPUS = 4096;
+
+    private static final DateTimeFormatter[] PDF_FORMATTERS = new DateTimeFormatter[] {
+        DateTimeFormatter.ofPattern("dd-MMM-yy", Locale.ENGLISH),
+        DateTimeFormatter.ofPattern("dd/MM/yyyy", Locale.ENGLISH)
+    };
+
+    private String[] sheetDates;
+    private String[] distinctDates;
+    private String[] adjacentCells;
+    private String[] amounts;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        DateTimeFormatter sbFormat = DateTimeFormatter.ofPattern("dd-MMM-yy", Locale.ENGLISH);
+        String[] layouts = {"yyyy-MM-dd", "dd-MM-yyyy", "dd/MM/yyyy", "dd-MMM-yy", "dd-MMM-yyyy"};
+        String[] labels = {"Shipping Bill No", "SB Date", "Port Code", "INR", "1234567", "84.25", "", "LEO Date",
+            "Invoice Value", "FOB"};
+
+        sheetDates = new String[CORPUS];
+        distinctDates = new String[CORPUS];
+        adjacentCells = new String[CORPUS];
+        amounts = new String[CORPUS];
+        LocalDate base = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < CORPUS; i++) {
+            // new String: every cell read gives a fresh string whose hash is not cached yet
+            sheetDates[i] = new String(base.plusDays(random.nextInt(30)).format(sbFormat));
+            distinctDates[i] = base.plusDays(i).format(DateTimeFormatter.ofPattern(layouts[i % layouts.length], Locale.ENGLISH));
+            adjacentCells[i] = i % 4 == 0
+                ? new String(base.plusDays(random.nextInt(365)).format(sbFormat))
+                : new String(labels[random.nextInt(labels.length)]);
+            amounts[i] = switch (i % 4) {
+                case 0 -> String.format(Locale.ROOT, "%,.2f", random.nextInt(10_000_000) / 100.0);
+                case 1 -> String.format(Locale.ROOT, "%.4f", 70 + random.nextDouble() * 20);
+                case 2 -> random.nextInt(100_000) + " USD";
+                default -> String.format(Locale.ROOT, "%,.2f INR", random.nextInt(1_000_000) / 10.0);
+            };
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS)
+    public void sheetDatesLegacy(Blackhole bh) {
+        for (String s : sheetDates) bh.consume(legacyShippingBillDate(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS)
+    public void sheetDatesValueParsers(Blackhole bh) {
+        for (String s : sheetDates) bh.consume(ValueParsers.parseDate(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS)
+    public void distinctDatesLegacy(Blackhole bh) {
+        for (String s : distinctDates) bh.consume(legacyShippingBillDate(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS)
+    public void distinctDatesValueParsers(Blackhole bh) {
+        for (String s : distinctDates) bh.consume(ValueParsers.parseDate(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS)
+    public void adjacentCellsLegacy(Blackhole bh) {
+        for (String s : adjacentCells) bh.consume(legacyShippingBillDate(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS)
+    public void adjacentCellsValueParsers(Blackhole bh) {
+        for (String s : adjacentCells) bh.consume(ValueParsers.parseDate(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS)
+    public void pdfDatesLegacy(Blackhole bh) {
+        for (String s : sheetDates) bh.consume(legacyPdfDate(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS)
+    public void amountsLegacy(Blackhole bh) {
+        for (String s : amounts) bh.consume(legacyPdfDecimal(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS)
+    public void amountsValueParsers(Blackhole bh) {
+        for (String s : amounts) bh.consume(ValueParsers.scanDecimal(s));
+    }
+
+    // ExcelShippingBillExtractor.parseFlexibleDate before ValueParsers
+    static LocalDate legacyShippingBillDate(String dateStr) {
+        if (dateStr == null || dateStr.trim().isEmpty()) return null;
+        DateTimeFormatter[] formatters = {
+            DateTimeFormatter.ofPattern("yyyy-MM-dd"),
+            DateTimeFormatter.ofPattern("dd-MM-yyyy"),
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatter.ofPattern("dd-MMM-yy", Locale.ENGLISH),
+            DateTimeFormatter.ofPattern("dd-MMM-yyyy", Locale.ENGLISH)
+        };
+        for (DateTimeFormatter formatter : formatters) {
+            try {
+                return LocalDate.parse(dateStr.trim(), formatter);
+            } catch (Exception e) {
+                // Try next formatter
+            }
+        }
+        return null;
+    }
+
+    // PdfDataExtractor.parseDateFlexible before ValueParsers
+    static LocalDate legacyPdfDate(String dateStr) {
+        if (dateStr == null || dateStr.trim().isEmpty()) return null;
+        for (DateTimeFormatter formatter : PDF_FORMATTERS) {
+            try {
+                return LocalDate.parse(dateStr.trim().toUpperCase(), formatter);
+            } catch (Exception e) {
+                // Continue trying other formats
+            }
+        }
+        return null;
+    }
+
+    // PdfDataExtractor.parseBigDecimal before ValueParsers
+    static BigDecimal legacyPdfDecimal(String val) {
+        try {
+            if (val == null || val.isEmpty()) return null;
+            String cleaned = val.replaceAll("[^\\d.,-]", "").replace(",", "");
+            return new BigDecimal(cleaned);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "orpe.bench.parsers", matches = "true")
+    void run() throws Exception {
+        Options options = new OptionsBuilder()
+            .include(ValueParsersBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
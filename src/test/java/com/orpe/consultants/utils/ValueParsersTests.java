@@ -0,0 +1,112 @@
+package com.orpe.consultants.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The hand-written recognisers against the DateTimeFormatter and
+ * BigDecimal parsing the extractors used before.
+ */
+class ValueParsersTests {
+
+    private static final String[] PATTERNS = {"yyyy-MM-dd", "dd-MM-yyyy", "dd/MM/yyyy", "dd-MMM-yy", "dd-MMM-yyyy"};
+
+    @Test
+    void agreesWithDateTimeFormatterOnEveryDayOfTheLayouts() {
+        for (String pattern : PATTERNS) {
+            DateTimeFormatter format = DateTimeFormatter.ofPattern(pattern, Locale.ENGLISH);
+            for (LocalDate d = LocalDate.of(1999, 1, 1); d.getYear() < 2031; d = d.plusDays(1)) {
+                if (pattern.endsWith("yy") && !pattern.endsWith("yyyy") && d.getYear() < 2000) continue;
+                String text = d.format(format);
+                assertEquals(d, ValueParsers.parseDate(text), pattern + " " + text);
+            }
+        }
+    }
+
+    @Test
+    void clampsDaysPastTheMonthEndLikeTheSmartResolver() {
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("dd-MMM-yy", Locale.ENGLISH);
+        assertEquals(LocalDate.parse("31-Feb-24", format), ValueParsers.parseDate("31-Feb-24"));
+        assertEquals(LocalDate.of(2024, 2, 29), ValueParsers.parseDate("31-02-2024"));
+        assertEquals(LocalDate.of(2023, 4, 30), ValueParsers.parseDate("2023-04-31"));
+    }
+
+    @Test
+    void acceptsMonthNamesInAnyCaseAndOtherSeparators() {
+        LocalDate jan5 = LocalDate.of(2024, 1, 5);
+        assertEquals(jan5, ValueParsers.parseDate("05-JAN-24"));
+        assertEquals(jan5, ValueParsers.parseDate("5-jan-2024"));
+        assertEquals(jan5, ValueParsers.parseDate(" 5 Jan 2024 "));
+        assertEquals(jan5, ValueParsers.parseDate("05/Jan/24"));
+        assertEquals(jan5, ValueParsers.parseDate("05.01.2024"));
+        assertEquals(jan5, ValueParsers.parseDate("2024/01/05"));
+        // Not a valid day first, so month first
+        assertEquals(LocalDate.of(2024, 12, 31), ValueParsers.parseDate("12/31/2024"));
+    }
+
+    @Test
+    void rejectsWhatIsNotADate() {
+        for (String s : new String[] {null, "", "  ", "2024", "05-Jun", "05-Jux-24", "05-Jan-202", "5-Jan-24x",
+                "13-13-2024", "00/00/0000", "2024-1-05", "05-01-24", "Shipping Bill No", "32-Jan-24"}) {
+            assertNull(ValueParsers.parseDate(s), String.valueOf(s));
+        }
+    }
+
+    @Test
+    void memoisedDatesAreTheSameAsFreshOnes() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(LocalDate.of(2024, 3, 15), ValueParsers.parseDate("15-Mar-24"));
+            assertEquals(LocalDate.of(2024, 3, 16), ValueParsers.parseDate("16-Mar-24"));
+            assertNull(ValueParsers.parseDate("15-Mrz-24"));
+        }
+    }
+
+    @Test
+    void scanDecimalMatchesTheStripAndParseItReplaces() {
+        String[] inputs = {"1,234.50 USD", "Rs 12", "  -7.25 ", "-.5", "5.", "0.000100", "12,34,567.8",
+            "USD", "", "-", ".", "1.2.3", "5-", "--5", "(3)", "+4", "1e5", "123456789012345678901234.5",
+            "INR -1,00,000.00", "84.1234 / USD"};
+        for (String s : inputs) {
+            assertEquals(stripAndParse(s), ValueParsers.scanDecimal(s), s);
+        }
+        assertNull(ValueParsers.scanDecimal(null));
+    }
+
+    @Test
+    void parseNumberKeepsItsStrictRules() {
+        assertEquals(new BigDecimal("1234.50"), ValueParsers.parseNumber("1,234.50", false));
+        assertEquals(new BigDecimal("-12.5"), ValueParsers.parseNumber("(12.5)", false));
+        assertEquals(new BigDecimal("-3"), ValueParsers.parseNumber("−3", false));
+        assertEquals(new BigDecimal("7.5"), ValueParsers.parseNumber("7.5 %", true));
+        assertEquals(new BigDecimal("1.5E+3"), ValueParsers.parseNumber("1.5E3", false));
+        assertNull(ValueParsers.parseNumber("NA", false));
+        assertNull(ValueParsers.parseNumber("12 USD", false));
+    }
+
+    @Test
+    void monthAbbreviationsFollowTheEnglishLocale() {
+        DateTimeFormatter format = new DateTimeFormatterBuilder().parseCaseInsensitive()
+            .appendPattern("dd-MMM-yyyy").toFormatter(Locale.ENGLISH);
+        for (int m = 1; m <= 12; m++) {
+            String text = LocalDate.of(2024, m, 1).format(format).toUpperCase(Locale.ROOT);
+            assertEquals(LocalDate.of(2024, m, 1), ValueParsers.parseDate(text), text);
+        }
+    }
+
+    // What ExcelShippingBillExtractor and PdfDataExtractor did before
+    private static BigDecimal stripAndParse(String s) {
+        try {
+            String cleaned = s.replaceAll("[^\\d.,-]", "").replace(",", "");
+            return new BigDecimal(cleaned);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}